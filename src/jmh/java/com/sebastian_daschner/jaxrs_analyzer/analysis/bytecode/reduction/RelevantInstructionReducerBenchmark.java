@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.reduction;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.Types;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.LoadInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.PushInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.ReturnInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.SizeChangingInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.StoreInstruction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the reduction of long generated methods, which compute a chain of local variables that are all relevant for the returned value.
+ * The reduction time should grow linearly with the number of instructions.
+ * Run with {@code mvn -Pbenchmarks test-compile exec:exec -Dbenchmark=RelevantInstructionReducerBenchmark}.
+ *
+ * @author Sebastian Daschner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RelevantInstructionReducerBenchmark {
+
+    private static final int VARIABLES = 50;
+
+    @Param({"1000", "5000", "20000"})
+    private int size;
+
+    private final RelevantInstructionReducer reducer = new RelevantInstructionReducer();
+    private List<Instruction> instructions;
+
+    @Setup
+    public void setUp() {
+        instructions = new ArrayList<>(size);
+        instructions.add(new PushInstruction(0, Types.PRIMITIVE_INT, null));
+        instructions.add(new StoreInstruction(1, Types.PRIMITIVE_INT, "v1", null));
+
+        // v(n) = v(n - 1) + n, the variable slots are reused
+        int variable = 1;
+        for (int step = 1; instructions.size() < size - 2; step++) {
+            final int next = step % VARIABLES + 1;
+            instructions.add(new LoadInstruction(variable, Types.PRIMITIVE_INT, "v" + variable, null, null));
+            instructions.add(new PushInstruction(step, Types.PRIMITIVE_INT, null));
+            instructions.add(new SizeChangingInstruction("IADD", 1, 2, null));
+            instructions.add(new StoreInstruction(next, Types.PRIMITIVE_INT, "v" + next, null));
+            variable = next;
+        }
+
+        instructions.add(new LoadInstruction(variable, Types.PRIMITIVE_INT, "v" + variable, null, null));
+        instructions.add(new ReturnInstruction(null));
+    }
+
+    @Benchmark
+    public List<Instruction> reduceInstructions() {
+        return reducer.reduceInstructions(instructions);
+    }
+
+}
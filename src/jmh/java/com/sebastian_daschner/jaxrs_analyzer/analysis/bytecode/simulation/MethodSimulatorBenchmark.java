@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.simulation;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.Types;
+import com.sebastian_daschner.jaxrs_analyzer.model.elements.Element;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.InvokeInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.LoadInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.PushInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.ReturnInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.SizeChangingInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.StoreInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
+import org.objectweb.asm.Label;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the simulation of generated methods which compute values from local variables and method invocations.
+ * Run with the GC profiler to see the allocated bytes per simulation ({@code gc.alloc.rate.norm}):
+ * {@code mvn -Pbenchmarks test-compile exec:exec -Dbenchmark="MethodSimulatorBenchmark -prof gc"}.
+ *
+ * @author Sebastian Daschner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodSimulatorBenchmark {
+
+    private static final MethodIdentifier VALUE_OF = MethodIdentifier.ofStatic(Types.CLASS_INTEGER, "valueOf", Types.INTEGER, Types.PRIMITIVE_INT);
+    private static final MethodIdentifier MAX = MethodIdentifier.ofStatic("java/lang/Math", "max", Types.PRIMITIVE_INT, Types.PRIMITIVE_INT, Types.PRIMITIVE_INT);
+
+    @Param({"1000", "5000"})
+    private int size;
+
+    private List<Instruction> instructions;
+
+    @Setup
+    public void setUp() {
+        instructions = new ArrayList<>(size);
+        final Label end = new Label();
+
+        Label label = new Label();
+        instructions.add(new PushInstruction(0, Types.PRIMITIVE_INT, label));
+        instructions.add(new StoreInstruction(1, Types.PRIMITIVE_INT, "value", label));
+
+        // value = Math.max(value + step, step); result = Integer.valueOf(value)
+        for (int step = 1; instructions.size() < size - 3; step++) {
+            label = new Label();
+            instructions.add(new LoadInstruction(1, Types.PRIMITIVE_INT, "value", label, end));
+            instructions.add(new PushInstruction(step, Types.PRIMITIVE_INT, label));
+            instructions.add(new SizeChangingInstruction("IADD", 1, 2, label));
+            instructions.add(new PushInstruction(step, Types.PRIMITIVE_INT, label));
+            instructions.add(new InvokeInstruction(MAX, label));
+            instructions.add(new StoreInstruction(1, Types.PRIMITIVE_INT, "value", label));
+            instructions.add(new LoadInstruction(1, Types.PRIMITIVE_INT, "value", label, end));
+            instructions.add(new InvokeInstruction(VALUE_OF, label));
+            instructions.add(new StoreInstruction(2, Types.INTEGER, "result", label));
+        }
+
+        instructions.add(new LoadInstruction(2, Types.INTEGER, "result", end, end));
+        instructions.add(new ReturnInstruction(end));
+    }
+
+    @Benchmark
+    public Element simulate() {
+        return new MethodSimulator().simulate(instructions);
+    }
+
+}
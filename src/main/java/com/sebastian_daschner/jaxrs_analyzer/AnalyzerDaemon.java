@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sebastian_daschner.jaxrs_analyzer;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.LibraryClassLoaders;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A long-running analyzer which accepts analyses of {@link AnalyzerDaemonClient}s on a local port.
+ * The requests carry the same arguments as {@link Main}; the JVM stays warm and the class loaders of the library class paths are shared between the analyses.
+ * The output is sent back to the client, unless an output location is given.
+ * <p>
+ * The daemon only listens on the loopback address. Requests are analyzed concurrently by a bounded number of threads,
+ * further connections wait in a bounded queue or are closed. Requests have to be sent within {@link #DEFAULT_REQUEST_TIMEOUT} milliseconds
+ * and their parallelism is limited to the available processors.
+ * Every request has to carry the random token of the daemon, which is stored in a token file only the owner can read.
+ * The options which run project code or write files ({@link #RESTRICTED_OPTIONS}) are rejected, unless they are explicitly allowed.
+ * The options which affect the whole JVM ({@code -X}, {@code -e}) and the watch mode are rejected, as they would change the daemon for all requests.
+ *
+ * @author Sebastian Daschner
+ */
+public class AnalyzerDaemon implements Closeable {
+
+    public static final int DEFAULT_PORT = 9797;
+
+    /**
+     * The default time in milliseconds in which a request has to be received.
+     */
+    public static final int DEFAULT_REQUEST_TIMEOUT = 10_000;
+
+    private static final int MAX_CONCURRENT_REQUESTS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int MAX_QUEUED_REQUESTS = 64;
+    private static final int MAX_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The default directory of the token files, {@code ~/.jaxrs-analyzer}.
+     */
+    public static final Path DEFAULT_TOKEN_DIRECTORY = Paths.get(System.getProperty("user.home"), ".jaxrs-analyzer");
+
+    /**
+     * The options of {@link Main} which run project code or write files and therefore have to be allowed explicitly.
+     */
+    public static final Set<String> RESTRICTED_OPTIONS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList("--initializeClasses", "-o",
+            "--cacheDir", "--writeAnnotationIndex")));
+
+    private final ServerSocket serverSocket;
+    private final Path tokenFile;
+    private final String token;
+    private final Set<String> allowedOptions;
+    private final int requestTimeout;
+    private final ExecutorService executor = new ThreadPoolExecutor(MAX_CONCURRENT_REQUESTS, MAX_CONCURRENT_REQUESTS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_REQUESTS));
+    private final LibraryClassLoaders libraryClassLoaders = new LibraryClassLoaders(LibraryClassLoaders.DEFAULT_MAX_SIZE);
+
+    /**
+     * Creates a daemon listening on the given port of the loopback address, which token is stored in the {@link #DEFAULT_TOKEN_DIRECTORY}.
+     *
+     * @param port The port or {@code 0} for any free port
+     * @throws IOException If the port could not be bound or the token file could not be written
+     */
+    public AnalyzerDaemon(final int port) throws IOException {
+        this(port, DEFAULT_TOKEN_DIRECTORY, Collections.emptySet());
+    }
+
+    /**
+     * Creates a daemon listening on the given port of the loopback address.
+     *
+     * @param port           The port or {@code 0} for any free port
+     * @param tokenDirectory The directory of the token file
+     * @param allowedOptions The {@link #RESTRICTED_OPTIONS} which are allowed in requests
+     * @throws IOException If the port could not be bound or the token file could not be written
+     */
+    public AnalyzerDaemon(final int port, final Path tokenDirectory, final Set<String> allowedOptions) throws IOException {
+        this(port, tokenDirectory, allowedOptions, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Creates a daemon listening on the given port of the loopback address.
+     *
+     * @param port           The port or {@code 0} for any free port
+     * @param tokenDirectory The directory of the token file
+     * @param allowedOptions The {@link #RESTRICTED_OPTIONS} which are allowed in requests
+     * @param requestTimeout The time in milliseconds in which a request has to be received
+     * @throws IOException If the port could not be bound or the token file could not be written
+     */
+    public AnalyzerDaemon(final int port, final Path tokenDirectory, final Set<String> allowedOptions, final int requestTimeout) throws IOException {
+        if (requestTimeout < 1)
+            throw new IllegalArgumentException("The request timeout must be positive");
+        this.requestTimeout = requestTimeout;
+
+        final Set<String> unknownOptions = new HashSet<>(allowedOptions);
+        unknownOptions.removeAll(RESTRICTED_OPTIONS);
+        if (!unknownOptions.isEmpty())
+            throw new IllegalArgumentException("Only the options " + RESTRICTED_OPTIONS + " can be allowed, not " + unknownOptions);
+        this.allowedOptions = new HashSet<>(allowedOptions);
+
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        tokenFile = DaemonProtocol.getTokenFile(tokenDirectory, serverSocket.getLocalPort());
+        try {
+            token = DaemonProtocol.createToken(tokenFile);
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the file containing the token which authorizes the requests.
+     */
+    public Path getTokenFile() {
+        return tokenFile;
+    }
+
+    /**
+     * Accepts requests until the daemon is closed.
+     */
+    public void run() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                execute(socket);
+            } catch (SocketException e) {
+                // the daemon has been closed
+            } catch (IOException e) {
+                LogProvider.error("Could not accept the daemon request, reason: " + e.getMessage());
+                LogProvider.debug(e);
+            }
+        }
+    }
+
+    private void execute(final Socket socket) throws IOException {
+        try {
+            executor.execute(() -> handle(socket));
+        } catch (RejectedExecutionException e) {
+            LogProvider.error("Rejected a daemon request, too many requests are pending");
+            socket.close();
+        }
+    }
+
+    private void handle(final Socket socket) {
+        try (final Socket closedSocket = socket;
+             final DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            // the whole request has to be received in time, the analysis itself isn't limited
+            socket.setSoTimeout(requestTimeout);
+            final int version = input.readInt();
+            if (version != DaemonProtocol.VERSION) {
+                DaemonProtocol.writeExit(output, DaemonProtocol.STATUS_FAILURE, "Unsupported daemon protocol version " + version);
+                return;
+            }
+
+            if (!DaemonProtocol.isValidToken(token, DaemonProtocol.readString(input))) {
+                LogProvider.error("Rejected a daemon request with an invalid token");
+                DaemonProtocol.writeExit(output, DaemonProtocol.STATUS_UNAUTHORIZED, "Invalid daemon token");
+                return;
+            }
+
+            final Path workingDirectory = Paths.get(DaemonProtocol.readString(input));
+            final String[] args = new String[DaemonProtocol.readArgumentCount(input)];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = DaemonProtocol.readString(input);
+            }
+            socket.setSoTimeout(0);
+
+            analyze(workingDirectory, args, output);
+        } catch (SocketTimeoutException e) {
+            LogProvider.error("Closed a daemon connection which didn't send its request in time");
+        } catch (IOException e) {
+            LogProvider.error("Could not handle the daemon request, reason: " + e.getMessage());
+            LogProvider.debug(e);
+        }
+    }
+
+    private void analyze(final Path workingDirectory, final String[] args, final DataOutputStream output) throws IOException {
+        final Main main;
+        try {
+            main = Main.parseArguments(workingDirectory, args);
+            if (main.isWatch())
+                throw new IllegalArgumentException("The watch mode is not supported by the daemon");
+            if (main.hasGlobalOptions())
+                throw new IllegalArgumentException("The options -X and -e are not supported by the daemon, as they would change all analyses");
+            checkRestrictedOptions(main.getAnalysis());
+        } catch (IllegalArgumentException e) {
+            DaemonProtocol.writeExit(output, DaemonProtocol.STATUS_INVALID_ARGUMENTS, e.getMessage());
+            return;
+        }
+
+        final JAXRSAnalyzer.Analysis analysis = main.getAnalysis();
+        if (analysis.getParallelism() > MAX_PARALLELISM) {
+            LogProvider.debug("Limiting the parallelism of the request from " + analysis.getParallelism() + " to " + MAX_PARALLELISM + " threads");
+            analysis.setParallelism(MAX_PARALLELISM);
+        }
+        analysis.setLibraryClassLoaders(libraryClassLoaders);
+        analysis.setOutputStream(new OutputFrameStream(output));
+
+        try {
+            final long start = System.currentTimeMillis();
+            new JAXRSAnalyzer(analysis).analyze();
+            LogProvider.debug("Analyzed " + analysis.getProjectClassPaths() + " in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (RuntimeException e) {
+            LogProvider.error("Could not analyze " + analysis.getProjectClassPaths() + ", reason: " + e.getMessage());
+            LogProvider.debug(e);
+            DaemonProtocol.writeExit(output, DaemonProtocol.STATUS_FAILURE, e.getMessage());
+            return;
+        }
+
+        DaemonProtocol.writeExit(output, DaemonProtocol.STATUS_SUCCESS, null);
+    }
+
+    private void checkRestrictedOptions(final JAXRSAnalyzer.Analysis analysis) {
+        checkAllowed("--initializeClasses", analysis.isInitializeClasses());
+        checkAllowed("-o", analysis.getOutputLocation() != null);
+        checkAllowed("--cacheDir", analysis.getCacheDirectory() != null);
+        checkAllowed("--writeAnnotationIndex", analysis.getAnnotationIndexOutputLocation() != null);
+    }
+
+    private void checkAllowed(final String option, final boolean used) {
+        if (used && !allowedOptions.contains(option))
+            throw new IllegalArgumentException("The option " + option + " is not allowed by the daemon");
+    }
+
+    /**
+     * Stops accepting requests, deletes the token file and releases the shared class loaders. Running analyses are interrupted.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+        libraryClassLoaders.close();
+        Files.deleteIfExists(tokenFile);
+    }
+
+    /**
+     * Sends the written bytes as output messages.
+     */
+    private static class OutputFrameStream extends OutputStream {
+
+        private final DataOutputStream stream;
+
+        OutputFrameStream(final DataOutputStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            DaemonProtocol.writeOutput(stream, bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            stream.flush();
+        }
+
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sebastian_daschner.jaxrs_analyzer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Sends analyses to an {@link AnalyzerDaemon} running on the local machine.
+ *
+ * @author Sebastian Daschner
+ */
+public final class AnalyzerDaemonClient {
+
+    private AnalyzerDaemonClient() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Lets the daemon analyze the project with the given arguments of {@link Main}.
+     * The token of the daemon is read from the {@link AnalyzerDaemon#DEFAULT_TOKEN_DIRECTORY}.
+     *
+     * @param port             The port of the daemon
+     * @param workingDirectory The directory against which the daemon resolves relative paths
+     * @param args             The arguments
+     * @param output           The stream to which the output is written, if no output location is given
+     * @param errors           The stream to which error messages are written
+     * @return The exit status, {@code 0} on success
+     * @throws IOException If the daemon could not be reached or the token could not be read
+     */
+    public static int analyze(final int port, final Path workingDirectory, final List<String> args, final OutputStream output,
+                              final PrintStream errors) throws IOException {
+        return analyze(port, AnalyzerDaemon.DEFAULT_TOKEN_DIRECTORY, workingDirectory, args, output, errors);
+    }
+
+    /**
+     * Lets the daemon analyze the project with the given arguments of {@link Main}.
+     *
+     * @param port             The port of the daemon
+     * @param tokenDirectory   The directory containing the token file of the daemon
+     * @param workingDirectory The directory against which the daemon resolves relative paths
+     * @param args             The arguments
+     * @param output           The stream to which the output is written, if no output location is given
+     * @param errors           The stream to which error messages are written
+     * @return The exit status, {@code 0} on success
+     * @throws IOException If the daemon could not be reached or the token could not be read
+     */
+    public static int analyze(final int port, final Path tokenDirectory, final Path workingDirectory, final List<String> args,
+                              final OutputStream output, final PrintStream errors) throws IOException {
+        final String token = DaemonProtocol.readToken(DaemonProtocol.getTokenFile(tokenDirectory, port));
+        try (final Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             final DataOutputStream request = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+             final DataInputStream response = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            request.writeInt(DaemonProtocol.VERSION);
+            DaemonProtocol.writeString(request, token);
+            DaemonProtocol.writeString(request, workingDirectory.toAbsolutePath().toString());
+            request.writeInt(args.size());
+            for (final String arg : args) {
+                DaemonProtocol.writeString(request, arg);
+            }
+            request.flush();
+
+            final byte[] buffer = new byte[8192];
+            while (true) {
+                final byte type = response.readByte();
+                switch (type) {
+                    case DaemonProtocol.OUTPUT:
+                        int remaining = DaemonProtocol.readLength(response);
+                        while (remaining > 0) {
+                            final int read = response.read(buffer, 0, Math.min(buffer.length, remaining));
+                            if (read < 0)
+                                throw new IOException("Unexpected end of the daemon response");
+                            output.write(buffer, 0, read);
+                            remaining -= read;
+                        }
+                        break;
+                    case DaemonProtocol.EXIT:
+                        final int status = response.readInt();
+                        final String message = DaemonProtocol.readString(response);
+                        output.flush();
+                        if (!message.isEmpty())
+                            errors.println(message);
+                        return status;
+                    default:
+                        throw new IOException("Unknown daemon response type " + type);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sebastian_daschner.jaxrs_analyzer;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.LibraryClassLoaders;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonString;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Analyzes several projects, e.g. the modules of a build, within one JVM as listed in a JSON manifest:
+ * <pre>
+ * {
+ *     "parallelism": 4,
+ *     "modules": [
+ *         {
+ *             "name": "orders",
+ *             "version": "1.0",
+ *             "projectPaths": ["orders/target/classes"],
+ *             "classPaths": ["lib/javaee-api-7.0.jar", "lib/commons.jar"],
+ *             "sourcePaths": ["orders/src/main/java"],
+ *             "backend": "swagger",
+ *             "output": "orders/target/swagger.json",
+ *             "arguments": ["--renderSwaggerTags"]
+ *         }
+ *     ]
+ * }
+ * </pre>
+ * Relative paths are resolved against the directory of the manifest, the {@code arguments} are further options of {@link Main}.
+ * The options which affect the whole JVM ({@code -X}, {@code -e}) are not supported as module arguments.
+ * The modules are analyzed in parallel ({@code parallelism} is the number of available processors per default).
+ * The class paths which all modules have in common are loaded only once and shared by all analyses.
+ * Jar-files which are used by several modules are indexed only once, their indexes are shared between the class loaders of the modules.
+ *
+ * @author Sebastian Daschner
+ */
+public class BatchAnalysis {
+
+    private final List<JAXRSAnalyzer.Analysis> analyses;
+    private final Set<Path> sharedClassPaths;
+    private final int parallelism;
+
+    private BatchAnalysis(final List<JAXRSAnalyzer.Analysis> analyses, final int parallelism) {
+        this.analyses = analyses;
+        this.parallelism = parallelism;
+        sharedClassPaths = findSharedClassPaths(analyses);
+    }
+
+    /**
+     * Reads the batch manifest.
+     *
+     * @param manifest The location of the JSON manifest
+     * @return The batch analysis
+     * @throws IllegalArgumentException If the manifest is invalid
+     */
+    public static BatchAnalysis read(final Path manifest) {
+        final JsonObject json;
+        try (final Reader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8);
+             final JsonReader jsonReader = Json.createReader(reader)) {
+            json = jsonReader.readObject();
+        } catch (IOException | JsonException e) {
+            throw new IllegalArgumentException("Could not read the batch manifest " + manifest + ", reason: " + e.getMessage(), e);
+        }
+
+        final Path directory = manifest.toAbsolutePath().getParent();
+        try {
+            final int parallelism = json.getInt("parallelism", Runtime.getRuntime().availableProcessors());
+            if (parallelism < 1)
+                throw new IllegalArgumentException("The parallelism must be positive");
+
+            final JsonArray modules = json.getJsonArray("modules");
+            if (modules == null || modules.isEmpty())
+                throw new IllegalArgumentException("The batch manifest " + manifest + " contains no modules");
+
+            final List<JAXRSAnalyzer.Analysis> analyses = new ArrayList<>();
+            for (int i = 0; i < modules.size(); i++) {
+                analyses.add(readModule(directory, modules.getJsonObject(i)));
+            }
+            return new BatchAnalysis(analyses, parallelism);
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException("Invalid batch manifest " + manifest, e);
+        }
+    }
+
+    private static JAXRSAnalyzer.Analysis readModule(final Path directory, final JsonObject module) {
+        final List<String> args = new ArrayList<>();
+        addOption(args, "-n", module.getString("name", null));
+        addOption(args, "-v", module.getString("version", null));
+        addOption(args, "-b", module.getString("backend", null));
+        addOption(args, "-cp", joinPaths(module.getJsonArray("classPaths")));
+        addOption(args, "-sp", joinPaths(module.getJsonArray("sourcePaths")));
+        addOption(args, "-o", module.getString("output", null));
+        args.addAll(getStrings(module.getJsonArray("arguments")));
+        args.addAll(getStrings(module.getJsonArray("projectPaths")));
+
+        final Main main = Main.parseArguments(directory, args.toArray(new String[args.size()]));
+        if (main.isWatch())
+            throw new IllegalArgumentException("The watch mode is not supported in batch mode");
+        if (main.hasGlobalOptions())
+            throw new IllegalArgumentException("The options -X and -e are not supported in module arguments, as they would change all modules");
+        if (main.getAnalysis().getOutputLocation() == null)
+            throw new IllegalArgumentException("The module " + args + " has no output location");
+        return main.getAnalysis();
+    }
+
+    private static void addOption(final List<String> args, final String option, final String value) {
+        if (value != null) {
+            args.add(option);
+            args.add(value);
+        }
+    }
+
+    private static String joinPaths(final JsonArray paths) {
+        final List<String> strings = getStrings(paths);
+        return strings.isEmpty() ? null : String.join(File.pathSeparator, strings);
+    }
+
+    private static List<String> getStrings(final JsonArray array) {
+        if (array == null)
+            return Collections.emptyList();
+        return array.getValuesAs(JsonString.class).stream().map(JsonString::getString).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the class paths which all analyses have in common.
+     */
+    private static Set<Path> findSharedClassPaths(final List<JAXRSAnalyzer.Analysis> analyses) {
+        final Set<Path> sharedClassPaths = normalize(analyses.get(0).getClassPaths());
+        analyses.forEach(a -> sharedClassPaths.retainAll(normalize(a.getClassPaths())));
+        return sharedClassPaths;
+    }
+
+    private static Set<Path> normalize(final Set<Path> paths) {
+        return paths.stream().map(p -> p.toAbsolutePath().normalize()).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    Set<Path> getSharedClassPaths() {
+        return sharedClassPaths;
+    }
+
+    /**
+     * Analyzes all modules.
+     *
+     * @return The number of modules which could not be analyzed
+     */
+    public int analyze() {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, analyses.size()));
+        int failures = 0;
+
+        try (final LibraryClassLoaders libraryClassLoaders = new LibraryClassLoaders(LibraryClassLoaders.DEFAULT_MAX_SIZE, sharedClassPaths)) {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (final JAXRSAnalyzer.Analysis analysis : analyses) {
+                analysis.setLibraryClassLoaders(libraryClassLoaders);
+                futures.add(executor.submit(() -> new JAXRSAnalyzer(analysis).analyze()));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    failures++;
+                    LogProvider.error("Could not analyze " + analyses.get(i).getProjectClassPaths() + ", reason: " + e.getCause().getMessage());
+                    LogProvider.debug(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures = analyses.size();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return failures;
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sebastian_daschner.jaxrs_analyzer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The messages which are exchanged between the {@link AnalyzerDaemon} and the {@link AnalyzerDaemonClient}.
+ * <p>
+ * A request contains the token of the daemon, the working directory of the client and the arguments of {@link Main}.
+ * The response consists of output chunks, followed by the exit status and an optional error message.
+ * <p>
+ * The token is generated randomly per daemon and stored in a file which only the owner can read; requests without the token are rejected.
+ * All lengths are bounded, so that malformed requests can't exhaust the memory.
+ *
+ * @author Sebastian Daschner
+ */
+final class DaemonProtocol {
+
+    static final int VERSION = 2;
+    static final byte OUTPUT = 'O';
+    static final byte EXIT = 'X';
+
+    static final int STATUS_SUCCESS = 0;
+    static final int STATUS_FAILURE = 1;
+    static final int STATUS_INVALID_ARGUMENTS = 2;
+    static final int STATUS_UNAUTHORIZED = 3;
+
+    static final int MAX_LENGTH = 1 << 20;
+    static final int MAX_ARGUMENTS = 1 << 10;
+
+    private static final int TOKEN_SIZE = 32;
+    private static final Set<PosixFilePermission> OWNER_ONLY_FILE = EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE);
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY = EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE,
+            PosixFilePermission.OWNER_EXECUTE);
+
+    private DaemonProtocol() {
+        throw new UnsupportedOperationException();
+    }
+
+    static void writeOutput(final DataOutputStream stream, final byte[] bytes, final int offset, final int length) throws IOException {
+        for (int chunkOffset = offset; chunkOffset < offset + length; chunkOffset += MAX_LENGTH) {
+            final int chunkLength = Math.min(MAX_LENGTH, offset + length - chunkOffset);
+            stream.writeByte(OUTPUT);
+            stream.writeInt(chunkLength);
+            stream.write(bytes, chunkOffset, chunkLength);
+        }
+    }
+
+    static void writeExit(final DataOutputStream stream, final int status, final String message) throws IOException {
+        stream.writeByte(EXIT);
+        stream.writeInt(status);
+        writeString(stream, message != null ? message : "");
+        stream.flush();
+    }
+
+    // strings are length-prefixed as class paths may exceed the limit of modified UTF-8
+    static void writeString(final DataOutputStream stream, final String string) throws IOException {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        stream.writeInt(bytes.length);
+        stream.write(bytes);
+    }
+
+    static String readString(final DataInputStream stream) throws IOException {
+        final byte[] bytes = new byte[readLength(stream)];
+        stream.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int readLength(final DataInputStream stream) throws IOException {
+        return readBounded(stream, MAX_LENGTH, "message length");
+    }
+
+    static int readArgumentCount(final DataInputStream stream) throws IOException {
+        return readBounded(stream, MAX_ARGUMENTS, "number of arguments");
+    }
+
+    private static int readBounded(final DataInputStream stream, final int max, final String name) throws IOException {
+        final int value = stream.readInt();
+        if (value < 0 || value > max)
+            throw new IOException("Invalid " + name + " " + value);
+        return value;
+    }
+
+    /**
+     * Returns the file which contains the token of the daemon listening on the given port.
+     */
+    static Path getTokenFile(final Path tokenDirectory, final int port) {
+        return tokenDirectory.resolve("daemon-" + port + ".token");
+    }
+
+    /**
+     * Generates a new random token and writes it to a file which only the owner can read.
+     *
+     * @param tokenFile The token file, an existing file is replaced
+     * @return The token
+     * @throws IOException If the token file could not be written
+     */
+    static String createToken(final Path tokenFile) throws IOException {
+        final byte[] bytes = new byte[TOKEN_SIZE];
+        new SecureRandom().nextBytes(bytes);
+        final StringBuilder token = new StringBuilder();
+        for (final byte b : bytes) {
+            token.append(String.format("%02x", b));
+        }
+
+        if (tokenFile.getParent() != null && !Files.isDirectory(tokenFile.getParent()))
+            Files.createDirectories(tokenFile.getParent(), ownerOnly(OWNER_ONLY_DIRECTORY));
+
+        // the file is created with the restricted permissions, i.e. it's never readable by others
+        Files.deleteIfExists(tokenFile);
+        try (final SeekableByteChannel channel = Files.newByteChannel(tokenFile, EnumSet.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+                ownerOnly(OWNER_ONLY_FILE))) {
+            channel.write(ByteBuffer.wrap(token.toString().getBytes(StandardCharsets.US_ASCII)));
+        }
+
+        if (!isPosix()) {
+            final File file = tokenFile.toFile();
+            if (!(file.setReadable(false, false) && file.setReadable(true, true) && file.setWritable(false, false) && file.setWritable(true, true)))
+                throw new IOException("Could not restrict the permissions of " + tokenFile);
+        }
+        return token.toString();
+    }
+
+    private static FileAttribute<?>[] ownerOnly(final Set<PosixFilePermission> permissions) {
+        return isPosix() ? new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(permissions)} : new FileAttribute<?>[0];
+    }
+
+    private static boolean isPosix() {
+        return FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    }
+
+    static String readToken(final Path tokenFile) throws IOException {
+        return new String(Files.readAllBytes(tokenFile), StandardCharsets.US_ASCII).trim();
+    }
+
+    /**
+     * Compares the tokens in constant time.
+     */
+    static boolean isValidToken(final String expected, final String actual) {
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII), actual.getBytes(StandardCharsets.US_ASCII));
+    }
+
+}
@@ -1,6 +1,12 @@
 package com.sebastian_daschner.jaxrs_analyzer;
 
+import com.sebastian_daschner.jaxrs_analyzer.analysis.AnalysisContext;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.AnalysisSnapshot;
 import com.sebastian_daschner.jaxrs_analyzer.analysis.ProjectAnalyzer;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.ProjectClassWatcher;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.cache.AnalysisCache;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.AnnotationIndex;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.LibraryClassLoaders;
 import com.sebastian_daschner.jaxrs_analyzer.backend.Backend;
 import com.sebastian_daschner.jaxrs_analyzer.model.rest.Project;
 import com.sebastian_daschner.jaxrs_analyzer.model.rest.Resources;
@@ -8,6 +14,7 @@ import com.sebastian_daschner.jaxrs_analyzer.model.rest.Resources;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.StreamSupport;
@@ -43,14 +50,107 @@ public class JAXRSAnalyzer {
      * Analyzes the JAX-RS project at the class path and produces the output as configured.
      */
     public void analyze() {
-        final Resources resources = new ProjectAnalyzer(analysis.classPaths)
-                .analyze(analysis.projectClassPaths, analysis.projectSourcePaths, analysis.ignoredResources);
+        try (final LibraryClassLoaders.Lease libraries = acquireLibraries();
+             final AnalysisContext analysisContext = createAnalysisContext(libraries);
+             final AnalysisContext.Scope scope = analysisContext.enter()) {
+            final ProjectAnalyzer projectAnalyzer = new ProjectAnalyzer(getContextClassPaths(), analysisContext, analysis.parallelism);
+            projectAnalyzer.setAnnotationIndex(getAnnotationIndex(projectAnalyzer));
+            final Resources resources = projectAnalyzer.analyze(analysis.projectClassPaths, analysis.projectSourcePaths, analysis.ignoredResources);
 
+            output(resources);
+        }
+    }
+
+    /**
+     * Analyzes the JAX-RS project at the class path and produces the output as configured,
+     * then watches the project class path directories and updates the output whenever classes have been changed.
+     * Only the resources which depend on the changed classes are analyzed again.
+     * This method returns if the thread has been interrupted.
+     */
+    public void watch() {
+        try (final LibraryClassLoaders.Lease libraries = acquireLibraries();
+             final AnalysisContext analysisContext = createAnalysisContext(libraries);
+             final AnalysisContext.Scope scope = analysisContext.enter();
+             final ProjectClassWatcher watcher = new ProjectClassWatcher(analysis.projectClassPaths, ProjectClassWatcher.DEFAULT_QUIET_PERIOD)) {
+            final ProjectAnalyzer projectAnalyzer = new ProjectAnalyzer(getContextClassPaths(), analysisContext, analysis.parallelism);
+            projectAnalyzer.setAnnotationIndex(getAnnotationIndex(projectAnalyzer));
+            AnalysisSnapshot snapshot = projectAnalyzer.analyzeSnapshot(analysis.projectClassPaths, analysis.projectSourcePaths, analysis.ignoredResources);
+            output(snapshot.getResources());
+
+            while (!Thread.currentThread().isInterrupted()) {
+                final Set<String> changedClasses = watcher.awaitChangedClasses();
+                LogProvider.info("Analyzing " + changedClasses.size() + " changed classes");
+
+                snapshot = projectAnalyzer.analyzeIncrementally(snapshot, changedClasses, analysis.projectClassPaths,
+                        analysis.projectSourcePaths, analysis.ignoredResources);
+                output(snapshot.getResources());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LogProvider.error("Could not watch the project class paths, reason: " + e.getMessage());
+            LogProvider.debug(e);
+        }
+    }
+
+    /**
+     * Returns the annotation index of the project: the index is either read from the given location or created and written to the given location.
+     * A read index which doesn't match the current class files of the project is ignored.
+     */
+    private AnnotationIndex getAnnotationIndex(final ProjectAnalyzer projectAnalyzer) {
+        if (analysis.annotationIndexLocation != null) {
+            try {
+                final AnnotationIndex annotationIndex = AnnotationIndex.read(analysis.annotationIndexLocation);
+                if (annotationIndex.matches(analysis.projectClassPaths, Files.getLastModifiedTime(analysis.annotationIndexLocation)))
+                    return annotationIndex;
+                LogProvider.info("The annotation index " + analysis.annotationIndexLocation + " doesn't match the class files of the project, the classes are scanned instead");
+                return null;
+            } catch (IOException e) {
+                LogProvider.error("Could not read the annotation index, the classes are scanned instead, reason: " + e.getMessage());
+                LogProvider.debug(e);
+                return null;
+            }
+        }
+
+        if (analysis.annotationIndexOutputLocation == null)
+            return null;
+
+        final AnnotationIndex annotationIndex = projectAnalyzer.createAnnotationIndex(analysis.projectClassPaths);
+        try {
+            annotationIndex.write(analysis.annotationIndexOutputLocation);
+        } catch (IOException e) {
+            LogProvider.error("Could not write the annotation index, reason: " + e.getMessage());
+            LogProvider.debug(e);
+        }
+        return annotationIndex;
+    }
+
+    private LibraryClassLoaders.Lease acquireLibraries() {
+        return analysis.libraryClassLoaders != null ? analysis.libraryClassLoaders.acquire(analysis.classPaths) : null;
+    }
+
+    private AnalysisContext createAnalysisContext(final LibraryClassLoaders.Lease libraries) {
+        final AnalysisContext analysisContext = libraries != null ? new AnalysisContext(libraries.getClassLoader()) : new AnalysisContext();
+        analysisContext.setClassInitializationEnabled(analysis.initializeClasses);
+        if (analysis.cacheDirectory != null)
+            analysisContext.setAnalysisCache(createAnalysisCache(analysis.cacheDirectory, analysis.classPaths));
+        return analysisContext;
+    }
+
+    /**
+     * Returns the class paths which are added to the class loader of the analysis, i.e. which are not shared.
+     */
+    private Set<Path> getContextClassPaths() {
+        return analysis.libraryClassLoaders != null ? Collections.emptySet() : analysis.classPaths;
+    }
+
+    private void output(final Resources resources) {
         if (resources.isEmpty()) {
             LogProvider.info("Empty JAX-RS analysis result, omitting output");
             return;
         }
 
+        // the backends may load the analyzed classes
         final Project project = new Project(analysis.projectName, analysis.projectVersion, resources, analysis.appendHeader);
         final byte[] output = analysis.backend.render(project);
 
@@ -61,10 +161,20 @@ public class JAXRSAnalyzer {
         }
     }
 
+    private static AnalysisCache createAnalysisCache(final Path cacheDirectory, final Set<Path> classPaths) {
+        try {
+            return new AnalysisCache(cacheDirectory, classPaths);
+        } catch (IOException e) {
+            LogProvider.error("Could not create the analysis cache in " + cacheDirectory + ", reason: " + e.getMessage());
+            LogProvider.debug(e);
+            return null;
+        }
+    }
+
     private void outputToConsole(final byte[] output) {
         try {
-            System.out.write(output);
-            System.out.flush();
+            analysis.outputStream.write(output);
+            analysis.outputStream.flush();
         } catch (IOException e) {
             LogProvider.error("Could not write the output, reason: " + e.getMessage());
             LogProvider.debug(e);
@@ -98,7 +208,14 @@ public class JAXRSAnalyzer {
         private String projectName;
         private String projectVersion;
         private boolean appendHeader;
+        private boolean initializeClasses;
+        private int parallelism = 1;
+        private Path cacheDirectory;
+        private Path annotationIndexLocation;
+        private Path annotationIndexOutputLocation;
         private Path outputLocation;
+        private OutputStream outputStream = System.out;
+        private LibraryClassLoaders libraryClassLoaders;
         private Backend backend;
 
         public Set<Path> getProjectClassPaths() {
@@ -113,6 +230,10 @@ public class JAXRSAnalyzer {
             projectSourcePaths.add(sourcePath);
         }
 
+        public Set<Path> getClassPaths() {
+            return classPaths;
+        }
+
         public void addClassPath(Path classPath) {
             classPaths.add(classPath);
         }
@@ -149,6 +270,77 @@ public class JAXRSAnalyzer {
         public void setAppendHeader(boolean appendHeader) {
             this.appendHeader = appendHeader;
         }
+
+        public boolean isInitializeClasses() {
+            return initializeClasses;
+        }
+
+        public void setInitializeClasses(boolean initializeClasses) {
+            this.initializeClasses = initializeClasses;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            if (parallelism < 1)
+                throw new IllegalArgumentException("The parallelism must be positive");
+            this.parallelism = parallelism;
+        }
+
+        public Path getCacheDirectory() {
+            return cacheDirectory;
+        }
+
+        public void setCacheDirectory(Path cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+        }
+
+        /**
+         * Sets the annotation index of the project, which is used instead of scanning the project classes.
+         *
+         * @param annotationIndexLocation The location of the annotation index or {@code null}
+         */
+        public void setAnnotationIndexLocation(Path annotationIndexLocation) {
+            this.annotationIndexLocation = annotationIndexLocation;
+        }
+
+        /**
+         * Sets the location where the annotation index of the project classes is written to, e.g. {@code target/classes/META-INF/jaxrs-analyzer.idx}.
+         *
+         * @param annotationIndexOutputLocation The location of the annotation index or {@code null}
+         */
+        public void setAnnotationIndexOutputLocation(Path annotationIndexOutputLocation) {
+            this.annotationIndexOutputLocation = annotationIndexOutputLocation;
+        }
+
+        public Path getAnnotationIndexOutputLocation() {
+            return annotationIndexOutputLocation;
+        }
+
+        public Path getOutputLocation() {
+            return outputLocation;
+        }
+
+        /**
+         * Sets the stream to which the output is written if no output location is set (standard out per default).
+         *
+         * @param outputStream The output stream
+         */
+        public void setOutputStream(OutputStream outputStream) {
+            this.outputStream = Objects.requireNonNull(outputStream);
+        }
+
+        /**
+         * Sets the class loaders which are shared between several analyses. The class paths are loaded by a shared class loader
+         * instead of the class loader of the analysis, if set.
+         *
+         * @param libraryClassLoaders The shared library class loaders or {@code null}
+         */
+        public void setLibraryClassLoaders(LibraryClassLoaders libraryClassLoaders) {
+            this.libraryClassLoaders = libraryClassLoaders;
+        }
     }
 
 }
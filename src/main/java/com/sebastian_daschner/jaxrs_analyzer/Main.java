@@ -20,11 +20,16 @@ import com.sebastian_daschner.jaxrs_analyzer.backend.StringBackend;
 import com.sebastian_daschner.jaxrs_analyzer.backend.swagger.SwaggerOptions;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -40,15 +45,23 @@ public class Main {
     private static final String DEFAULT_BACKEND = "swagger";
     private static final String COMMA_LIST_SEPARATOR = ",";
 
-    private static final JAXRSAnalyzer.Analysis analysis = new JAXRSAnalyzer.Analysis();
-    private static final Map<String, String> attributes = new HashMap<>();
+    private final JAXRSAnalyzer.Analysis analysis = new JAXRSAnalyzer.Analysis();
+    private final Map<String, String> attributes = new HashMap<>();
+    private final Path workingDirectory;
+    private boolean watch;
+    private boolean debug;
+    private String sourceEncoding;
+
+    Main(final Path workingDirectory) {
+        this.workingDirectory = workingDirectory;
+    }
 
     /**
      * Inspects JAX-RS projects and outputs the gathered information.
      * <p>
      * Argument usage: {@code [options] projectPath [projectPaths...]}
      * <p>
-     * The {@code projectPath} entries may be directories or jar-files containing the classes to be analyzed
+     * The {@code projectPath} entries may be directories, jar-files or WAR, EAR or Spring Boot archives containing the classes to be analyzed
      * <p>
      * Following available options:
      * <ul>
@@ -61,8 +74,19 @@ public class Main {
      * <li>{@code -d project domain} The domain of the project</li>
      * <li>{@code -o output file} The location of the analysis output (will be printed to standard out if omitted)</li>
      * <li>{@code -e encoding} The source file encoding</li>
+     * <li>{@code --initializeClasses} Allows to initialize project classes to resolve non-constant static field values (disabled per default)</li>
+     * <li>{@code --parallel [threads]} Analyzes the resource classes in parallel, using the given number of threads or all available processors</li>
+     * <li>{@code --cacheDir directory} Caches the analysis results of the resource classes in the directory and reuses them for unchanged classes</li>
+     * <li>{@code --annotationIndex file} Takes the project classes from the annotation index instead of scanning the project paths</li>
+     * <li>{@code --writeAnnotationIndex file} Writes the annotation index of the project classes to the file</li>
+     * <li>{@code --watch} Keeps running, watches the project class path directories and updates the output whenever classes have been changed</li>
+     * <li>{@code --daemonPort port} Sends the analysis to the daemon listening on the local port instead of analyzing in this JVM</li>
      * </ul>
      * <p>
+     * Invoked with {@code --daemon [port] [--allowOptions option[,options]]} as only arguments, a daemon is started which analyzes the requests
+     * of {@code --daemonPort} invocations (see {@link AnalyzerDaemon}); the options which run project code or write files are only accepted if allowed.
+     * Invoked with {@code --batch manifest}, all modules of the manifest are analyzed (see {@link BatchAnalysis}).
+     * <p>
      * Following available backend specific options (only have effect if the corresponding backend is selected):
      * <ul>
      * <li>{@code --swaggerSchemes scheme[,schemes]} The Swagger schemes: {@code http} (default), {@code https}, {@code ws}, {@code wss}")</li>
@@ -78,26 +102,156 @@ public class Main {
             printUsageAndExit();
         }
 
+        if ("--daemon".equals(args[0])) {
+            runDaemon(args);
+            return;
+        }
+
+        if ("--batch".equals(args[0])) {
+            System.exit(runBatch(args));
+        }
+
+        final int daemonPortIndex = Arrays.asList(args).indexOf("--daemonPort");
+        if (daemonPortIndex >= 0) {
+            System.exit(sendToDaemon(args, daemonPortIndex));
+        }
+
+        final Main main;
         try {
-            setDefaults();
-            extractArgs(args);
+            main = parseArguments(Paths.get(""), args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage() + '\n');
+            printUsageAndExit();
+            return;
+        }
+
+        main.applyGlobalOptions();
+        final JAXRSAnalyzer analyzer = new JAXRSAnalyzer(main.analysis);
+        if (main.watch)
+            analyzer.watch();
+        else
+            analyzer.analyze();
+    }
+
+    /**
+     * Parses the arguments of an analysis.
+     * The options which affect the whole JVM ({@code -X}, {@code -e}) are only recorded, see {@link #applyGlobalOptions()}.
+     *
+     * @param workingDirectory The directory against which relative paths are resolved
+     * @param args             The arguments
+     * @return The parsed arguments
+     * @throws IllegalArgumentException If the arguments are invalid
+     */
+    static Main parseArguments(final Path workingDirectory, final String... args) {
+        final Main main = new Main(workingDirectory);
+        main.setDefaults();
+        main.extractArgs(args);
+        main.validateArgs();
+        main.configureBackend();
+        return main;
+    }
+
+    JAXRSAnalyzer.Analysis getAnalysis() {
+        return analysis;
+    }
+
+    boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * Returns {@code true} if options have been given which affect the whole JVM instead of only this analysis, i.e. {@code -X} or {@code -e}.
+     */
+    boolean hasGlobalOptions() {
+        return debug || sourceEncoding != null;
+    }
+
+    /**
+     * Applies the options which affect the whole JVM, i.e. the debug logging and the source file encoding.
+     */
+    private void applyGlobalOptions() {
+        if (debug)
+            LogProvider.injectDebugLogger(System.err::println);
+        if (sourceEncoding != null)
+            System.setProperty("project.build.sourceEncoding", sourceEncoding);
+    }
+
+    private static void runDaemon(final String[] args) {
+        int port = AnalyzerDaemon.DEFAULT_PORT;
+        final Set<String> allowedOptions = new HashSet<>();
+        for (int i = 1; i < args.length; i++) {
+            if ("--allowOptions".equals(args[i]) && i + 1 < args.length)
+                allowedOptions.addAll(extractList(args[++i]));
+            else if (i == 1)
+                port = parsePort(args[i]);
+            else {
+                System.err.println("Unknown daemon option " + args[i] + '\n');
+                printUsageAndExit();
+            }
+        }
+
+        try (final AnalyzerDaemon daemon = new AnalyzerDaemon(port, AnalyzerDaemon.DEFAULT_TOKEN_DIRECTORY, allowedOptions)) {
+            LogProvider.info("JAX-RS Analyzer daemon listening on port " + daemon.getPort());
+            daemon.run();
         } catch (IllegalArgumentException e) {
             System.err.println(e.getMessage() + '\n');
             printUsageAndExit();
+        } catch (IOException e) {
+            LogProvider.error("Could not run the daemon, reason: " + e.getMessage());
+            LogProvider.debug(e);
+            System.exit(1);
+        }
+    }
+
+    private static int runBatch(final String[] args) {
+        if (args.length != 2) {
+            System.err.println("Please provide the batch manifest as only argument\n");
+            printUsageAndExit();
+        }
+
+        try {
+            final int failures = BatchAnalysis.read(Paths.get(args[1])).analyze();
+            return failures == 0 ? 0 : 1;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return 2;
+        }
+    }
+
+    private static int sendToDaemon(final String[] args, final int daemonPortIndex) {
+        if (daemonPortIndex + 1 >= args.length) {
+            System.err.println("Please provide valid number of arguments\n");
+            printUsageAndExit();
         }
 
-        validateArgs();
-        configureBackend();
+        final List<String> analysisArgs = new ArrayList<>(Arrays.asList(args));
+        final int port = parsePort(analysisArgs.remove(daemonPortIndex + 1));
+        analysisArgs.remove(daemonPortIndex);
 
-        new JAXRSAnalyzer(analysis).analyze();
+        try {
+            return AnalyzerDaemonClient.analyze(port, Paths.get("").toAbsolutePath(), analysisArgs, System.out, System.err);
+        } catch (IOException e) {
+            System.err.println("Could not connect to the daemon on port " + port + ", reason: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int parsePort(final String port) {
+        try {
+            return Integer.parseInt(port);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid port " + port + '\n');
+            printUsageAndExit();
+            return -1;
+        }
     }
 
-    private static void setDefaults() {
+    private void setDefaults() {
         analysis.setProjectName(DEFAULT_NAME);
         analysis.setProjectVersion(DEFAULT_VERSION);
     }
 
-    private static void extractArgs(String[] args) {
+    private void extractArgs(String[] args) {
         try {
             for (int i = 0; i < args.length; i++) {
                 if (args[i].startsWith("-")) {
@@ -112,7 +266,7 @@ public class Main {
                             extractClassPaths(args[++i]).forEach(analysis::addProjectSourcePath);
                             break;
                         case "-X":
-                            LogProvider.injectDebugLogger(System.err::println);
+                            debug = true;
                             break;
                         case "-n":
                             analysis.setProjectName(args[++i]);
@@ -124,10 +278,10 @@ public class Main {
                             attributes.put(SwaggerOptions.DOMAIN, args[++i]);
                             break;
                         case "-o":
-                            analysis.setOutputLocation(Paths.get(args[++i]));
+                            analysis.setOutputLocation(resolvePath(args[++i]));
                             break;
                         case "-e":
-                            System.setProperty("project.build.sourceEncoding", args[++i]);
+                            sourceEncoding = args[++i];
                             break;
                         case "--swaggerSchemes":
                             attributes.put(SwaggerOptions.SWAGGER_SCHEMES, args[++i]);
@@ -147,6 +301,27 @@ public class Main {
                         case "-a":
                             addAttribute(args[++i]);
                             break;
+                        case "--initializeClasses":
+                            analysis.setInitializeClasses(true);
+                            break;
+                        case "--parallel":
+                            if (i + 1 < args.length && args[i + 1].matches("\\d+"))
+                                analysis.setParallelism(Integer.parseInt(args[++i]));
+                            else
+                                analysis.setParallelism(Runtime.getRuntime().availableProcessors());
+                            break;
+                        case "--cacheDir":
+                            analysis.setCacheDirectory(resolvePath(args[++i]));
+                            break;
+                        case "--annotationIndex":
+                            analysis.setAnnotationIndexLocation(resolvePath(args[++i]));
+                            break;
+                        case "--writeAnnotationIndex":
+                            analysis.setAnnotationIndexOutputLocation(resolvePath(args[++i]));
+                            break;
+                        case "--watch":
+                            watch = true;
+                            break;
                         case "-appendHeader":
                             analysis.setAppendHeader(Boolean.parseBoolean(args[++i]));
                             break;
@@ -154,10 +329,9 @@ public class Main {
                             throw new IllegalArgumentException("Unknown option " + args[i]);
                     }
                 } else {
-                    final Path path = Paths.get(args[i].replaceFirst("^~", System.getProperty("user.home")));
+                    final Path path = resolvePath(args[i]);
                     if (!path.toFile().exists()) {
-                        System.err.println("Location " + path.toFile() + " doesn't exist\n");
-                        printUsageAndExit();
+                        throw new IllegalArgumentException("Location " + path.toFile() + " doesn't exist");
                     }
                     analysis.addProjectClassPath(path);
                 }
@@ -167,7 +341,7 @@ public class Main {
         }
     }
 
-    static Map<String, String> addAttribute(String attribute) {
+    Map<String, String> addAttribute(String attribute) {
         int separatorIndex = attribute.indexOf('=');
 
         if (separatorIndex < 0) {
@@ -183,10 +357,9 @@ public class Main {
         return JAXRSAnalyzer.constructBackend(name.toLowerCase());
     }
 
-    private static List<Path> extractClassPaths(final String classPaths) {
+    private List<Path> extractClassPaths(final String classPaths) {
         final List<Path> paths = Stream.of(classPaths.split(File.pathSeparator))
-                .map(s -> s.replaceFirst("^~", System.getProperty("user.home")))
-                .map(Paths::get).collect(Collectors.toList());
+                .map(this::resolvePath).collect(Collectors.toList());
         paths.forEach(p -> {
             if (!p.toFile().exists()) {
                 throw new IllegalArgumentException("Class path " + p.toFile() + " doesn't exist");
@@ -202,14 +375,17 @@ public class Main {
                 .collect(Collectors.toList());
     }
 
-    private static void validateArgs() {
+    private Path resolvePath(final String path) {
+        return workingDirectory.resolve(path.replaceFirst("^~", System.getProperty("user.home")));
+    }
+
+    private void validateArgs() {
         if (analysis.getProjectClassPaths().isEmpty()) {
-            System.err.println("Please provide at least one project path\n");
-            printUsageAndExit();
+            throw new IllegalArgumentException("Please provide at least one project path");
         }
     }
 
-    private static void configureBackend() {
+    private void configureBackend() {
         if (analysis.getBackend() == null)
             analysis.setBackend(JAXRSAnalyzer.constructBackend(DEFAULT_BACKEND));
         analysis.configureBackend(attributes);
@@ -217,7 +393,7 @@ public class Main {
 
     private static void printUsageAndExit() {
         System.err.println("Usage: java -jar jaxrs-analyzer.jar [options] classPath [classPaths...]");
-        System.err.println("The classPath entries may be directories or jar-files containing the classes to be analyzed\n");
+        System.err.println("The classPath entries may be directories, jar-files or WAR, EAR or Spring Boot archives containing the classes to be analyzed\n");
         System.err.println("Following available options:\n");
         System.err.println(" -b <backend> The backend to choose: swagger (default), plaintext, asciidoc, markdown");
         System.err.println(" -cp <class path>[:class paths] Additional class paths (separated with colon) which contain classes used in the project (may be directories or jar-files)");
@@ -229,6 +405,15 @@ public class Main {
         System.err.println(" -o <output file> The location of the analysis output (will be printed to standard out if omitted)");
         System.err.println(" -a <attribute name>=<attribute value> Set custom attributes for backends.");
         System.err.println(" -e <encoding> The source file encoding");
+        System.err.println(" --initializeClasses Allows to initialize project classes, i.e. to run their static initializers, to resolve non-constant static field values (disabled per default)");
+        System.err.println(" --parallel [threads] Analyzes the resource classes in parallel, using the given number of threads or all available processors (sequential per default)");
+        System.err.println(" --cacheDir <directory> Caches the analysis results of the resource classes in the directory and reuses them for unchanged classes in later runs (not cached per default)");
+        System.err.println(" --annotationIndex <file> Takes the project classes from the annotation index instead of scanning the project paths (project paths containing META-INF/jaxrs-analyzer.idx are never scanned)");
+        System.err.println(" --writeAnnotationIndex <file> Writes the annotation index of the project classes to the file, e.g. to <classes>/META-INF/jaxrs-analyzer.idx");
+        System.err.println(" --daemonPort <port> Sends the analysis to the daemon listening on the local port (started with --daemon [port] [--allowOptions <option>[,options]] as only arguments, port " + AnalyzerDaemon.DEFAULT_PORT + " per default)");
+        System.err.println("     The daemon only accepts " + String.join(", ", AnalyzerDaemon.RESTRICTED_OPTIONS) + " if they are allowed with --allowOptions");
+        System.err.println(" --watch Keeps running, watches the project class path directories and regenerates the output for changed classes (disabled per default)");
+        System.err.println("\nAlternatively, all modules of a JSON manifest are analyzed with: java -jar jaxrs-analyzer.jar --batch <manifest>");
         System.err.println("\nFollowing available backend specific options (only have effect if the corresponding backend is selected):\n");
         System.err.println(" --swaggerSchemes <scheme>[,schemes] The Swagger schemes: http (default), https, ws, wss");
         System.err.println(" --renderSwaggerTags Enables rendering of Swagger tags (default tag will be used per default)");
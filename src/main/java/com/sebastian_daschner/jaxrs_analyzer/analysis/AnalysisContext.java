@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sebastian_daschner.jaxrs_analyzer.analysis;
+
+import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.simulation.MethodPool;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.cache.AnalysisCache;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ClassBytesCache;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ExtensibleClassLoader;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ProjectClassModelPool;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.TypeDecisionCache;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.TypeHierarchy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Holds the state of a single analysis: the class loader of the analyzed project, the cached class files, class models, type hierarchy and type decisions,
+ * the known methods and the pending (sub-)resource classes.
+ * <p>
+ * The library class paths are loaded by a class loader which is the parent of the project class loader,
+ * so that only the project classes have to be reloaded when they have been changed (see {@link #reloadClasses(Collection)}).
+ * <p>
+ * The context is bound to the current thread via {@link #enter()}; the {@code getInstance()} methods of the corresponding components
+ * return the component of the bound context. If no context is bound, a JVM-wide default context is used.
+ * Independent contexts can be used concurrently.
+ *
+ * @author Sebastian Daschner
+ */
+public class AnalysisContext implements Closeable {
+
+    private static final AnalysisContext DEFAULT_CONTEXT = new AnalysisContext();
+    private static final ThreadLocal<AnalysisContext> CURRENT_CONTEXT = new ThreadLocal<>();
+
+    private final ExtensibleClassLoader libraryClassLoader;
+    private volatile ExtensibleClassLoader classLoader;
+    private final ClassBytesCache classBytesCache;
+    private final TypeHierarchy typeHierarchy;
+    private final TypeDecisionCache typeDecisionCache = new TypeDecisionCache(TypeDecisionCache.DEFAULT_MAX_SIZE);
+    private final ProjectClassModelPool classModelPool = new ProjectClassModelPool();
+    private final JobRegistry jobRegistry = new JobRegistry();
+    private volatile MethodPool methodPool = new MethodPool();
+    private volatile boolean classInitializationEnabled;
+    private volatile AnalysisCache analysisCache;
+
+    /**
+     * Creates a context which class loader delegates to the system class loader.
+     */
+    public AnalysisContext() {
+        this(ClassLoader.getSystemClassLoader());
+    }
+
+    /**
+     * Creates a context which class loader delegates to the given parent, e.g. a class loader of libraries shared by several analyses.
+     *
+     * @param parentClassLoader The parent class loader
+     */
+    public AnalysisContext(final ClassLoader parentClassLoader) {
+        libraryClassLoader = new ExtensibleClassLoader(parentClassLoader);
+        classLoader = new ExtensibleClassLoader(libraryClassLoader);
+        classBytesCache = new ClassBytesCache(classLoader, ClassBytesCache.DEFAULT_MAX_SIZE);
+        typeHierarchy = new TypeHierarchy(classBytesCache);
+    }
+
+    /**
+     * Returns the context which is bound to the current thread or the default context.
+     *
+     * @return The current context
+     */
+    public static AnalysisContext current() {
+        final AnalysisContext context = CURRENT_CONTEXT.get();
+        return context != null ? context : DEFAULT_CONTEXT;
+    }
+
+    /**
+     * Binds this context to the current thread until the returned scope is closed.
+     *
+     * @return The scope which restores the previously bound context when closed
+     */
+    public Scope enter() {
+        final Scope scope = new Scope(CURRENT_CONTEXT.get());
+        CURRENT_CONTEXT.set(this);
+        return scope;
+    }
+
+    /**
+     * Returns the class loader of the project classes, which delegates to the class loader of the library class paths.
+     */
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * Adds a library class path location, which is kept when the classes are reloaded.
+     */
+    public void addClassPath(final URL url) {
+        libraryClassLoader.addURL(url);
+        typeDecisionCache.clear();
+    }
+
+    /**
+     * Adds the library class path locations; the jar-files are indexed in parallel.
+     *
+     * @param urls The locations in class path order
+     */
+    public void addClassPaths(final Collection<URL> urls) {
+        libraryClassLoader.addURLs(urls);
+        typeDecisionCache.clear();
+    }
+
+    /**
+     * Adds a project class path location, which classes are loaded again by {@link #reloadClasses(Collection)}.
+     */
+    public void addProjectClassPath(final URL url) {
+        classLoader.addURL(url);
+        typeDecisionCache.clear();
+    }
+
+    public ClassBytesCache getClassBytesCache() {
+        return classBytesCache;
+    }
+
+    public TypeHierarchy getTypeHierarchy() {
+        return typeHierarchy;
+    }
+
+    public TypeDecisionCache getTypeDecisionCache() {
+        return typeDecisionCache;
+    }
+
+    public ProjectClassModelPool getClassModelPool() {
+        return classModelPool;
+    }
+
+    public JobRegistry getJobRegistry() {
+        return jobRegistry;
+    }
+
+    public MethodPool getMethodPool() {
+        return methodPool;
+    }
+
+    public boolean isClassInitializationEnabled() {
+        return classInitializationEnabled;
+    }
+
+    /**
+     * Enables to initialize (i.e. to run the static initializers of) project classes in order to resolve static field values.
+     * This is disabled per default.
+     *
+     * @param classInitializationEnabled {@code true} if the classes may be initialized
+     */
+    public void setClassInitializationEnabled(final boolean classInitializationEnabled) {
+        this.classInitializationEnabled = classInitializationEnabled;
+    }
+
+    public AnalysisCache getAnalysisCache() {
+        return analysisCache;
+    }
+
+    /**
+     * Sets the persistent cache of analyzed classes, which is used across analyses. No cache is used per default.
+     *
+     * @param analysisCache The analysis cache or {@code null}
+     */
+    public void setAnalysisCache(final AnalysisCache analysisCache) {
+        this.analysisCache = analysisCache;
+    }
+
+    /**
+     * Frees the analysis state, i.e. the cached classes, the pending jobs and the known project methods.
+     * The class paths are kept.
+     */
+    public void clear() {
+        clearAnalysisState();
+        classBytesCache.clear();
+        typeHierarchy.clear();
+        typeDecisionCache.clear();
+        classModelPool.clear();
+    }
+
+    /**
+     * Frees the state of a finished analysis, i.e. the pending jobs and the known project methods.
+     * The cached class files, class models, type hierarchy and type decisions are kept for later analyses within this context.
+     */
+    public void clearAnalysisState() {
+        LogProvider.debug("Class file cache: " + classBytesCache.getHits() + " hits, " + classBytesCache.getMisses() + " misses");
+        if (analysisCache != null)
+            LogProvider.debug("Analysis cache: " + analysisCache.getHits() + " hits, " + analysisCache.getMisses() + " misses");
+        LogProvider.debug("Type decision cache: " + typeDecisionCache.getStatistics());
+        jobRegistry.clear();
+        methodPool = new MethodPool();
+    }
+
+    /**
+     * Replaces the project class loader with a new one on the same project class paths, so that changed class files are loaded again.
+     * The library class loader and the cached data of all unchanged classes are kept; this must not be invoked during an analysis.
+     *
+     * @param changedClasses The fully-qualified names (either with dots or slashes) of the changed, added or removed classes
+     */
+    public void reloadClasses(final Collection<String> changedClasses) {
+        final ExtensibleClassLoader previousClassLoader = classLoader;
+        final ExtensibleClassLoader reloadingClassLoader = new ExtensibleClassLoader(libraryClassLoader);
+        reloadingClassLoader.addURLs(Arrays.asList(previousClassLoader.getURLs()));
+
+        clearAnalysisState();
+        classLoader = reloadingClassLoader;
+        classBytesCache.reload(reloadingClassLoader, changedClasses);
+        typeHierarchy.evict(changedClasses);
+        classModelPool.evict(changedClasses);
+        // the decisions of unchanged types may depend on the changed ones
+        typeDecisionCache.clear();
+        closeClassLoader(previousClassLoader);
+    }
+
+    /**
+     * Frees the analysis state and closes the class loaders.
+     */
+    @Override
+    public void close() {
+        clear();
+        closeClassLoader(classLoader);
+        closeClassLoader(libraryClassLoader);
+    }
+
+    private static void closeClassLoader(final ExtensibleClassLoader classLoader) {
+        try {
+            classLoader.close();
+        } catch (IOException e) {
+            LogProvider.error("Could not close the class loader, reason: " + e.getMessage());
+            LogProvider.debug(e);
+        }
+    }
+
+    /**
+     * The binding of a context to the current thread.
+     */
+    public static class Scope implements AutoCloseable {
+
+        private final AnalysisContext previousContext;
+
+        private Scope(final AnalysisContext previousContext) {
+            this.previousContext = previousContext;
+        }
+
+        @Override
+        public void close() {
+            if (previousContext == null)
+                CURRENT_CONTEXT.remove();
+            else
+                CURRENT_CONTEXT.set(previousContext);
+        }
+
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sebastian_daschner.jaxrs_analyzer.analysis;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.rest.Resources;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * The result of a project analysis together with the analyzed root resource classes and the classes they depend on,
+ * which is used to update the result incrementally (see {@link ProjectAnalyzer#analyzeIncrementally}).
+ *
+ * @author Sebastian Daschner
+ */
+public class AnalysisSnapshot {
+
+    private final Resources resources;
+    private final SortedMap<String, ClassResult> rootResults;
+    private final Map<String, Set<String>> rootDependencies;
+
+    AnalysisSnapshot(final Resources resources, final Map<String, ClassResult> rootResults, final Map<String, Set<String>> rootDependencies) {
+        this.resources = resources;
+        this.rootResults = Collections.unmodifiableSortedMap(new TreeMap<>(rootResults));
+        this.rootDependencies = Collections.unmodifiableMap(new TreeMap<>(rootDependencies));
+    }
+
+    public Resources getResources() {
+        return resources;
+    }
+
+    /**
+     * Returns the analyzed root resource classes.
+     *
+     * @return The fully-qualified class names, sorted
+     */
+    public Set<String> getRootResourceClasses() {
+        return rootResults.keySet();
+    }
+
+    SortedMap<String, ClassResult> getRootResults() {
+        return rootResults;
+    }
+
+    Map<String, Set<String>> getRootDependencies() {
+        return rootDependencies;
+    }
+
+    /**
+     * Returns the root resource classes which results depend on one of the given classes,
+     * i.e. which analyze one of the classes as (sub-)resource, invoke one of their methods or inherit from them.
+     *
+     * @param classNames The class names with slashes
+     * @return The fully-qualified root resource class names
+     */
+    Set<String> getAffectedRootResources(final Set<String> classNames) {
+        return rootDependencies.entrySet().stream()
+                .filter(e -> e.getValue().stream().anyMatch(classNames::contains))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+}
@@ -1,30 +1,42 @@
 package com.sebastian_daschner.jaxrs_analyzer.analysis;
 
+import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
 import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
 import com.sebastian_daschner.jaxrs_analyzer.utils.Pair;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
- * Thread-safe singleton of unhandled class analysis jobs.
+ * Thread-safe registry of unhandled class analysis jobs of an analysis.
+ * <p>
+ * Every sub-resource class is only analyzed once; all further sub-resource locators which return the same class reuse the result.
+ * Locators which would (indirectly) return their own resource again are not followed.
  *
  * @author Sebastian Daschner
  */
 public class JobRegistry {
 
-    private static final JobRegistry INSTANCE = new JobRegistry();
-    private Queue<Pair<String, ClassResult>> unhandledClasses = new ConcurrentLinkedQueue<>();
+    private final Queue<Pair<String, ClassResult>> unhandledClasses = new ConcurrentLinkedQueue<>();
+    private final Map<String, ClassResult> subResourceClasses = new HashMap<>();
 
-    private JobRegistry() {
-        // only one instance allowed
+    JobRegistry() {
+        // only instantiated by the analysis context
     }
 
     /**
      * Adds the (sub-)resource class name to the analysis list with the associated class result.
      */
     public void analyzeResourceClass(final String className, final ClassResult classResult) {
-        // TODO check if class has already been analyzed
         unhandledClasses.add(Pair.of(className, classResult));
     }
 
@@ -34,11 +46,85 @@ public class JobRegistry {
      * @return An unhandled class or {@code null} if all classes have been analyzed
      */
     public Pair<String, ClassResult> nextUnhandledClass() {
+        Pair<String, ClassResult> classResultPair;
+        while ((classResultPair = pollUnhandledClass()) != null) {
+            if (!reuseAnalyzedClass(classResultPair.getLeft(), classResultPair.getRight()))
+                return classResultPair;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a registered class, regardless whether the class has already been analyzed for another sub-resource locator.
+     * The class has to be passed to {@link #reuseAnalyzedClass(String, ClassResult)} before it is analyzed.
+     *
+     * @return A registered class or {@code null}
+     */
+    Pair<String, ClassResult> pollUnhandledClass() {
         return unhandledClasses.poll();
     }
 
+    /**
+     * Checks whether the sub-resource class has already been registered for another sub-resource locator.
+     * In that case the locator of the given class result reuses the existing result, unless that would cause a cycle.
+     * Otherwise the class result is kept for further locators.
+     *
+     * @param className   The class name
+     * @param classResult The class result of the job
+     * @return {@code true} if the class doesn't need to be analyzed anymore
+     */
+    synchronized boolean reuseAnalyzedClass(final String className, final ClassResult classResult) {
+        final MethodResult locator = classResult.getParentSubResourceLocator();
+        if (locator == null)
+            // root resources are analyzed exactly once
+            return false;
+
+        final ClassResult analyzedResult = subResourceClasses.putIfAbsent(className, classResult);
+        if (analyzedResult == null)
+            return false;
+
+        if (isReachable(locator.getParentResource(), analyzedResult)) {
+            LogProvider.debug("Ignoring recursive sub-resource locator " + locator.getOriginalMethodSignature() + " for " + className);
+            return true;
+        }
+
+        locator.setSubResource(analyzedResult);
+        return true;
+    }
+
+    /**
+     * Checks whether the target class result is the given class result or one of its (transitive) sub-resources.
+     */
+    private static boolean isReachable(final ClassResult target, final ClassResult classResult) {
+        final Set<ClassResult> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<ClassResult> pending = new ArrayDeque<>();
+        pending.add(classResult);
+
+        while (!pending.isEmpty()) {
+            final ClassResult current = pending.poll();
+            if (current == target)
+                return true;
+            if (visited.add(current))
+                current.getMethods().stream().map(MethodResult::getSubResource).filter(Objects::nonNull).forEach(pending::add);
+        }
+        return false;
+    }
+
+    /**
+     * Removes all unhandled classes and the analyzed sub-resource classes.
+     */
+    synchronized void clear() {
+        unhandledClasses.clear();
+        subResourceClasses.clear();
+    }
+
+    /**
+     * Returns the job registry of the current analysis.
+     *
+     * @return The job registry of the current {@link AnalysisContext}
+     */
     public static JobRegistry getInstance() {
-        return INSTANCE;
+        return AnalysisContext.current().getJobRegistry();
     }
 
 }
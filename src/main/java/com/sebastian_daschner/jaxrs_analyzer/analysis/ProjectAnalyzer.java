@@ -16,37 +16,45 @@
 package com.sebastian_daschner.jaxrs_analyzer.analysis;
 
 import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
-import com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.BytecodeAnalyzer;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.AnnotationIndex;
 import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ContextClassReader;
-import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.JAXRSClassVisitor;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.JAXRSRootResourceClassVisitor;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.SuperTypeResolver;
 import com.sebastian_daschner.jaxrs_analyzer.analysis.javadoc.JavaDocAnalyzer;
 import com.sebastian_daschner.jaxrs_analyzer.analysis.results.ResultInterpreter;
-import com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils;
-import static com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils.isAnnotationPresent;
 import com.sebastian_daschner.jaxrs_analyzer.model.rest.Resources;
 import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
-import com.sebastian_daschner.jaxrs_analyzer.utils.Pair;
-import java.io.File;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
+import java.io.Closeable;
 import java.io.IOException;
+import java.net.URL;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Enumeration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import javax.ws.rs.ApplicationPath;
+import java.util.stream.Collectors;
 import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassVisitor;
 
 /**
  * Analyzes the JAX-RS project. This class is thread-safe.
+ * The project analyzer has to be closed after usage if it created its own analysis context.
  *
  * @author Sebastian Daschner
  */
-public class ProjectAnalyzer {
+public class ProjectAnalyzer implements Closeable {
 
     // TODO test following scenario:
     // 2 Maven modules -> a, b; a needs b
@@ -54,20 +62,71 @@ public class ProjectAnalyzer {
     // a contains impl of iface without annotations
     // b should have result
     private final Lock lock = new ReentrantLock();
-    private final Set<String> classes = new HashSet<>();
     private final ResultInterpreter resultInterpreter = new ResultInterpreter();
-    private final BytecodeAnalyzer bytecodeAnalyzer = new BytecodeAnalyzer();
     private final JavaDocAnalyzer javaDocAnalyzer = new JavaDocAnalyzer();
+    private final ProjectClassScanner classScanner = new ProjectClassScanner();
+    private final AnalysisContext analysisContext;
+    private final boolean ownedContext;
+    private final int parallelism;
+    private volatile AnnotationIndex annotationIndex;
 
     /**
      * Creates a project analyzer with given class path locations where to
-     * search for classes.
+     * search for classes, which analyzes within an own context that is
+     * freed by {@link #close()}.
      *
      * @param classPaths The locations of additional class paths (can be
      * directories or jar-files)
      */
     public ProjectAnalyzer(final Set<Path> classPaths) {
-        classPaths.forEach(this::addToClassPool);
+        this(classPaths, new AnalysisContext(), 1, true);
+    }
+
+    /**
+     * Creates a project analyzer with given class path locations where to
+     * search for classes, which analyzes within the given context.
+     *
+     * @param classPaths The locations of additional class paths (can be
+     * directories or jar-files)
+     * @param analysisContext The context which holds the state of the analysis
+     */
+    public ProjectAnalyzer(final Set<Path> classPaths, final AnalysisContext analysisContext) {
+        this(classPaths, analysisContext, 1);
+    }
+
+    /**
+     * Creates a project analyzer with given class path locations where to
+     * search for classes, which analyzes within the given context using the
+     * given number of threads.
+     *
+     * @param classPaths The locations of additional class paths (can be
+     * directories or jar-files)
+     * @param analysisContext The context which holds the state of the analysis
+     * @param parallelism The number of threads which analyze the resource
+     * classes ({@code 1} analyzes sequentially)
+     */
+    public ProjectAnalyzer(final Set<Path> classPaths, final AnalysisContext analysisContext, final int parallelism) {
+        this(classPaths, analysisContext, parallelism, false);
+    }
+
+    private ProjectAnalyzer(final Set<Path> classPaths, final AnalysisContext analysisContext, final int parallelism, final boolean ownedContext) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive");
+        }
+        this.analysisContext = analysisContext;
+        this.ownedContext = ownedContext;
+        this.parallelism = parallelism;
+        analysisContext.addClassPaths(classPaths.stream().map(ProjectAnalyzer::toClassPathURL).collect(Collectors.toList()));
+    }
+
+    /**
+     * Sets the annotation index of the whole project, which is used instead of scanning the project paths.
+     * Per default, only the project paths which contain an index at {@link AnnotationIndex#LOCATION} are not scanned.
+     *
+     * @param annotationIndex The annotation index or {@code null}
+     */
+    public void setAnnotationIndex(final AnnotationIndex annotationIndex) {
+        this.annotationIndex = annotationIndex;
     }
 
     /**
@@ -80,51 +139,271 @@ public class ProjectAnalyzer {
      * @return The REST resource representations
      */
     public Resources analyze(Set<Path> projectClassPaths, Set<Path> projectSourcePaths, Set<String> ignoredResources) {
+        return analyzeSnapshot(projectClassPaths, projectSourcePaths, ignoredResources).getResources();
+    }
+
+    /**
+     * Analyzes all classes in the given project path and returns a snapshot which can be updated by
+     * {@link #analyzeIncrementally(AnalysisSnapshot, Set, Set, Set, Set)}.
+     *
+     * @param projectClassPaths The project class paths
+     * @param projectSourcePaths The project source file paths
+     * @param ignoredResources The fully-qualified root resource class names to
+     * be ignored
+     * @return The snapshot containing the REST resource representations
+     */
+    public AnalysisSnapshot analyzeSnapshot(Set<Path> projectClassPaths, Set<Path> projectSourcePaths, Set<String> ignoredResources) {
         lock.lock();
-        try {
+        try (final AnalysisContext.Scope scope = analysisContext.enter()) {
             projectClassPaths.forEach(this::addProjectPath);
 
-            // analyze relevant classes
-            final JobRegistry jobRegistry = JobRegistry.getInstance();
-            final Set<ClassResult> classResults = new HashSet<>();
+            final SortedSet<String> rootResources = discoverRootResources(projectClassPaths);
+            rootResources.removeAll(ignoredResources);
 
-            classes.stream()
-                    .filter(this::isJAXRSRootResource)
-                    .filter(r -> !ignoredResources.contains(r))
-                    .forEach(c -> jobRegistry.analyzeResourceClass(c, new ClassResult()));
+            final Map<String, Set<String>> rootDependencies = new HashMap<>();
+            final Map<String, ClassResult> rootResults = analyzeRootResources(rootResources, rootDependencies);
+            final List<ClassResult> classResults = collectClassResults(rootResults);
 
-            Pair<String, ClassResult> classResultPair;
-            while ((classResultPair = jobRegistry.nextUnhandledClass()) != null) {
-                final ClassResult classResult = classResultPair.getRight();
+            javaDocAnalyzer.analyze(projectSourcePaths, classResults);
 
-                classResults.add(classResult);
-                analyzeClass(classResultPair.getLeft(), classResult);
+            return new AnalysisSnapshot(resultInterpreter.interpret(classResults), rootResults, rootDependencies);
+        } finally {
+            analysisContext.clearAnalysisState();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Creates the annotation index of all classes in the given project paths, which can be stored at {@link AnnotationIndex#LOCATION}
+     * in order to skip the scanning of the classes in later analyses, as long as the class files are unchanged.
+     *
+     * @param projectClassPaths The project class paths
+     * @return The annotation index
+     */
+    public AnnotationIndex createAnnotationIndex(Set<Path> projectClassPaths) {
+        lock.lock();
+        try (final AnalysisContext.Scope scope = analysisContext.enter()) {
+            projectClassPaths.forEach(this::addProjectPath);
 
-                bytecodeAnalyzer.analyzeBytecode(classResult);
+            final AnnotationIndex.Builder builder = new AnnotationIndex.Builder();
+            for (final String className : classScanner.scan(projectClassPaths)) {
+                try {
+                    builder.add(new ContextClassReader(className));
+                } catch (IOException e) {
+                    LogProvider.error("The class " + className + " could not be loaded!");
+                    LogProvider.debug(e);
+                }
             }
+            for (final Path path : projectClassPaths) {
+                try {
+                    builder.addClassFiles(path);
+                } catch (IOException e) {
+                    LogProvider.error("Could not read the class files of " + path + " for the annotation index, reason: " + e.getMessage());
+                    LogProvider.debug(e);
+                }
+            }
+            return builder.build();
+        } finally {
+            analysisContext.clearAnalysisState();
+            lock.unlock();
+        }
+    }
 
-            javaDocAnalyzer.analyze(projectSourcePaths, classResults);
+    /**
+     * Updates the snapshot of a previous analysis after classes of the project have been changed, added or removed.
+     * Only the root resources which depend on the changed classes (and the new root resources) are analyzed again,
+     * the results of all other root resources and their sub-resources are reused.
+     * The project classes are reloaded before, the library classes and the cached data of unchanged classes are kept;
+     * the ignored root resources must equal the ones of the previous analysis.
+     *
+     * @param previousSnapshot The snapshot of the previous analysis of the project
+     * @param changedClasses The fully-qualified names (either with dots or slashes) of the changed, added or removed classes
+     * @param projectClassPaths The project class paths
+     * @param projectSourcePaths The project source file paths
+     * @param ignoredResources The fully-qualified root resource class names to
+     * be ignored
+     * @return The updated snapshot
+     */
+    public AnalysisSnapshot analyzeIncrementally(AnalysisSnapshot previousSnapshot, Set<String> changedClasses, Set<Path> projectClassPaths,
+                                                 Set<Path> projectSourcePaths, Set<String> ignoredResources) {
+        lock.lock();
+        try (final AnalysisContext.Scope scope = analysisContext.enter()) {
+            final Set<String> changedClassNames = changedClasses.stream().map(c -> c.replace('/', '.')).collect(Collectors.toSet());
+            analysisContext.reloadClasses(changedClassNames);
+            projectClassPaths.forEach(this::addProjectPath);
+
+            final Set<String> removedClasses = changedClassNames.stream().filter(c -> !classExists(c)).collect(Collectors.toSet());
+
+            final SortedSet<String> rootResources = new TreeSet<>(previousSnapshot.getAffectedRootResources(
+                    changedClassNames.stream().map(c -> c.replace('.', '/')).collect(Collectors.toSet())));
+            changedClassNames.stream()
+                    .filter(c -> !removedClasses.contains(c))
+                    .filter(this::isJAXRSRootResource)
+                    .forEach(rootResources::add);
+            rootResources.removeAll(ignoredResources);
+
+            final Map<String, ClassResult> rootResults = new HashMap<>(previousSnapshot.getRootResults());
+            final Map<String, Set<String>> rootDependencies = new HashMap<>(previousSnapshot.getRootDependencies());
+            final Set<String> obsoleteRootResources = new HashSet<>(changedClassNames);
+            obsoleteRootResources.addAll(rootResources);
+            obsoleteRootResources.addAll(ignoredResources);
+            rootResults.keySet().removeAll(obsoleteRootResources);
+            rootDependencies.keySet().removeAll(obsoleteRootResources);
+
+            final Map<String, ClassResult> analyzedRootResults = analyzeRootResources(rootResources, rootDependencies);
+            rootResults.putAll(analyzedRootResults);
+            final List<ClassResult> classResults = collectClassResults(rootResults);
+
+            final Set<String> analyzedClasses = new HashSet<>(changedClassNames);
+            analyzedRootResults.keySet().stream().map(rootDependencies::get).forEach(analyzedClasses::addAll);
+            javaDocAnalyzer.analyze(projectSourcePaths, analyzedClasses, classResults);
 
-            return resultInterpreter.interpret(classResults);
+            return new AnalysisSnapshot(resultInterpreter.interpret(classResults), rootResults, rootDependencies);
         } finally {
+            analysisContext.clearAnalysisState();
             lock.unlock();
         }
     }
 
-    private boolean isJAXRSRootResource(String className) {
-        final Class<?> clazz = JavaUtils.loadClassFromName(className);
-        return clazz != null && (isAnnotationPresent(clazz, javax.ws.rs.Path.class) || isAnnotationPresent(clazz, ApplicationPath.class));
+    /**
+     * Closes the analysis context if it has been created by this project analyzer.
+     * Contexts which have been passed in are closed by their creators.
+     */
+    @Override
+    public void close() {
+        if (ownedContext)
+            analysisContext.close();
+    }
+
+    /**
+     * Analyzes the root resource classes and their sub-resources.
+     *
+     * @param rootResources The fully-qualified root resource class names
+     * @param rootDependencies The map where the classes which the results of every root resource depend on are added
+     * @return The root resource class results by class names
+     */
+    private Map<String, ClassResult> analyzeRootResources(final SortedSet<String> rootResources, final Map<String, Set<String>> rootDependencies) {
+        final JobRegistry jobRegistry = JobRegistry.getInstance();
+        final Map<String, ClassResult> rootResults = new TreeMap<>();
+        rootResources.forEach(r -> {
+            final ClassResult classResult = new ClassResult();
+            rootResults.put(r, classResult);
+            jobRegistry.analyzeResourceClass(r, classResult);
+        });
+
+        final ResourceClassAnalyzer resourceClassAnalyzer = new ResourceClassAnalyzer(analysisContext, parallelism);
+        resourceClassAnalyzer.analyze();
+
+        final Map<ClassResult, Set<String>> classDependencies = resourceClassAnalyzer.getClassDependencies();
+        rootResults.forEach((r, c) -> {
+            final Set<String> dependencies = new HashSet<>();
+            collectSubResources(c).stream().map(classDependencies::get).filter(Objects::nonNull).forEach(dependencies::addAll);
+            rootDependencies.put(r, SuperTypeResolver.resolveWithSuperTypes(dependencies));
+        });
+
+        return rootResults;
+    }
+
+    /**
+     * Returns the root resource class results in the order of their names, followed by all their (transitive) sub-resource class results.
+     */
+    private static List<ClassResult> collectClassResults(final Map<String, ClassResult> rootResults) {
+        final Set<ClassResult> classResults = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<ClassResult> orderedClassResults = new ArrayList<>();
+
+        final List<ClassResult> roots = new ArrayList<>(new TreeMap<>(rootResults).values());
+        roots.stream().filter(classResults::add).forEach(orderedClassResults::add);
+        roots.stream().flatMap(r -> collectSubResources(r).stream()).filter(classResults::add).forEach(orderedClassResults::add);
+
+        return orderedClassResults;
+    }
+
+    /**
+     * Returns the class result and all its (transitive) sub-resource class results in breadth-first order.
+     */
+    private static List<ClassResult> collectSubResources(final ClassResult classResult) {
+        final Set<ClassResult> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<ClassResult> subResources = new ArrayList<>();
+        final Deque<ClassResult> pending = new ArrayDeque<>();
+        pending.add(classResult);
+
+        while (!pending.isEmpty()) {
+            final ClassResult current = pending.poll();
+            if (visited.add(current)) {
+                subResources.add(current);
+                current.getMethods().stream().map(MethodResult::getSubResource).filter(Objects::nonNull).forEach(pending::add);
+            }
+        }
+        return subResources;
+    }
+
+    /**
+     * Discovers the root resource classes of the project paths. The classes of the project paths which contain an annotation index
+     * (or of all project paths, if an index has been set) are taken from the index, the other project paths are scanned.
+     *
+     * @param projectClassPaths The project class paths
+     * @return The fully-qualified root resource class names
+     */
+    private SortedSet<String> discoverRootResources(final Set<Path> projectClassPaths) {
+        final AnnotationIndex projectIndex = annotationIndex;
+        if (projectIndex != null)
+            return projectIndex.getRootResources();
+
+        final SortedSet<String> rootResources = new TreeSet<>();
+        final Set<Path> scannedPaths = new HashSet<>();
+        for (final Path path : projectClassPaths) {
+            final AnnotationIndex index = findAnnotationIndex(path);
+            if (index == null) {
+                scannedPaths.add(path);
+            } else {
+                LogProvider.debug("Using the annotation index of " + path);
+                rootResources.addAll(index.getRootResources());
+            }
+        }
+
+        if (!scannedPaths.isEmpty()) {
+            classScanner.scan(scannedPaths).stream().filter(this::isJAXRSRootResource).forEach(rootResources::add);
+        }
+        return rootResources;
     }
 
-    private void analyzeClass(final String className, ClassResult classResult) {
+    private static AnnotationIndex findAnnotationIndex(final Path projectPath) {
+        try {
+            return AnnotationIndex.find(projectPath);
+        } catch (IOException e) {
+            LogProvider.error("Could not read the annotation index of " + projectPath + ", the classes are scanned instead, reason: " + e.getMessage());
+            LogProvider.debug(e);
+            return null;
+        }
+    }
+
+    private boolean classExists(final String className) {
+        try {
+            analysisContext.getClassBytesCache().get(className);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks if the given class is a JAX-RS root resource (or application) by reading the class-level annotations from the bytecode.
+     * The class is not loaded into the JVM.
+     *
+     * @param className The fully-qualified class name
+     * @return {@code true} if the class is annotated with {@code @Path} or {@code @ApplicationPath}
+     */
+    private boolean isJAXRSRootResource(String className) {
         try {
             final ClassReader classReader = new ContextClassReader(className);
-            final ClassVisitor visitor = new JAXRSClassVisitor(classResult);
+            final JAXRSRootResourceClassVisitor visitor = new JAXRSRootResourceClassVisitor();
 
-            classReader.accept(visitor, ClassReader.EXPAND_FRAMES);
+            classReader.accept(visitor, JAXRSRootResourceClassVisitor.PARSING_OPTIONS);
+            return visitor.isRootResource();
         } catch (IOException e) {
             LogProvider.error("The class " + className + " could not be loaded!");
             LogProvider.debug(e);
+            return false;
         }
     }
 
@@ -134,83 +413,35 @@ public class ProjectAnalyzer {
      * @param location The location of a jar file or a directory
      */
     private void addToClassPool(final Path location) {
+        analysisContext.addProjectClassPath(toClassPathURL(location));
+    }
+
+    private static URL toClassPathURL(final Path location) {
         if (!location.toFile().exists()) {
             throw new IllegalArgumentException("The location '" + location + "' does not exist!");
         }
         try {
-            ContextClassReader.addClassPath(location.toUri().toURL());
+            return location.toUri().toURL();
         } catch (Exception e) {
             throw new IllegalArgumentException("The location '" + location + "' could not be loaded to the class path!", e);
         }
     }
 
     /**
-     * Adds the project paths and loads all classes.
+     * Adds the project path to the class pool.
      *
      * @param path The project path
      */
     private void addProjectPath(final Path path) {
         addToClassPool(path);
 
-        if (path.toFile().isFile() && path.toString().endsWith(".jar")) {
-            addJarClasses(path);
-        } else if (path.toFile().isDirectory()) {
-            addDirectoryClasses(path, Paths.get(""));
-        } else {
-            throw new IllegalArgumentException("The project path '" + path + "' must be a jar file or a directory");
+        if (!(path.toFile().isFile() && isArchive(path.toString())) && !path.toFile().isDirectory()) {
+            throw new IllegalArgumentException("The project path '" + path + "' must be a jar, war or ear file or a directory");
         }
     }
 
-    /**
-     * Adds all classes in the given jar-file location to the set of known
-     * classes.
-     *
-     * @param location The location of the jar-file
-     */
-    private void addJarClasses(final Path location) {
-        try (final JarFile jarFile = new JarFile(location.toFile())) {
-            final Enumeration<JarEntry> entries = jarFile.entries();
-            while (entries.hasMoreElements()) {
-                final JarEntry entry = entries.nextElement();
-                final String entryName = entry.getName();
-                if (entryName.endsWith(".class")) {
-                    classes.add(toQualifiedClassName(entryName));
-                }
-            }
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Could not read jar-file '" + location + "', reason: " + e.getMessage());
-        }
-    }
-
-    /**
-     * Adds all classes in the given directory location to the set of known
-     * classes.
-     *
-     * @param location The location of the current directory
-     * @param subPath The sub-path which is relevant for the package names or
-     * {@code null} if currently in the root directory
-     */
-    private void addDirectoryClasses(final Path location, final Path subPath) {
-        for (final File file : location.toFile().listFiles()) {
-            if (file.isDirectory()) {
-                addDirectoryClasses(location.resolve(file.getName()), subPath.resolve(file.getName()));
-            } else if (file.isFile() && file.getName().endsWith(".class")) {
-                final String classFileName = subPath.resolve(file.getName()).toString();
-                classes.add(toQualifiedClassName(classFileName));
-            }
-        }
-    }
-
-    /**
-     * Converts the given file name of a class-file to the fully-qualified class
-     * name.
-     *
-     * @param fileName The file name (e.g. a/package/AClass.class)
-     * @return The fully-qualified class name (e.g. a.package.AClass)
-     */
-    private static String toQualifiedClassName(final String fileName) {
-        final String replacedSeparators = fileName.replace(File.separatorChar, '.');
-        return replacedSeparators.substring(0, replacedSeparators.length() - ".class".length());
+    private static boolean isArchive(final String fileName) {
+        return fileName.endsWith(".jar") || fileName.endsWith(".war") || fileName.endsWith(".ear");
     }
 
 }
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sebastian_daschner.jaxrs_analyzer.analysis;
+
+import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ClassPathIndex;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.JAXRSClassFileFilter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Discovers the classes in project paths (jar-files or directories) which
+ * potentially are JAX-RS resources. The project paths, and partitions of
+ * large jar-files or directories, are scanned in parallel on a bounded
+ * fork-join pool. The result is sorted and therefore independent of the
+ * scheduling order.
+ * Of WARs, EARs and Spring Boot jars the project classes (e.g. {@code WEB-INF/classes/})
+ * are scanned without extracting the archive, the nested library jars are ignored.
+ *
+ * @author Sebastian Daschner
+ */
+class ProjectClassScanner {
+
+    private static final int MAX_PARALLELISM = 8;
+    /**
+     * The maximum number of class files which are scanned in a single task.
+     */
+    private static final int PARTITION_SIZE = 256;
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    private final int parallelism;
+    private final ThreadLocal<JAXRSClassFileFilter> classFileFilters = ThreadLocal.withInitial(JAXRSClassFileFilter::new);
+
+    ProjectClassScanner() {
+        this(Math.min(Runtime.getRuntime().availableProcessors(), MAX_PARALLELISM));
+    }
+
+    ProjectClassScanner(final int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Scans all given project paths for potential JAX-RS classes.
+     *
+     * @param projectPaths The jar-files or directories
+     * @return The sorted fully-qualified class names
+     */
+    SortedSet<String> scan(final Set<Path> projectPaths) {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new ProjectPathsTask(projectPaths));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private SortedSet<String> scanPath(final Path path) {
+        if (path.toFile().isFile()) {
+            try {
+                return scanArchive(path);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Could not read jar-file '" + path + "', reason: " + e.getMessage());
+            }
+        }
+        try {
+            return scanClassFiles(path);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read directory '" + path + "', reason: " + e.getMessage());
+        }
+    }
+
+    private SortedSet<String> scanArchive(final Path archive) throws IOException {
+        try (final ClassPathIndex.Archive opened = ClassPathIndex.openArchive(archive)) {
+            final List<ClassFile> classFiles = opened.getLocations().stream()
+                    .filter(l -> l.isProjectEntry() && l.getName().endsWith(CLASS_FILE_SUFFIX))
+                    .map(ArchiveClassFile::new)
+                    .collect(Collectors.toList());
+            return new ClassFilesTask(classFiles, 0, classFiles.size()).invoke();
+        }
+    }
+
+    private SortedSet<String> scanClassFiles(final Path root) throws IOException {
+        final List<ClassFile> classFiles;
+        try (final Stream<Path> stream = Files.walk(root)) {
+            classFiles = stream.filter(p -> p.toString().endsWith(CLASS_FILE_SUFFIX) && Files.isRegularFile(p))
+                    .map(p -> new DirectoryClassFile(root, p))
+                    .collect(Collectors.toList());
+        }
+        return new ClassFilesTask(classFiles, 0, classFiles.size()).invoke();
+    }
+
+    private boolean isJAXRSCandidate(final ClassFile classFile) {
+        try (final InputStream stream = classFile.open()) {
+            return classFileFilters.get().accept(stream);
+        } catch (IOException e) {
+            LogProvider.error("Could not read class file '" + classFile + "', reason: " + e.getMessage());
+            LogProvider.debug(e);
+            return false;
+        }
+    }
+
+    /**
+     * Converts the given path of a class-file to the fully-qualified class
+     * name.
+     *
+     * @param root The root of the class path
+     * @param classFile The class file (e.g. root/a/package/AClass.class)
+     * @return The fully-qualified class name (e.g. a.package.AClass)
+     */
+    private static String toQualifiedClassName(final Path root, final Path classFile) {
+        final String separator = classFile.getFileSystem().getSeparator();
+        return toQualifiedClassName(root.relativize(classFile).toString(), separator);
+    }
+
+    private static String toQualifiedClassName(final String fileName, final String separator) {
+        return fileName.substring(0, fileName.length() - CLASS_FILE_SUFFIX.length()).replace(separator, ".");
+    }
+
+    /**
+     * A class file which is scanned.
+     */
+    private interface ClassFile {
+
+        String getClassName();
+
+        InputStream open() throws IOException;
+
+    }
+
+    private static class DirectoryClassFile implements ClassFile {
+
+        private final Path root;
+        private final Path file;
+
+        DirectoryClassFile(final Path root, final Path file) {
+            this.root = root;
+            this.file = file;
+        }
+
+        @Override
+        public String getClassName() {
+            return toQualifiedClassName(root, file);
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            return Files.newInputStream(file);
+        }
+
+        @Override
+        public String toString() {
+            return file.toString();
+        }
+
+    }
+
+    private static class ArchiveClassFile implements ClassFile {
+
+        private final ClassPathIndex.Location location;
+
+        ArchiveClassFile(final ClassPathIndex.Location location) {
+            this.location = location;
+        }
+
+        @Override
+        public String getClassName() {
+            return toQualifiedClassName(location.getName(), "/");
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            return new ByteArrayInputStream(location.read());
+        }
+
+        @Override
+        public String toString() {
+            return location.getUrl().toString();
+        }
+
+    }
+
+    /**
+     * Scans the project paths in parallel.
+     */
+    private class ProjectPathsTask extends RecursiveTask<SortedSet<String>> {
+
+        private final Set<Path> projectPaths;
+
+        ProjectPathsTask(final Set<Path> projectPaths) {
+            this.projectPaths = projectPaths;
+        }
+
+        @Override
+        protected SortedSet<String> compute() {
+            final List<RecursiveTask<SortedSet<String>>> tasks = new ArrayList<>();
+            for (final Path path : projectPaths) {
+                final RecursiveTask<SortedSet<String>> task = new RecursiveTask<SortedSet<String>>() {
+                    @Override
+                    protected SortedSet<String> compute() {
+                        return scanPath(path);
+                    }
+                };
+                tasks.add(task);
+            }
+
+            final SortedSet<String> classes = new TreeSet<>();
+            invokeAll(tasks).forEach(t -> classes.addAll(t.join()));
+            return classes;
+        }
+
+    }
+
+    /**
+     * Filters a partition of class files, splits large partitions.
+     */
+    private class ClassFilesTask extends RecursiveTask<SortedSet<String>> {
+
+        private final List<ClassFile> classFiles;
+        private final int from;
+        private final int to;
+
+        ClassFilesTask(final List<ClassFile> classFiles, final int from, final int to) {
+            this.classFiles = classFiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SortedSet<String> compute() {
+            if (to - from > PARTITION_SIZE) {
+                final int middle = (from + to) >>> 1;
+                final ClassFilesTask left = new ClassFilesTask(classFiles, from, middle);
+                final ClassFilesTask right = new ClassFilesTask(classFiles, middle, to);
+                invokeAll(left, right);
+
+                final SortedSet<String> classes = left.join();
+                classes.addAll(right.join());
+                return classes;
+            }
+
+            final SortedSet<String> classes = new TreeSet<>();
+            for (int i = from; i < to; i++) {
+                final ClassFile classFile = classFiles.get(i);
+                if (isJAXRSCandidate(classFile))
+                    classes.add(classFile.getClassName());
+            }
+            return classes;
+        }
+
+    }
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sebastian_daschner.jaxrs_analyzer.analysis;
+
+import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Watches the class files in project class path directories for changes.
+ * Bursts of changes, e.g. while the compiler writes its output, are collected until the directories are quiet for a while.
+ * The names of the known classes are kept, so that classes which are removed together with their directories are reported as well.
+ * Deleted class path directories, e.g. by {@code mvn clean}, are polled until they are recreated; then all their classes are reported.
+ * Jar-files are not watched.
+ *
+ * @author Sebastian Daschner
+ */
+public class ProjectClassWatcher implements Closeable {
+
+    /**
+     * The default period without changes after which the collected changes are reported (in milliseconds).
+     */
+    public static final long DEFAULT_QUIET_PERIOD = 300;
+    private static final long MISSING_ROOT_POLL_INTERVAL = 500;
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final Map<Path, Path> classPathRoots = new HashMap<>();
+    private final Map<Path, Set<String>> knownClasses = new HashMap<>();
+    private final Set<Path> missingRoots = new HashSet<>();
+    private final Set<Path> projectClassPaths;
+    private final long quietPeriod;
+
+    /**
+     * Creates a watcher for the given project class paths.
+     *
+     * @param projectClassPaths The project class paths, only the directories are watched
+     * @param quietPeriod       The period without changes after which the collected changes are reported (in milliseconds)
+     * @throws IOException If the directories could not be watched
+     */
+    public ProjectClassWatcher(final Set<Path> projectClassPaths, final long quietPeriod) throws IOException {
+        if (quietPeriod < 0)
+            throw new IllegalArgumentException("The quiet period must not be negative");
+
+        this.projectClassPaths = projectClassPaths.stream().filter(Files::isDirectory).map(Path::toAbsolutePath).collect(Collectors.toSet());
+        this.quietPeriod = quietPeriod;
+        watchService = FileSystems.getDefault().newWatchService();
+
+        projectClassPaths.stream().filter(p -> !Files.isDirectory(p))
+                .forEach(p -> LogProvider.info("The project path " + p + " is not a directory and won't be watched"));
+
+        for (final Path classPath : this.projectClassPaths) {
+            registerAll(classPath, classPath);
+            knownClasses.put(classPath, findClasses(classPath, classPath));
+        }
+    }
+
+    /**
+     * Waits until class files have been changed, added or removed and the directories are quiet again.
+     *
+     * @return The fully-qualified names of the changed classes
+     * @throws InterruptedException If the thread has been interrupted while waiting
+     */
+    public Set<String> awaitChangedClasses() throws InterruptedException {
+        final SortedSet<String> changedClasses = new TreeSet<>();
+
+        while (true) {
+            WatchKey key = awaitKey(changedClasses.isEmpty());
+            while (key != null) {
+                collectChanges(key, changedClasses);
+                key = watchService.poll(quietPeriod, TimeUnit.MILLISECONDS);
+            }
+
+            // the classes which are written into recreated directories are collected until these are quiet as well
+            if (restoreMissingRoots(changedClasses))
+                continue;
+
+            if (!changedClasses.isEmpty())
+                return changedClasses;
+        }
+    }
+
+    private WatchKey awaitKey(final boolean idle) throws InterruptedException {
+        if (!idle)
+            return watchService.poll(quietPeriod, TimeUnit.MILLISECONDS);
+        if (!missingRoots.isEmpty())
+            return watchService.poll(MISSING_ROOT_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+        return watchService.take();
+    }
+
+    private void collectChanges(final WatchKey key, final Set<String> changedClasses) {
+        final Path directory = watchedDirectories.get(key);
+
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // events have been lost, all existing and formerly known classes are considered as changed
+                LogProvider.debug("Lost class file changes, analyzing all classes again");
+                projectClassPaths.stream().filter(p -> !missingRoots.contains(p)).forEach(p -> {
+                    final Set<String> classes = findClasses(p, p);
+                    changedClasses.addAll(knownClasses.put(p, classes));
+                    changedClasses.addAll(classes);
+                });
+                continue;
+            }
+
+            if (directory == null)
+                continue;
+
+            final Path path = directory.resolve((Path) event.context());
+            final Path classPath = classPathRoots.get(directory);
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                // new packages contain classes which have been written before they are watched
+                registerAll(path, classPath);
+                final Set<String> classes = findClasses(path, classPath);
+                knownClasses.get(classPath).addAll(classes);
+                changedClasses.addAll(classes);
+            } else if (path.toString().endsWith(CLASS_FILE_SUFFIX)) {
+                final String className = toClassName(classPath, path);
+                if (Files.exists(path))
+                    knownClasses.get(classPath).add(className);
+                else
+                    knownClasses.get(classPath).remove(className);
+                changedClasses.add(className);
+            }
+        }
+
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+            final Path classPath = classPathRoots.remove(directory);
+            if (classPath != null)
+                removeDirectory(directory, classPath, changedClasses);
+        }
+    }
+
+    /**
+     * Reports the known classes of a deleted directory as changed. Deleted class path roots are polled until they are recreated.
+     */
+    private void removeDirectory(final Path directory, final Path classPath, final Set<String> changedClasses) {
+        final String packagePrefix = directory.equals(classPath) ? "" : toPackageName(classPath, directory) + '.';
+        final Iterator<String> iterator = knownClasses.get(classPath).iterator();
+        while (iterator.hasNext()) {
+            final String className = iterator.next();
+            if (className.startsWith(packagePrefix)) {
+                changedClasses.add(className);
+                iterator.remove();
+            }
+        }
+
+        if (directory.equals(classPath)) {
+            LogProvider.info("The project path " + classPath + " has been deleted, waiting for it to be recreated");
+            missingRoots.add(classPath);
+        }
+    }
+
+    /**
+     * Watches the recreated class path roots again and reports all their classes as changed.
+     *
+     * @return {@code true} if a root has been recreated
+     */
+    private boolean restoreMissingRoots(final Set<String> changedClasses) {
+        boolean restored = false;
+        final Iterator<Path> iterator = missingRoots.iterator();
+        while (iterator.hasNext()) {
+            final Path classPath = iterator.next();
+            if (!Files.isDirectory(classPath))
+                continue;
+
+            LogProvider.info("The project path " + classPath + " has been recreated");
+            iterator.remove();
+            registerAll(classPath, classPath);
+            final Set<String> classes = findClasses(classPath, classPath);
+            knownClasses.get(classPath).addAll(classes);
+            changedClasses.addAll(classes);
+            restored = true;
+        }
+        return restored;
+    }
+
+    private void registerAll(final Path directory, final Path classPath) {
+        try (final Stream<Path> directories = Files.walk(directory).filter(Files::isDirectory)) {
+            directories.forEach(d -> register(d, classPath));
+        } catch (IOException e) {
+            LogProvider.error("Could not watch the directory " + directory + ", reason: " + e.getMessage());
+            LogProvider.debug(e);
+        }
+    }
+
+    private void register(final Path directory, final Path classPath) {
+        try {
+            final WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            watchedDirectories.put(key, directory);
+            classPathRoots.put(directory, classPath);
+        } catch (IOException e) {
+            LogProvider.error("Could not watch the directory " + directory + ", reason: " + e.getMessage());
+            LogProvider.debug(e);
+        }
+    }
+
+    /**
+     * Returns the names of all classes in the directory, relative to the class path.
+     */
+    private static Set<String> findClasses(final Path directory, final Path classPath) {
+        try (final Stream<Path> files = Files.walk(directory)) {
+            return files.filter(p -> p.toString().endsWith(CLASS_FILE_SUFFIX)).map(p -> toClassName(classPath, p)).collect(Collectors.toSet());
+        } catch (IOException e) {
+            LogProvider.error("Could not read the directory " + directory + ", reason: " + e.getMessage());
+            LogProvider.debug(e);
+            return new TreeSet<>();
+        }
+    }
+
+    private static String toPackageName(final Path classPath, final Path directory) {
+        return classPath.relativize(directory).toString().replace(directory.getFileSystem().getSeparator(), ".");
+    }
+
+    private static String toClassName(final Path classPath, final Path classFile) {
+        final String fileName = classPath.relativize(classFile).toString();
+        return fileName.substring(0, fileName.length() - CLASS_FILE_SUFFIX.length()).replace(classFile.getFileSystem().getSeparator(), ".");
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sebastian_daschner.jaxrs_analyzer.analysis;
+
+import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.BytecodeAnalyzer;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.cache.AnalysisCache;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ContextClassReader;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.JAXRSClassVisitor;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
+import com.sebastian_daschner.jaxrs_analyzer.utils.Pair;
+import org.objectweb.asm.ClassReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Analyzes the (sub-)resource classes which are registered in the {@link JobRegistry} of an analysis context,
+ * including the sub-resource classes which are discovered during the analysis.
+ * <p>
+ * The classes are analyzed in waves: First all registered classes, then the sub-resources which have been found in these, and so on.
+ * Every wave is analyzed in two phases, which both are executed on a work-stealing fork-join pool if the parallelism is greater than one:
+ * The classes are visited and the invoked project methods are added to the method pool, then the methods are simulated.
+ * As the simulation of any class sees the same project methods and the sub-resources are ordered by their locators,
+ * the result doesn't depend on the parallelism or on the scheduling order.
+ * Sub-resource classes which are returned by several locators are only analyzed once (see {@link JobRegistry}).
+ * <p>
+ * If the context has an {@link AnalysisCache}, the results of unchanged classes are loaded from the cache instead,
+ * and the results of the analyzed classes are stored once the classes returned by their sub-resource locators are known.
+ *
+ * @author Sebastian Daschner
+ */
+class ResourceClassAnalyzer {
+
+    private final AnalysisContext analysisContext;
+    private final int parallelism;
+    private final Map<ClassResult, Set<String>> classDependencies = new IdentityHashMap<>();
+
+    ResourceClassAnalyzer(final AnalysisContext analysisContext, final int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be positive");
+
+        this.analysisContext = analysisContext;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Analyzes all registered classes and the discovered sub-resource classes.
+     *
+     * @return The analyzed class results, in the order of registration
+     */
+    List<ClassResult> analyze() {
+        final List<ClassResult> classResults = new ArrayList<>();
+        final ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        try {
+            List<ClassJob> wave = nextWave(pollRegisteredClasses(new IdentityHashMap<>()));
+            while (!wave.isEmpty()) {
+                wave.forEach(j -> classResults.add(j.classResult));
+
+                execute(pool, wave, ClassJob::prepare);
+                execute(pool, wave, ClassJob::analyze);
+                wave.forEach(j -> classDependencies.put(j.classResult, j.getDependencies()));
+
+                final List<Pair<String, ClassResult>> classResultPairs = pollRegisteredClasses(indexLocators(wave));
+                storeResults(wave, classResultPairs);
+                wave = nextWave(classResultPairs);
+            }
+            return classResults;
+        } finally {
+            if (pool != null)
+                pool.shutdown();
+        }
+    }
+
+    /**
+     * Returns the classes which every analyzed class result depends on, i.e. the analyzed class and the classes which contain
+     * the (transitively) invoked project methods.
+     *
+     * @return The class names (with slashes) per analyzed class result
+     */
+    Map<ClassResult, Set<String>> getClassDependencies() {
+        return classDependencies;
+    }
+
+    private void execute(final ForkJoinPool pool, final List<ClassJob> jobs, final Consumer<ClassJob> phase) {
+        if (pool == null)
+            jobs.forEach(phase);
+        else
+            pool.invoke(new ClassJobsTask(jobs, 0, jobs.size(), phase));
+    }
+
+    /**
+     * Returns the index of every sub-resource locator in the order of the classes and their methods.
+     */
+    private static Map<MethodResult, Integer> indexLocators(final List<ClassJob> jobs) {
+        final Map<MethodResult, Integer> locatorIndexes = new IdentityHashMap<>();
+        jobs.stream().flatMap(j -> j.preparedMethods.stream()).map(Pair::getLeft)
+                .forEach(m -> locatorIndexes.put(m, locatorIndexes.size()));
+        return locatorIndexes;
+    }
+
+    /**
+     * Takes the registered classes from the job registry. Sub-resource classes are sorted by their locators, as they are registered concurrently.
+     */
+    private List<Pair<String, ClassResult>> pollRegisteredClasses(final Map<MethodResult, Integer> locatorIndexes) {
+        final JobRegistry jobRegistry = analysisContext.getJobRegistry();
+        final List<Pair<String, ClassResult>> classResultPairs = new ArrayList<>();
+
+        Pair<String, ClassResult> classResultPair;
+        while ((classResultPair = jobRegistry.pollUnhandledClass()) != null) {
+            classResultPairs.add(classResultPair);
+        }
+
+        classResultPairs.sort(Comparator.comparingInt(p -> locatorIndexes.getOrDefault(p.getRight().getParentSubResourceLocator(), -1)));
+        return classResultPairs;
+    }
+
+    /**
+     * Stores the results of the analyzed (i.e. not cached) classes, together with the classes which have been registered by their locators.
+     */
+    private void storeResults(final List<ClassJob> jobs, final List<Pair<String, ClassResult>> classResultPairs) {
+        final AnalysisCache analysisCache = analysisContext.getAnalysisCache();
+        if (analysisCache == null)
+            return;
+
+        final Map<MethodResult, String> subResourceClasses = new IdentityHashMap<>();
+        classResultPairs.stream().filter(p -> p.getRight().getParentSubResourceLocator() != null)
+                .forEach(p -> subResourceClasses.put(p.getRight().getParentSubResourceLocator(), p.getLeft()));
+
+        jobs.stream().filter(j -> !j.cached)
+                .forEach(j -> analysisCache.store(j.className, j.classResult, j.invokedProjectMethods, subResourceClasses));
+    }
+
+    /**
+     * Creates the jobs of the registered classes. The registry decides whether a sub-resource class has to be analyzed or reuses the result of an earlier locator.
+     */
+    private List<ClassJob> nextWave(final List<Pair<String, ClassResult>> classResultPairs) {
+        final JobRegistry jobRegistry = analysisContext.getJobRegistry();
+        return classResultPairs.stream()
+                .filter(p -> !jobRegistry.reuseAnalyzedClass(p.getLeft(), p.getRight()))
+                .map(p -> new ClassJob(p.getLeft(), p.getRight()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The analysis of a single (sub-)resource class.
+     */
+    private static class ClassJob {
+
+        private final String className;
+        private final ClassResult classResult;
+        private final BytecodeAnalyzer bytecodeAnalyzer = new BytecodeAnalyzer();
+        private final Set<MethodIdentifier> invokedProjectMethods = new HashSet<>();
+        private List<Pair<MethodResult, List<Instruction>>> preparedMethods;
+        private final Set<String> cachedDependencies = new HashSet<>();
+        private Map<MethodResult, String> cachedSubResourceClasses;
+        private boolean cached;
+
+        ClassJob(final String className, final ClassResult classResult) {
+            this.className = className;
+            this.classResult = classResult;
+        }
+
+        void prepare() {
+            final AnalysisCache analysisCache = AnalysisContext.current().getAnalysisCache();
+            if (analysisCache != null) {
+                cachedSubResourceClasses = analysisCache.load(className, classResult, cachedDependencies);
+                cached = cachedSubResourceClasses != null;
+            }
+
+            if (cached) {
+                // the methods are not simulated again
+                preparedMethods = classResult.getMethods().stream().map(m -> Pair.of(m, (List<Instruction>) null)).collect(Collectors.toList());
+                return;
+            }
+
+            try {
+                final ClassReader classReader = new ContextClassReader(className);
+                final JAXRSClassVisitor visitor = new JAXRSClassVisitor(classResult);
+
+                classReader.accept(visitor, ClassReader.EXPAND_FRAMES);
+            } catch (IOException e) {
+                LogProvider.error("The class " + className + " could not be loaded!");
+                LogProvider.debug(e);
+            }
+
+            preparedMethods = bytecodeAnalyzer.prepareBytecode(classResult, invokedProjectMethods);
+        }
+
+        void analyze() {
+            if (!cached) {
+                bytecodeAnalyzer.analyzeBytecode(preparedMethods);
+                return;
+            }
+
+            final JobRegistry jobRegistry = JobRegistry.getInstance();
+            preparedMethods.stream().map(Pair::getLeft).filter(cachedSubResourceClasses::containsKey)
+                    .forEach(m -> jobRegistry.analyzeResourceClass(cachedSubResourceClasses.get(m), m.getSubResource()));
+        }
+
+        Set<String> getDependencies() {
+            final Set<String> dependencies = new HashSet<>(cachedDependencies);
+            dependencies.add(className.replace('.', '/'));
+            invokedProjectMethods.stream().map(i -> i.getContainingClass().replace('.', '/')).forEach(dependencies::add);
+            return dependencies;
+        }
+
+    }
+
+    /**
+     * Executes a phase for a range of class jobs, splits ranges of several jobs.
+     * The analysis context is bound to the worker threads.
+     */
+    private class ClassJobsTask extends RecursiveAction {
+
+        private final List<ClassJob> jobs;
+        private final int from;
+        private final int to;
+        private final Consumer<ClassJob> phase;
+
+        ClassJobsTask(final List<ClassJob> jobs, final int from, final int to, final Consumer<ClassJob> phase) {
+            this.jobs = jobs;
+            this.from = from;
+            this.to = to;
+            this.phase = phase;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new ClassJobsTask(jobs, from, middle, phase), new ClassJobsTask(jobs, middle, to, phase));
+                return;
+            }
+
+            try (final AnalysisContext.Scope scope = analysisContext.enter()) {
+                phase.accept(jobs.get(from));
+            }
+        }
+
+    }
+
+}
@@ -1,7 +1,14 @@
 package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode;
 
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
 import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
 import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
+import com.sebastian_daschner.jaxrs_analyzer.utils.Pair;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * @author Sebastian Daschner
@@ -18,6 +25,27 @@ public class BytecodeAnalyzer {
         classResult.getMethods().forEach(this::analyzeBytecode);
     }
 
+    /**
+     * Prepares the bytecode analysis of all method results of the class, i.e. interprets the relevant instructions and adds the invoked
+     * project methods to the method pool. The prepared methods are analyzed by {@link #analyzeBytecode(List)}.
+     *
+     * @param classResult           The class result
+     * @param invokedProjectMethods The set where the identifiers of all (transitively) invoked project methods are added
+     * @return The method results with their relevant instructions, in the order of the methods of the class result
+     */
+    public List<Pair<MethodResult, List<Instruction>>> prepareBytecode(final ClassResult classResult, final Set<MethodIdentifier> invokedProjectMethods) {
+        return classResult.getMethods().stream().map(m -> Pair.of(m, prepareBytecode(m, invokedProjectMethods))).collect(Collectors.toList());
+    }
+
+    /**
+     * Analyzes the prepared methods and interprets JAX-RS relevant information.
+     *
+     * @param preparedMethods The method results with their relevant instructions
+     */
+    public void analyzeBytecode(final List<Pair<MethodResult, List<Instruction>>> preparedMethods) {
+        preparedMethods.forEach(p -> analyzeBytecode(p.getLeft(), p.getRight()));
+    }
+
     private void analyzeBytecode(final MethodResult methodResult) {
         if (methodResult.getHttpMethod() == null) {
             // sub-resource
@@ -27,4 +55,18 @@ public class BytecodeAnalyzer {
         }
     }
 
+    private List<Instruction> prepareBytecode(final MethodResult methodResult, final Set<MethodIdentifier> invokedProjectMethods) {
+        if (methodResult.getHttpMethod() == null)
+            return subResourceLocatorAnalyzer.prepare(methodResult, invokedProjectMethods);
+        return methodContentAnalyzer.prepare(methodResult, invokedProjectMethods);
+    }
+
+    private void analyzeBytecode(final MethodResult methodResult, final List<Instruction> visitedInstructions) {
+        if (methodResult.getHttpMethod() == null) {
+            subResourceLocatorAnalyzer.analyze(methodResult, visitedInstructions);
+        } else {
+            methodContentAnalyzer.analyze(methodResult, visitedInstructions);
+        }
+    }
+
 }
@@ -16,19 +16,15 @@
 
 package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode;
 
-import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
 import com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.reduction.RelevantInstructionReducer;
-import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ContextClassReader;
-import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ProjectMethodClassVisitor;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.simulation.MethodPool;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ProjectClassModelPool;
 import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
 import com.sebastian_daschner.jaxrs_analyzer.model.instructions.InvokeInstruction;
 import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
 import com.sebastian_daschner.jaxrs_analyzer.model.methods.ProjectMethod;
 import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
-import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassVisitor;
 
-import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -49,6 +45,29 @@ abstract class MethodContentAnalyzer {
     private final RelevantInstructionReducer instructionReducer = new RelevantInstructionReducer();
     private String projectPackagePrefix;
 
+    /**
+     * Interprets the relevant instructions of the given method and adds all invoked project methods to the method pool.
+     * The method can be simulated afterwards.
+     *
+     * @param methodResult          The method result
+     * @param invokedProjectMethods The set where the identifiers of all (transitively) invoked project methods are added
+     * @return The relevant instructions
+     */
+    List<Instruction> prepareInstructions(final MethodResult methodResult, final Set<MethodIdentifier> invokedProjectMethods) {
+        buildPackagePrefix(methodResult.getParentResource().getOriginalClass());
+
+        final List<Instruction> visitedInstructions = interpretRelevantInstructions(methodResult.getInstructions());
+
+        // find project defined methods in invoke occurrences
+        final Set<ProjectMethod> projectMethods = findProjectMethods(visitedInstructions);
+
+        // add project methods to global method pool
+        projectMethods.forEach(MethodPool.getInstance()::addProjectMethod);
+        projectMethods.stream().map(ProjectMethod::getIdentifier).forEach(invokedProjectMethods::add);
+
+        return visitedInstructions;
+    }
+
     /**
      * Interprets the relevant instructions for the given method.
      *
@@ -100,35 +119,17 @@ abstract class MethodContentAnalyzer {
         Set<MethodIdentifier> projectMethodIdentifiers = findUnhandledProjectMethodIdentifiers(instructions, projectMethods);
 
         for (MethodIdentifier identifier : projectMethodIdentifiers) {
-            // TODO cache results -> singleton pool?
-
-            final MethodResult methodResult = visitProjectMethod(identifier);
-            if (methodResult == null) {
+            final List<Instruction> methodInstructions = ProjectClassModelPool.getInstance().getInstructions(identifier);
+            if (methodInstructions == null) {
                 continue;
             }
 
-            final List<Instruction> nestedMethodInstructions = interpretRelevantInstructions(methodResult.getInstructions());
+            final List<Instruction> nestedMethodInstructions = interpretRelevantInstructions(methodInstructions);
             projectMethods.add(new ProjectMethod(identifier, nestedMethodInstructions));
             addProjectMethods(nestedMethodInstructions, projectMethods);
         }
     }
 
-    private MethodResult visitProjectMethod(MethodIdentifier identifier) {
-        try {
-            final ClassReader classReader = new ContextClassReader(identifier.getContainingClass());
-            final MethodResult methodResult = new MethodResult();
-            methodResult.setOriginalMethodSignature(identifier);
-            final ClassVisitor visitor = new ProjectMethodClassVisitor(methodResult, identifier);
-
-            classReader.accept(visitor, ClassReader.EXPAND_FRAMES);
-            return methodResult;
-        } catch (IOException e) {
-            LogProvider.error("Could not analyze project method " + identifier.getContainingClass() + "#" + identifier.getMethodName());
-            LogProvider.debug(e);
-            return null;
-        }
-    }
-
     /**
      * Returns project method identifiers of invoke instructions which are not included in the {@code projectMethods}.
      *
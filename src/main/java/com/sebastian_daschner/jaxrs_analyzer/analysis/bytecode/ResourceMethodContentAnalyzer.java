@@ -16,16 +16,18 @@
 
 package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode;
 
-import com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.simulation.MethodPool;
 import com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.simulation.MethodSimulator;
 import com.sebastian_daschner.jaxrs_analyzer.model.Types;
 import com.sebastian_daschner.jaxrs_analyzer.model.elements.Element;
 import com.sebastian_daschner.jaxrs_analyzer.model.elements.HttpResponse;
+import com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonArray;
+import com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonObject;
 import com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonValue;
 import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
-import com.sebastian_daschner.jaxrs_analyzer.model.methods.ProjectMethod;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
 import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
@@ -34,6 +36,10 @@ import java.util.stream.Collectors;
 
 /**
  * Analyzes JAX-RS resource methods. This class is thread-safe.
+ * <p>
+ * The simulated values can be modified after they have been added to the hash sets of other values, e.g. a JSON object which is built further
+ * after it has been added as response entity. Therefore the returned responses are copied bottom-up once the simulation is finished,
+ * so that the method result only contains completely built values.
  *
  * @author Sebastian Daschner
  */
@@ -47,55 +53,95 @@ class ResourceMethodContentAnalyzer extends MethodContentAnalyzer {
      * @param methodResult The method result
      */
     void analyze(final MethodResult methodResult) {
+        analyze(methodResult, prepare(methodResult, new HashSet<>()));
+    }
+
+    /**
+     * Interprets the relevant instructions of the method and adds the invoked project methods to the method pool.
+     *
+     * @param methodResult          The method result
+     * @param invokedProjectMethods The set where the identifiers of the invoked project methods are added
+     * @return The relevant instructions which are passed to {@link #analyze(MethodResult, List)}
+     */
+    List<Instruction> prepare(final MethodResult methodResult, final Set<MethodIdentifier> invokedProjectMethods) {
         lock.lock();
         try {
-            buildPackagePrefix(methodResult.getParentResource().getOriginalClass());
-
-            final List<Instruction> visitedInstructions = interpretRelevantInstructions(methodResult.getInstructions());
+            return prepareInstructions(methodResult, invokedProjectMethods);
+        } finally {
+            lock.unlock();
+        }
+    }
 
-            // find project defined methods in invoke occurrences
-            final Set<ProjectMethod> projectMethods = findProjectMethods(visitedInstructions);
+    /**
+     * Analyzes the method by simulating the prepared instructions.
+     * This doesn't require a lock as the simulation doesn't use any state of this analyzer.
+     *
+     * @param methodResult        The method result
+     * @param visitedInstructions The relevant instructions returned by {@link #prepare(MethodResult, Set)}
+     */
+    void analyze(final MethodResult methodResult, final List<Instruction> visitedInstructions) {
+        Element returnedElement = new MethodSimulator().simulate(visitedInstructions);
+        final String returnType = methodResult.getOriginalMethodSignature().getReturnType();
 
-            // add project methods to global method pool
-            projectMethods.forEach(MethodPool.getInstance()::addProjectMethod);
+        // void resource methods are interpreted later; stop analyzing on error
+        if (Types.PRIMITIVE_VOID.equals(returnType)) {
+            return;
+        }
 
-            Element returnedElement = new MethodSimulator().simulate(visitedInstructions);
-            final String returnType = methodResult.getOriginalMethodSignature().getReturnType();
+        if (returnedElement == null) {
+            // happens for abstract methods or if there is no return
+            return;
+        }
 
-            // void resource methods are interpreted later; stop analyzing on error
-            if (Types.PRIMITIVE_VOID.equals(returnType)) {
-                return;
-            }
+        final Set<Object> possibleObjects = returnedElement.getPossibleValues().stream().filter(o -> !(o instanceof HttpResponse))
+                .collect(Collectors.toSet());
 
-            if (returnedElement == null) {
-                // happens for abstract methods or if there is no return
-                return;
-            }
+        // for non-Response methods add a default if there are non-Response objects or none objects at all
+        if (!Types.RESPONSE.equals(returnType)) {
+            final HttpResponse defaultResponse = new HttpResponse();
 
-            final Set<Object> possibleObjects = returnedElement.getPossibleValues().stream().filter(o -> !(o instanceof HttpResponse))
-                    .collect(Collectors.toSet());
+            if (Types.OBJECT.equals(returnType))
+                defaultResponse.getEntityTypes().addAll(returnedElement.getTypes());
+            else
+                defaultResponse.getEntityTypes().add(returnType);
 
-            // for non-Response methods add a default if there are non-Response objects or none objects at all
-            if (!Types.RESPONSE.equals(returnType)) {
-                final HttpResponse defaultResponse = new HttpResponse();
+            possibleObjects.stream().filter(o -> o instanceof JsonValue).map(o -> copy((JsonValue) o)).forEach(defaultResponse.getInlineEntities()::add);
 
-                if (Types.OBJECT.equals(returnType))
-                    defaultResponse.getEntityTypes().addAll(returnedElement.getTypes());
-                else
-                    defaultResponse.getEntityTypes().add(returnType);
+            defaultResponse.getContentTypes().addAll(methodResult.getResponseMediaTypes());
 
-                possibleObjects.stream().filter(o -> o instanceof JsonValue).map(o -> (JsonValue) o).forEach(defaultResponse.getInlineEntities()::add);
+            methodResult.getResponses().add(defaultResponse);
+        }
 
-                defaultResponse.getContentTypes().addAll(methodResult.getResponseMediaTypes());
+        // add Response results as well
+        returnedElement.getPossibleValues().stream().filter(o -> o instanceof HttpResponse).map(o -> copy((HttpResponse) o)).forEach(methodResult.getResponses()::add);
+    }
 
-                methodResult.getResponses().add(defaultResponse);
-            }
+    private static HttpResponse copy(final HttpResponse response) {
+        final HttpResponse copy = new HttpResponse();
+        copy.getStatuses().addAll(response.getStatuses());
+        copy.getHeaders().addAll(response.getHeaders());
+        copy.getContentTypes().addAll(response.getContentTypes());
+        copy.getEntityTypes().addAll(response.getEntityTypes());
+        response.getInlineEntities().stream().map(ResourceMethodContentAnalyzer::copy).forEach(copy.getInlineEntities()::add);
+        return copy;
+    }
 
-            // add Response results as well
-            returnedElement.getPossibleValues().stream().filter(o -> o instanceof HttpResponse).map(o -> (HttpResponse) o).forEach(methodResult.getResponses()::add);
-        } finally {
-            lock.unlock();
+    private static JsonValue copy(final JsonValue jsonValue) {
+        if (jsonValue instanceof JsonObject) {
+            final JsonObject copy = new JsonObject();
+            ((JsonObject) jsonValue).getStructure().forEach((key, element) -> copy.getStructure().put(key, copy(element)));
+            return copy;
         }
+
+        final JsonArray copy = new JsonArray();
+        ((JsonArray) jsonValue).getElements().stream().map(ResourceMethodContentAnalyzer::copy).forEach(copy.getElements()::add);
+        return copy;
+    }
+
+    private static Element copy(final Element element) {
+        final Element copy = new Element(element.getTypes());
+        element.getPossibleValues().stream().map(v -> v instanceof JsonValue ? copy((JsonValue) v) : v).forEach(copy.getPossibleValues()::add);
+        return copy;
     }
 
 }
@@ -17,15 +17,15 @@
 package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode;
 
 import com.sebastian_daschner.jaxrs_analyzer.analysis.JobRegistry;
-import com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.simulation.MethodPool;
 import com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.simulation.MethodSimulator;
 import com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils;
 import com.sebastian_daschner.jaxrs_analyzer.model.elements.Element;
 import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
-import com.sebastian_daschner.jaxrs_analyzer.model.methods.ProjectMethod;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
 import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
 import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
@@ -49,32 +49,43 @@ class SubResourceLocatorMethodContentAnalyzer extends MethodContentAnalyzer {
      * @param methodResult The method result of the sub-resource locator (containing the instructions, and a sub-resource class result)
      */
     void analyze(final MethodResult methodResult) {
+        analyze(methodResult, prepare(methodResult, new HashSet<>()));
+    }
+
+    /**
+     * Interprets the relevant instructions of the sub-resource locator and adds the invoked project methods to the method pool.
+     *
+     * @param methodResult          The method result of the sub-resource locator
+     * @param invokedProjectMethods The set where the identifiers of the invoked project methods are added
+     * @return The relevant instructions which are passed to {@link #analyze(MethodResult, List)}
+     */
+    List<Instruction> prepare(final MethodResult methodResult, final Set<MethodIdentifier> invokedProjectMethods) {
         lock.lock();
         try {
-            buildPackagePrefix(methodResult.getParentResource().getOriginalClass());
-
-            determineReturnTypes(methodResult).stream()
-                    // FEATURE handle several sub-resource impl's
-                    .reduce((l, r) -> JavaUtils.determineMostSpecificType(l, r))
-                    .ifPresent(t -> registerSubResourceJob(t, methodResult.getSubResource()));
+            return prepareInstructions(methodResult, invokedProjectMethods);
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Analyzes the sub-resource locator by simulating the prepared instructions and registers the returned sub-resource class.
+     *
+     * @param methodResult        The method result of the sub-resource locator
+     * @param visitedInstructions The relevant instructions returned by {@link #prepare(MethodResult, Set)}
+     */
+    void analyze(final MethodResult methodResult, final List<Instruction> visitedInstructions) {
+        determineReturnTypes(methodResult, visitedInstructions).stream()
+                // FEATURE handle several sub-resource impl's
+                .reduce((l, r) -> JavaUtils.determineMostSpecificType(l, r))
+                .ifPresent(t -> registerSubResourceJob(t, methodResult.getSubResource()));
+    }
+
     /**
      * Determines the possible return types of the sub-resource-locator by analyzing the bytecode.
      * This will analyze the concrete returned types (which then are further analyzed).
      */
-    private Set<String> determineReturnTypes(final MethodResult result) {
-        final List<Instruction> visitedInstructions = interpretRelevantInstructions(result.getInstructions());
-
-        // find project defined methods in invoke occurrences
-        final Set<ProjectMethod> projectMethods = findProjectMethods(visitedInstructions);
-
-        // add project methods to global method pool
-        projectMethods.forEach(MethodPool.getInstance()::addProjectMethod);
-
+    private Set<String> determineReturnTypes(final MethodResult result, final List<Instruction> visitedInstructions) {
         final Element returnedElement = simulator.simulate(visitedInstructions);
         if (returnedElement == null) {
             // happens for abstract methods or if there is no return
@@ -0,0 +1,136 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.collection;
+
+import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.AnalysisContext;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ContextClassReader;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.ASM5;
+
+/**
+ * Resolves the values of static fields which are accessed by GETSTATIC instructions.
+ * <p>
+ * Fields of the Java SE / EE APIs (e.g. {@code Response.Status} constants) are accessed reflectively.
+ * For all other classes the value is taken from the {@code ConstantValue} attribute of the field in the class file, without loading the class.
+ * Reflective access to those classes, which runs their static initializers, is only used if explicitly enabled in the {@link AnalysisContext}.
+ *
+ * @author Sebastian Daschner
+ */
+public final class StaticFieldValueResolver {
+
+    private static final String[] API_PACKAGES = {"java/", "javax/"};
+
+    private StaticFieldValueResolver() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the value of the static field.
+     *
+     * @param containingClass The class containing the field (with slashes)
+     * @param name            The field name
+     * @param desc            The field descriptor
+     * @return The value or {@code null} if the value couldn't be resolved
+     */
+    public static Object resolve(final String containingClass, final String name, final String desc) {
+        if (isApiClass(containingClass))
+            return getReflectiveValue(containingClass, name);
+
+        final Object constantValue = getConstantValue(containingClass, name, desc);
+        if (constantValue != null || !AnalysisContext.current().isClassInitializationEnabled())
+            return constantValue;
+
+        return getReflectiveValue(containingClass, name);
+    }
+
+    private static boolean isApiClass(final String className) {
+        for (final String apiPackage : API_PACKAGES) {
+            if (className.startsWith(apiPackage))
+                return true;
+        }
+        return false;
+    }
+
+    private static Object getReflectiveValue(final String containingClass, final String name) {
+        try {
+            // needs to load same class instance in Maven plugin, not from extended classloader
+            final Class<?> clazz = Class.forName(containingClass.replace('/', '.'));
+            final Field field = clazz.getDeclaredField(name);
+            field.setAccessible(true);
+            return field.get(null);
+        } catch (Exception e) {
+            LogProvider.error("Could not access static property, reason: " + e.getMessage());
+            LogProvider.debug(e);
+            return null;
+        }
+    }
+
+    private static Object getConstantValue(final String containingClass, final String name, final String desc) {
+        try {
+            final ConstantValueClassVisitor visitor = new ConstantValueClassVisitor(name, desc);
+            new ContextClassReader(containingClass).accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            return visitor.getValue();
+        } catch (IOException e) {
+            LogProvider.debug("Could not read static property " + containingClass + "#" + name + ", reason: " + e.getMessage());
+            LogProvider.debug(e);
+            return null;
+        }
+    }
+
+    /**
+     * Converts the {@code int} representation of constant values to the actual field type.
+     */
+    private static Object convert(final Object value, final String desc) {
+        if (!(value instanceof Integer))
+            return value;
+
+        final int intValue = (Integer) value;
+        switch (desc) {
+            case "Z":
+                return intValue != 0;
+            case "C":
+                return (char) intValue;
+            case "B":
+                return (byte) intValue;
+            case "S":
+                return (short) intValue;
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * Reads the {@code ConstantValue} of a static field.
+     */
+    private static class ConstantValueClassVisitor extends ClassVisitor {
+
+        private final String name;
+        private final String desc;
+        private Object value;
+
+        ConstantValueClassVisitor(final String name, final String desc) {
+            super(ASM5);
+            this.name = name;
+            this.desc = desc;
+        }
+
+        @Override
+        public FieldVisitor visitField(final int access, final String name, final String desc, final String signature, final Object value) {
+            if ((access & ACC_STATIC) != 0 && this.name.equals(name) && this.desc.equals(desc) && value != null)
+                this.value = convert(value, desc);
+            return null;
+        }
+
+        Object getValue() {
+            return value;
+        }
+
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.reduction;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.LoadStoreInstruction;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An array-based representation of the instructions of a method together with the positions of the return / throw instructions
+ * and a def-use index from every local variable index to the positions of its LOAD &amp; STORE instructions.
+ * The index is built in a single pass over the instructions.
+ *
+ * @author Sebastian Daschner
+ */
+final class InstructionIndex {
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final Instruction[] instructions;
+    private final int[] returnsAndThrows;
+    private final int[][] loadStores;
+
+    InstructionIndex(final List<Instruction> instructions) {
+        this.instructions = instructions.toArray(new Instruction[instructions.size()]);
+
+        final Positions returnsAndThrows = new Positions();
+        Positions[] loadStores = new Positions[8];
+
+        for (int position = 0; position < this.instructions.length; position++) {
+            final Instruction instruction = this.instructions[position];
+            switch (instruction.getType()) {
+                case RETURN:
+                case THROW:
+                    returnsAndThrows.add(position);
+                    break;
+                case LOAD:
+                case STORE:
+                    final int number = ((LoadStoreInstruction) instruction).getNumber();
+                    if (number >= loadStores.length)
+                        loadStores = Arrays.copyOf(loadStores, Math.max(number + 1, loadStores.length * 2));
+                    if (loadStores[number] == null)
+                        loadStores[number] = new Positions();
+                    loadStores[number].add(position);
+                    break;
+            }
+        }
+
+        this.returnsAndThrows = returnsAndThrows.toArray();
+        this.loadStores = new int[loadStores.length][];
+        for (int number = 0; number < loadStores.length; number++) {
+            this.loadStores[number] = loadStores[number] == null ? NO_POSITIONS : loadStores[number].toArray();
+        }
+    }
+
+    int size() {
+        return instructions.length;
+    }
+
+    Instruction get(final int position) {
+        return instructions[position];
+    }
+
+    /**
+     * Returns the positions of all return and throw instructions.
+     *
+     * @return The ascending positions, the array must not be modified
+     */
+    int[] getReturnsAndThrows() {
+        return returnsAndThrows;
+    }
+
+    /**
+     * Returns the positions of all LOAD &amp; STORE instructions with {@code index}.
+     *
+     * @param index The LOAD / STORE index
+     * @return The ascending positions, the array must not be modified
+     */
+    int[] getLoadStores(final int index) {
+        return index < loadStores.length ? loadStores[index] : NO_POSITIONS;
+    }
+
+    /**
+     * A growing list of instruction positions.
+     */
+    static class Positions {
+
+        private int[] positions = new int[4];
+        private int size;
+
+        void add(final int position) {
+            if (size == positions.length)
+                positions = Arrays.copyOf(positions, size * 2);
+            positions[size++] = position;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(final int index) {
+            return positions[index];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void sort() {
+            Arrays.sort(positions, 0, size);
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+
+    }
+
+}
@@ -19,14 +19,15 @@ package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.reduction;
 import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
 import com.sebastian_daschner.jaxrs_analyzer.model.instructions.LoadInstruction;
 
-import java.util.*;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.Stream;
 
 /**
- * Determines the instructions, which are relevant for the return value of a method by simulating a runtime stack with the byte code. This class is thread-safe.
+ * Determines the instructions, which are relevant for the return value of a method by simulating a runtime stack with the byte code.
+ * The reduction runs on an array-based {@link InstructionIndex} and visits every instruction at most once. This class is thread-safe.
  *
  * @author Sebastian Daschner
  */
@@ -36,9 +37,6 @@ public class RelevantInstructionReducer {
      * These variable names will not be backtracked.
      */
     private static final String[] VARIABLE_NAMES_TO_IGNORE = {"this"};
-    private final Lock lock = new ReentrantLock();
-    private final StackSizeSimulator stackSizeSimulator = new StackSizeSimulator();
-    private List<Instruction> instructions;
 
     /**
      * Returns all instructions which are somewhat "relevant" for the returned object of the method.
@@ -49,50 +47,72 @@ public class RelevantInstructionReducer {
      * @return The relevant instructions
      */
     public List<Instruction> reduceInstructions(final List<Instruction> instructions) {
-        lock.lock();
-        try {
-            this.instructions = instructions;
-            stackSizeSimulator.buildStackSizes(instructions);
-
-            return reduceInstructionsInternal(instructions);
-        } finally {
-            lock.unlock();
-        }
+        final InstructionIndex instructionIndex = new InstructionIndex(instructions);
+        final StackSizeSimulator stackSizeSimulator = new StackSizeSimulator(instructionIndex);
+
+        return reduceInstructionsInternal(instructionIndex, stackSizeSimulator);
     }
 
     /**
      * Returns all reduced instructions.
+     * The backtrack positions are processed in the order they are found; the LOAD / STORE backtrack positions of each statement are added in reverse order.
      *
-     * @param instructions All instructions
+     * @param instructions       All instructions
+     * @param stackSizeSimulator The stack sizes of the instructions
      * @return The relevant instructions
      */
-    private List<Instruction> reduceInstructionsInternal(final List<Instruction> instructions) {
-        final List<Instruction> visitedInstructions = new LinkedList<>();
-        final Set<Integer> visitedInstructionPositions = new HashSet<>();
-        final Set<Integer> handledLoadIndexes = new HashSet<>();
-        final Set<Integer> backtrackPositions = new LinkedHashSet<>(findSortedBacktrackPositions());
-
-        while (!visitedInstructionPositions.containsAll(backtrackPositions)) {
-
-            // unvisited backtrack position
-            final int backtrackPosition = backtrackPositions.stream().filter(pos -> !visitedInstructionPositions.contains(pos))
-                    .findFirst().orElseThrow(IllegalStateException::new);
-
-            final List<Integer> lastVisitedPositions = stackSizeSimulator.simulateStatementBackwards(backtrackPosition);
-            final List<Instruction> lastVisitedInstructions = lastVisitedPositions.stream().map(instructions::get).collect(Collectors.toList());
-
-            visitedInstructionPositions.addAll(lastVisitedPositions);
-            visitedInstructions.addAll(lastVisitedInstructions);
-
-            // unhandled load indexes
-            final Set<Integer> unhandledLoadIndexes = findUnhandledLoadIndexes(handledLoadIndexes, lastVisitedInstructions);
+    private List<Instruction> reduceInstructionsInternal(final InstructionIndex instructions, final StackSizeSimulator stackSizeSimulator) {
+        final List<Instruction> visitedInstructions = new ArrayList<>();
+        final boolean[] visitedPositions = new boolean[instructions.size()];
+        final boolean[] addedBacktrackPositions = new boolean[instructions.size()];
+        final BitSet handledLoadIndexes = new BitSet();
+        final InstructionIndex.Positions loadStoreBacktrackPositions = new InstructionIndex.Positions();
+
+        // every position is added at most once
+        final int[] backtrackPositions = new int[instructions.size()];
+        int backtrackHead = 0;
+        int backtrackTail = 0;
 
-            // for each load occurrence index -> find load/store backtrack positions (reverse order matters here)
-            final SortedSet<Integer> loadStoreBacktrackPositions = findLoadStoreBacktrackPositions(unhandledLoadIndexes);
-
-            handledLoadIndexes.addAll(unhandledLoadIndexes);
+        // start with last return
+        final int[] startPositions = instructions.getReturnsAndThrows();
+        for (int i = startPositions.length - 1; i >= 0; i--) {
+            backtrackPositions[backtrackTail++] = startPositions[i];
+            addedBacktrackPositions[startPositions[i]] = true;
+        }
 
-            loadStoreBacktrackPositions.stream().forEach(backtrackPositions::add);
+        while (backtrackHead < backtrackTail) {
+            final int backtrackPosition = backtrackPositions[backtrackHead++];
+            if (visitedPositions[backtrackPosition])
+                continue;
+
+            // for each unhandled load index of the statement -> find load/store backtrack positions
+            loadStoreBacktrackPositions.clear();
+            final int statementStart = stackSizeSimulator.findStatementStart(backtrackPosition);
+            for (int position = backtrackPosition; position >= statementStart; position--) {
+                final Instruction instruction = instructions.get(position);
+                visitedPositions[position] = true;
+                visitedInstructions.add(instruction);
+
+                if (instruction.getType() == Instruction.InstructionType.LOAD && !isLoadIgnored((LoadInstruction) instruction)) {
+                    final int loadIndex = ((LoadInstruction) instruction).getNumber();
+                    if (!handledLoadIndexes.get(loadIndex)) {
+                        handledLoadIndexes.set(loadIndex);
+                        for (final int loadStorePosition : instructions.getLoadStores(loadIndex)) {
+                            loadStoreBacktrackPositions.add(stackSizeSimulator.findBacktrackPosition(loadStorePosition));
+                        }
+                    }
+                }
+            }
+
+            // reverse order matters here
+            loadStoreBacktrackPositions.sort();
+            for (int i = loadStoreBacktrackPositions.size() - 1; i >= 0; i--) {
+                final int position = loadStoreBacktrackPositions.get(i);
+                if (!addedBacktrackPositions[position]) {
+                    addedBacktrackPositions[position] = true;
+                    backtrackPositions[backtrackTail++] = position;
+                }
+            }
         }
 
         // sort in method natural order
@@ -101,28 +121,6 @@ public class RelevantInstructionReducer {
         return visitedInstructions;
     }
 
-    private List<Integer> findSortedBacktrackPositions() {
-        final List<Integer> startPositions = new LinkedList<>(InstructionFinder.findReturnsAndThrows(instructions));
-
-        // start with last return
-        Collections.sort(startPositions, Comparator.reverseOrder());
-        return startPositions;
-    }
-
-
-    /**
-     * Searches for load indexes in the {@code lastVisitedInstructions} which are not contained in {@code handledLoadIndexes}.
-     *
-     * @param handledLoadIndexes      The load indexed which have been handled so far
-     * @param lastVisitedInstructions The last visited instructions
-     * @return The unhandled load indexes
-     */
-    private Set<Integer> findUnhandledLoadIndexes(final Set<Integer> handledLoadIndexes, final List<Instruction> lastVisitedInstructions) {
-        final Set<Integer> lastLoadIndexes = InstructionFinder.findLoadIndexes(lastVisitedInstructions, RelevantInstructionReducer::isLoadIgnored);
-
-        return lastLoadIndexes.stream().filter(k -> !handledLoadIndexes.contains(k)).collect(Collectors.toSet());
-    }
-
     /**
      * Checks if the given LOAD instruction should be ignored for backtracking.
      *
@@ -133,17 +131,4 @@ public class RelevantInstructionReducer {
         return Stream.of(VARIABLE_NAMES_TO_IGNORE).anyMatch(instruction.getName()::equals);
     }
 
-    /**
-     * Returns all backtrack positions of the given LOAD / STORE indexes in the instructions.
-     * The backtrack positions of both LOAD and store instructions are the next positions where the runtime stack size is {@code 0}.
-     *
-     * @param unhandledLoadIndexes The LOAD/STORE indexes to find
-     * @return The backtrack positions of the LOAD / STORE indexes
-     */
-    private SortedSet<Integer> findLoadStoreBacktrackPositions(final Set<Integer> unhandledLoadIndexes) {
-        return unhandledLoadIndexes.stream()
-                .map(index -> stackSizeSimulator.findLoadStoreBacktrackPositions(InstructionFinder.findLoadStores(index, instructions)))
-                .collect(() -> new TreeSet<>(Comparator.reverseOrder()), Set::addAll, Set::addAll);
-    }
-
 }
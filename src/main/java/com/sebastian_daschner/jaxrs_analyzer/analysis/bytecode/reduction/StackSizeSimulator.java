@@ -16,33 +16,39 @@
 
 package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.reduction;
 
-import com.sebastian_daschner.jaxrs_analyzer.utils.Pair;
 import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
 
-import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
 /**
  * Simulates runtime stack sizes of instructions.
+ * The statement boundaries, i.e. the positions where the runtime stack is empty, are precomputed for all positions.
  *
  * @author Sebastian Daschner
  */
 class StackSizeSimulator {
 
-    private List<Pair<Integer, Integer>> stackSizes;
+    private final int[] statementStarts;
+    private final int[] backtrackPositions;
 
     /**
-     * Initializes the runtime stack sizes with the given instructions. This has to be called before {@link StackSizeSimulator#simulateStatementBackwards}
+     * Simulates the runtime stack sizes of the given instructions.
      *
      * @param instructions The instructions to simulate
      */
-    void buildStackSizes(final List<Instruction> instructions) {
-        stackSizes = new ArrayList<>();
+    StackSizeSimulator(final InstructionIndex instructions) {
+        final int size = instructions.size();
+        statementStarts = new int[size];
+        backtrackPositions = new int[size];
+        final int[] stackSizes = new int[size];
+
         int stackSize = 0;
+        int statementStart = -1;
+        for (int position = 0; position < size; position++) {
+            final Instruction instruction = instructions.get(position);
 
-        for (Instruction instruction : instructions) {
-            final int previousStackSize = stackSize;
+            // check against stack size before the instruction was executed
+            if (stackSize == 0)
+                statementStart = position;
+            statementStarts[position] = statementStart;
 
             stackSize += instruction.getStackSizeDifference();
 
@@ -53,7 +59,15 @@ class StackSizeSimulator {
                 throw new IllegalStateException("Runtime stack under-flow occurred.");
             }
 
-            stackSizes.add(Pair.of(previousStackSize, stackSize));
+            stackSizes[position] = stackSize;
+        }
+
+        int backtrackPosition = -1;
+        for (int position = size - 1; position >= 0; position--) {
+            // check against stack size after the instruction was executed
+            if (stackSizes[position] == 0)
+                backtrackPosition = position;
+            backtrackPositions[position] = backtrackPosition;
         }
     }
 
@@ -68,52 +82,30 @@ class StackSizeSimulator {
     }
 
     /**
-     * Returns the instruction positions which are visited <i>backwards</i> from {@code backtrackPosition}
-     * until the runtime stack is empty.
+     * Returns the start of the statement of {@code backtrackPosition}, i.e. the previous position where the runtime stack is empty.
+     * The positions from {@code backtrackPosition} backwards to the start are visited when simulating the statement backwards.
      *
      * @param backtrackPosition The backtrack position where to start
-     * @return All positions <i>backwards</i> until the previous empty position
+     * @return The start position
      */
-    List<Integer> simulateStatementBackwards(final int backtrackPosition) {
-        // search for previous zero-position in stackSizes
-        int currentPosition = backtrackPosition;
-
-        // check against stack size before the instruction was executed
-        while (stackSizes.get(currentPosition).getLeft() > 0) {
-            currentPosition--;
-        }
-
-        return Stream.iterate(backtrackPosition, c -> --c).limit(backtrackPosition - currentPosition + 1)
-                .collect(LinkedList::new, Collection::add, Collection::addAll);
+    int findStatementStart(final int backtrackPosition) {
+        final int statementStart = statementStarts[backtrackPosition];
+        if (statementStart < 0)
+            throw new IllegalStateException("No statement start found for position " + backtrackPosition);
+        return statementStart;
     }
 
     /**
-     * Returns all backtrack positions of the given instruction positions.
-     * The backtrack positions of both LOAD and store instructions are the next positions where the runtime stack size is {@code 0}.
-     *
-     * @param loadStorePositions The LOAD/STORE positions
-     * @return The backtrack positions
-     */
-    Set<Integer> findLoadStoreBacktrackPositions(final Set<Integer> loadStorePositions) {
-        // go to this or next zero-position
-        return loadStorePositions.stream().map(this::findBacktrackPosition).collect(Collectors.toSet());
-    }
-
-    /**
-     * Returns the next position where the stack will be empty.
+     * Returns the backtrack position of a LOAD / STORE position, i.e. the next position where the stack will be empty.
      *
      * @param position The current position
      * @return The next empty position
      */
-    private int findBacktrackPosition(final int position) {
-        int currentPosition = position;
-
-        // check against stack size after the instruction was executed
-        while (stackSizes.get(currentPosition).getRight() > 0) {
-            currentPosition++;
-        }
-
-        return currentPosition;
+    int findBacktrackPosition(final int position) {
+        final int backtrackPosition = backtrackPositions[position];
+        if (backtrackPosition < 0)
+            throw new IllegalStateException("No backtrack position found for position " + position);
+        return backtrackPosition;
     }
 
-}
\ No newline at end of file
+}
@@ -16,64 +16,69 @@
 
 package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.simulation;
 
+import com.sebastian_daschner.jaxrs_analyzer.analysis.AnalysisContext;
 import com.sebastian_daschner.jaxrs_analyzer.model.elements.Element;
 import com.sebastian_daschner.jaxrs_analyzer.model.methods.IdentifiableMethod;
 import com.sebastian_daschner.jaxrs_analyzer.model.methods.Method;
 import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
 import com.sebastian_daschner.jaxrs_analyzer.model.methods.ProjectMethod;
 
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static com.sebastian_daschner.jaxrs_analyzer.model.Types.PRIMITIVE_VOID;
 
 /**
- * A thread-safe singleton pool of known {@link Method}s.
+ * A thread-safe pool of known {@link Method}s of an analysis.
+ * The methods are indexed by containing class, method name, arity and whether they are static;
+ * the exact (erasure-aware) matching is only applied to the few methods in the same index bucket.
+ * Lookups don't require any locking.
  *
  * @author Sebastian Daschner
  */
 public class MethodPool {
 
-    /**
-     * The only instance of the method pool.
-     */
-    private static final MethodPool INSTANCE = new MethodPool();
     private static final Function<MethodIdentifier, Method> DEFAULT_METHOD = identifier -> (object, arguments) -> {
         if (!PRIMITIVE_VOID.equals(identifier.getReturnType()))
             return new Element(identifier.getReturnType());
         return null;
     };
 
-    private final List<IdentifiableMethod> availableMethods;
-    private final ReadWriteLock readWriteLock;
-
-    private MethodPool() {
-        availableMethods = new LinkedList<>();
+    private final Map<MethodKey, List<IdentifiableMethod>> availableMethods = new ConcurrentHashMap<>();
 
+    public MethodPool() {
         // order matters, known methods are taken first
-        Stream.of(KnownResponseResultMethod.values()).forEach(availableMethods::add);
-        Stream.of(KnownJsonResultMethod.values()).forEach(availableMethods::add);
-
-        readWriteLock = new ReentrantReadWriteLock();
+        Stream.of(KnownResponseResultMethod.values()).forEach(this::addMethod);
+        Stream.of(KnownJsonResultMethod.values()).forEach(this::addMethod);
     }
 
     /**
-     * Adds a project method to the pool.
+     * Adds a project method to the pool. A previously added method with an equal identifier is replaced.
      *
      * @param method The method to add
      */
     public void addProjectMethod(final ProjectMethod method) {
-        readWriteLock.writeLock().lock();
-        try {
-            availableMethods.add(method);
-        } finally {
-            readWriteLock.writeLock().unlock();
-        }
+        addMethod(method);
+    }
+
+    private void addMethod(final IdentifiableMethod method) {
+        availableMethods.compute(new MethodKey(method.getIdentifier()), (key, methods) -> {
+            if (methods == null)
+                methods = new CopyOnWriteArrayList<>();
+
+            for (int i = 0; i < methods.size(); i++) {
+                if (methods.get(i).getIdentifier().equals(method.getIdentifier())) {
+                    methods.set(i, method);
+                    return methods;
+                }
+            }
+            methods.add(method);
+            return methods;
+        });
     }
 
     /**
@@ -83,14 +88,13 @@ public class MethodPool {
      * @return The found method or a default handler
      */
     public Method get(final MethodIdentifier identifier) {
-        // search for available methods
-        readWriteLock.readLock().lock();
-        try {
-            final Optional<? extends IdentifiableMethod> method = availableMethods.stream().filter(m -> m.matches(identifier)).findAny();
-            if (method.isPresent())
-                return method.get();
-        } finally {
-            readWriteLock.readLock().unlock();
+        // search for available methods, in the order they have been added
+        final List<IdentifiableMethod> candidates = availableMethods.get(new MethodKey(identifier));
+        if (candidates != null) {
+            for (final IdentifiableMethod method : candidates) {
+                if (method.matches(identifier))
+                    return method;
+            }
         }
 
         // apply default behaviour
@@ -98,12 +102,47 @@ public class MethodPool {
     }
 
     /**
-     * Returns the singleton instance.
+     * Returns the method pool of the current analysis.
      *
-     * @return The method pool
+     * @return The method pool of the current {@link AnalysisContext}
      */
     public static MethodPool getInstance() {
-        return INSTANCE;
+        return AnalysisContext.current().getMethodPool();
+    }
+
+    /**
+     * The index key of methods which may match each other.
+     */
+    private static class MethodKey {
+
+        private final String containingClass;
+        private final String methodName;
+        private final int arity;
+        private final boolean staticMethod;
+        private final int hashCode;
+
+        MethodKey(final MethodIdentifier identifier) {
+            containingClass = identifier.getContainingClass();
+            methodName = identifier.getMethodName();
+            arity = identifier.getParameters().size();
+            staticMethod = identifier.isStaticMethod();
+            hashCode = 31 * (31 * (31 * containingClass.hashCode() + methodName.hashCode()) + arity) + (staticMethod ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            final MethodKey that = (MethodKey) o;
+            return arity == that.arity && staticMethod == that.staticMethod && containingClass.equals(that.containingClass) && methodName.equals(that.methodName);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
     }
 
 }
@@ -24,28 +24,30 @@ import com.sebastian_daschner.jaxrs_analyzer.model.methods.Method;
 import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
 import org.objectweb.asm.Label;
 
-import javax.ws.rs.core.MultivaluedHashMap;
-import javax.ws.rs.core.MultivaluedMap;
 import java.util.*;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import static com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils.determineLeastSpecificType;
 import static com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils.toType;
 
 /**
- * Simulates the instructions of a method. This class is thread-safe.
+ * Simulates the instructions of a method on an array-backed operand stack.
+ * Unknown values, e.g. results of arithmetic instructions, share one element which is replaced by a new element
+ * as soon as it leaves the simulator (i.e. is returned or passed to a method), so that it's never modified. This class is thread-safe.
  *
  * @author Sebastian Daschner
  */
 public class MethodSimulator {
 
+    /**
+     * The shared element of unknown values which is only held on the operand stack.
+     */
+    private static final Element UNKNOWN = new Element();
+
     private final Lock lock = new ReentrantLock();
-    private final MethodPool methodPool = MethodPool.getInstance();
-    private final Stack<Element> runtimeStack = new Stack<>();
-    private final MultivaluedMap<Label, Integer> variableInvalidation = new MultivaluedHashMap<>();
+    private final OperandStack runtimeStack = new OperandStack();
+    private final Map<Label, Set<Integer>> variableInvalidation = new HashMap<>();
     private Label active;
 
     Map<Integer, Element> localVariables = new HashMap<>();
@@ -75,7 +77,9 @@ public class MethodSimulator {
      * @return The return element of the method
      */
     Element simulateInternal(final List<Instruction> instructions) {
-        instructions.forEach(this::simulate);
+        for (final Instruction instruction : instructions) {
+            simulate(instruction);
+        }
 
         return returnElement;
     }
@@ -110,10 +114,7 @@ public class MethodSimulator {
                     runtimeStack.push(new Element(getStaticInstruction.getPropertyType()));
                 break;
             case LOAD:
-                final LoadInstruction loadInstruction = (LoadInstruction) instruction;
-                runtimeStack.push(localVariables.getOrDefault(loadInstruction.getNumber(), new Element(loadInstruction.getVariableType())));
-                runtimeStack.peek().getTypes().add(loadInstruction.getVariableType());
-                variableInvalidation.add(loadInstruction.getValidUntil(), loadInstruction.getNumber());
+                simulateLoad((LoadInstruction) instruction);
                 break;
             case STORE:
                 simulateStore((StoreInstruction) instruction);
@@ -142,10 +143,28 @@ public class MethodSimulator {
                 throw new IllegalArgumentException("Instruction without type!");
         }
 
-        if (instruction.getLabel() != active && variableInvalidation.containsKey(active)) {
-            variableInvalidation.get(active).forEach(localVariables::remove);
+        if (instruction.getLabel() != active) {
+            final Set<Integer> invalidatedVariables = variableInvalidation.get(active);
+            if (invalidatedVariables != null)
+                invalidatedVariables.forEach(localVariables::remove);
+            active = instruction.getLabel();
+        }
+    }
+
+    /**
+     * Simulates the load instruction. Pushes the local variable or a new element if the variable is unknown.
+     *
+     * @param instruction The instruction to simulate
+     */
+    private void simulateLoad(final LoadInstruction instruction) {
+        final Element variable = localVariables.get(instruction.getNumber());
+        if (variable != null) {
+            variable.getTypes().add(instruction.getVariableType());
+            runtimeStack.push(variable);
+        } else {
+            runtimeStack.push(new Element(instruction.getVariableType()));
         }
-        active = instruction.getLabel();
+        variableInvalidation.computeIfAbsent(instruction.getValidUntil(), l -> new HashSet<>()).add(instruction.getNumber());
     }
 
     /**
@@ -154,13 +173,11 @@ public class MethodSimulator {
      * @param instruction The instruction to simulate
      */
     private void simulateMethodHandle(final InvokeDynamicInstruction instruction) {
-        final List<Element> arguments = IntStream.range(0, instruction.getDynamicIdentifier().getParameters().size())
-                .mapToObj(t -> runtimeStack.pop()).collect(Collectors.toList());
-        Collections.reverse(arguments);
+        List<Element> arguments = popArguments(instruction.getDynamicIdentifier().getParameters().size());
 
         if (!instruction.getDynamicIdentifier().isStaticMethod())
             // first parameter is `this`
-            arguments.remove(0);
+            arguments = arguments.subList(1, arguments.size());
 
         // adds the transferred arguments of the bootstrap call
         runtimeStack.push(new MethodHandle(instruction.getDynamicIdentifier().getReturnType(), instruction.getIdentifier(), arguments));
@@ -172,23 +189,20 @@ public class MethodSimulator {
      * @param instruction The instruction to simulate
      */
     private void simulateInvoke(final InvokeInstruction instruction) {
-        final List<Element> arguments = new LinkedList<>();
-        MethodIdentifier identifier = instruction.getIdentifier();
-
-        IntStream.range(0, identifier.getParameters().size()).forEach(i -> arguments.add(runtimeStack.pop()));
-        Collections.reverse(arguments);
+        final MethodIdentifier identifier = instruction.getIdentifier();
+        final List<Element> arguments = popArguments(identifier.getParameters().size());
 
         Element object = null;
         Method method;
         if (!identifier.isStaticMethod()) {
-            object = runtimeStack.pop();
+            object = escape(runtimeStack.pop());
             if (object instanceof MethodHandle) {
                 method = (Method) object;
             } else {
-                method = methodPool.get(identifier);
+                method = MethodPool.getInstance().get(identifier);
             }
         } else {
-            method = methodPool.get(identifier);
+            method = MethodPool.getInstance().get(identifier);
         }
         final Element returnedElement = method.invoke(object, arguments);
         if (returnedElement != null)
@@ -197,6 +211,33 @@ public class MethodSimulator {
             runtimeStack.push(new Element(identifier.getReturnType()));
     }
 
+    /**
+     * Pops the arguments of an invocation.
+     *
+     * @param count The number of arguments
+     * @return The arguments in declaration order, the list has a fixed size
+     */
+    private List<Element> popArguments(final int count) {
+        if (count == 0)
+            return Collections.emptyList();
+
+        final Element[] arguments = runtimeStack.pop(count);
+        for (int i = 0; i < count; i++) {
+            arguments[i] = escape(arguments[i]);
+        }
+        return Arrays.asList(arguments);
+    }
+
+    /**
+     * Replaces the shared unknown element by a new element, as the element leaves the simulator and may be modified.
+     *
+     * @param element The element
+     * @return The element or a new unknown element
+     */
+    private static Element escape(final Element element) {
+        return element == UNKNOWN ? new Element() : element;
+    }
+
     /**
      * Simulates the store instruction.
      *
@@ -220,11 +261,18 @@ public class MethodSimulator {
      * @param element The element to merge
      */
     private void mergeElementStore(final int index, final String type, final Element element) {
-        // new element must be created for immutability
         final String elementType = type.equals(Types.OBJECT) ? determineLeastSpecificType(element.getTypes().toArray(new String[element.getTypes().size()])) : type;
+        final Element variable = localVariables.get(index);
+        if (variable != null) {
+            variable.getTypes().add(elementType);
+            variable.merge(element);
+            return;
+        }
+
+        // the variable gets an own element, so that merging later stores doesn't modify the stored element
         final Element created = new Element(elementType);
         created.merge(element);
-        localVariables.merge(index, created, Element::merge);
+        localVariables.put(index, created);
     }
 
     /**
@@ -253,8 +301,10 @@ public class MethodSimulator {
      * @param instruction The instruction to simulate
      */
     private void simulateSizeChange(final SizeChangingInstruction instruction) {
-        IntStream.range(0, instruction.getNumberOfPops()).forEach(i -> runtimeStack.pop());
-        IntStream.range(0, instruction.getNumberOfPushes()).forEach(i -> runtimeStack.push(new Element()));
+        runtimeStack.drop(instruction.getNumberOfPops());
+        for (int i = 0; i < instruction.getNumberOfPushes(); i++) {
+            runtimeStack.push(UNKNOWN);
+        }
     }
 
     /**
@@ -264,9 +314,10 @@ public class MethodSimulator {
      * @param stackElement The popped element
      */
     private void mergeReturnElement(final Element stackElement) {
+        final Element element = escape(stackElement);
         if (returnElement != null)
-            stackElement.merge(returnElement);
-        returnElement = stackElement;
+            element.merge(returnElement);
+        returnElement = element;
     }
 
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.simulation;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.elements.Element;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * The array-backed operand stack of a simulated method.
+ * The stack is meant to be reused for several simulations; the capacity grows as needed and is kept when the stack is cleared.
+ * This class is not thread-safe.
+ *
+ * @author Sebastian Daschner
+ */
+class OperandStack {
+
+    private Element[] elements = new Element[16];
+    private int size;
+
+    void push(final Element element) {
+        if (size == elements.length)
+            elements = Arrays.copyOf(elements, size * 2);
+        elements[size++] = element;
+    }
+
+    /**
+     * Removes the top element.
+     *
+     * @return The removed element
+     * @throws EmptyStackException If the stack is empty
+     */
+    Element pop() {
+        if (size == 0)
+            throw new EmptyStackException();
+        final Element element = elements[--size];
+        elements[size] = null;
+        return element;
+    }
+
+    /**
+     * Removes the given number of top elements into an array, in the order they have been pushed.
+     *
+     * @param count The number of elements
+     * @return The removed elements, the top element last
+     * @throws EmptyStackException If the stack contains less elements
+     */
+    Element[] pop(final int count) {
+        if (count > size)
+            throw new EmptyStackException();
+        size -= count;
+        final Element[] popped = Arrays.copyOfRange(elements, size, size + count);
+        Arrays.fill(elements, size, size + count, null);
+        return popped;
+    }
+
+    /**
+     * Removes the given number of top elements.
+     *
+     * @param count The number of elements
+     * @throws EmptyStackException If the stack contains less elements
+     */
+    void drop(final int count) {
+        if (count > size)
+            throw new EmptyStackException();
+        Arrays.fill(elements, size - count, size, null);
+        size -= count;
+    }
+
+    /**
+     * Returns the top element.
+     *
+     * @return The top element
+     * @throws EmptyStackException If the stack is empty
+     */
+    Element peek() {
+        if (size == 0)
+            throw new EmptyStackException();
+        return elements[size - 1];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+
+}
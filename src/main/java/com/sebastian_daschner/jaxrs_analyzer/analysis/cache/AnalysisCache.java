@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sebastian_daschner.jaxrs_analyzer.analysis.cache;
+
+import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.AnalysisContext;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.SuperTypeResolver;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonString;
+import javax.json.JsonWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Persists the bytecode analysis results of (sub-)resource classes in a directory, in order to skip the analysis of unchanged classes in later runs.
+ * <p>
+ * Every entry is keyed by a fingerprint of the class file, the class files of all (transitively) invoked project methods
+ * and the class files of their super types. The fingerprint is recomputed from the current class files when an entry is loaded;
+ * outdated entries are ignored and overwritten.
+ * The fingerprint also contains the library class paths: jar-files by their locations, sizes and modification times, directories by their locations.
+ * Thus adding, removing or updating a library jar-file invalidates all entries, whereas changed classes in library directories
+ * and changes in JDK classes are not detected.
+ * This class is thread-safe.
+ *
+ * @author Sebastian Daschner
+ */
+public class AnalysisCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String ABSENT_CLASS = "<absent>";
+
+    private final Path directory;
+    private final String libraryFingerprint;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a cache which entries are stored in the given directory. The directory is created if it doesn't exist.
+     *
+     * @param directory The cache directory
+     * @throws IOException If the directory could not be created
+     */
+    public AnalysisCache(final Path directory) throws IOException {
+        this(directory, Collections.emptySet());
+    }
+
+    /**
+     * Creates a cache which entries are stored in the given directory and which are only valid for the current state of the library class paths.
+     * The directory is created if it doesn't exist.
+     *
+     * @param directory         The cache directory
+     * @param libraryClassPaths The locations of the library class paths (can be directories or jar-files)
+     * @throws IOException If the directory could not be created or a library jar-file could not be read
+     */
+    public AnalysisCache(final Path directory, final Collection<Path> libraryClassPaths) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        libraryFingerprint = calculateLibraryFingerprint(libraryClassPaths);
+    }
+
+    /**
+     * Loads the cached result of the given class into the (empty) class result, if the cached entry is still valid.
+     * The sub-resource locators of the loaded result return new, empty class results.
+     *
+     * @param className    The class name
+     * @param classResult  The class result to fill
+     * @param dependencies The set where the names of the classes which contain the invoked project methods are added
+     * @return The names of the classes which are returned by the loaded sub-resource locators or {@code null} if the class isn't cached
+     */
+    public Map<MethodResult, String> load(final String className, final ClassResult classResult, final Set<String> dependencies) {
+        final Path file = getEntryFile(className);
+        if (!Files.isRegularFile(file)) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             final JsonReader jsonReader = Json.createReader(reader)) {
+            final JsonObject entry = jsonReader.readObject();
+            final Set<String> entryDependencies = entry.getJsonArray("dependencies").getValuesAs(JsonString.class).stream()
+                    .map(JsonString::getString).collect(Collectors.toSet());
+
+            if (entry.getInt("version") != FORMAT_VERSION || !getClassFileName(className).equals(entry.getString("className"))
+                    || !calculateFingerprint(className, entryDependencies).equals(entry.getString("fingerprint"))) {
+                LogProvider.debug("The cached analysis of " + className + " is outdated");
+                misses.incrementAndGet();
+                return null;
+            }
+
+            // the entry is mapped to a scratch result first, so that malformed entries don't leave a partially filled result
+            ClassResultMapper.fromJson(entry.getJsonObject("result"), new ClassResult(), new IdentityHashMap<>());
+
+            final Map<MethodResult, String> subResourceClasses = new IdentityHashMap<>();
+            ClassResultMapper.fromJson(entry.getJsonObject("result"), classResult, subResourceClasses);
+            dependencies.addAll(entryDependencies);
+            hits.incrementAndGet();
+            return subResourceClasses;
+        } catch (IOException | RuntimeException e) {
+            // malformed entries are treated like missing ones
+            LogProvider.debug("Could not read the cached analysis of " + className + ", reason: " + e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Stores the analysis result of the given class. Results which contain values that can't be persisted are not stored.
+     *
+     * @param className             The class name
+     * @param classResult           The analyzed class result
+     * @param invokedProjectMethods The project methods which have been (transitively) invoked by the methods of the class
+     * @param subResourceClasses    The names of the classes which are returned by the sub-resource locators
+     */
+    public void store(final String className, final ClassResult classResult, final Set<MethodIdentifier> invokedProjectMethods,
+                      final Map<MethodResult, String> subResourceClasses) {
+        final SortedSet<String> dependencies = invokedProjectMethods.stream().map(MethodIdentifier::getContainingClass)
+                .map(AnalysisCache::getClassFileName).collect(Collectors.toCollection(TreeSet::new));
+        dependencies.remove(getClassFileName(className));
+
+        final JsonObject entry;
+        try {
+            final JsonArrayBuilder dependenciesBuilder = Json.createArrayBuilder();
+            dependencies.forEach(dependenciesBuilder::add);
+
+            entry = Json.createObjectBuilder()
+                    .add("version", FORMAT_VERSION)
+                    .add("className", getClassFileName(className))
+                    .add("fingerprint", calculateFingerprint(className, dependencies))
+                    .add("dependencies", dependenciesBuilder)
+                    .add("result", ClassResultMapper.toJson(classResult, subResourceClasses))
+                    .build();
+        } catch (IllegalArgumentException | IOException e) {
+            LogProvider.debug("The analysis of " + className + " can't be cached, reason: " + e.getMessage());
+            return;
+        }
+
+        try {
+            // entries are replaced atomically as several analyses may use the same directory
+            final Path temporaryFile = Files.createTempFile(directory, "entry", ".tmp");
+            try (final Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8);
+                 final JsonWriter jsonWriter = Json.createWriter(writer)) {
+                jsonWriter.writeObject(entry);
+            }
+            Files.move(temporaryFile, getEntryFile(className), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LogProvider.error("Could not write the cached analysis of " + className + ", reason: " + e.getMessage());
+            LogProvider.debug(e);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Calculates the fingerprint of the class files of the class, the dependencies and all their non-JDK super types,
+     * which are read from the current analysis context.
+     */
+    private String calculateFingerprint(final String className, final Collection<String> dependencies) throws IOException {
+        final AnalysisContext analysisContext = AnalysisContext.current();
+        final MessageDigest digest = createDigest();
+        digest.update((FORMAT_VERSION + ":" + analysisContext.isClassInitializationEnabled()).getBytes(StandardCharsets.UTF_8));
+        digest.update(libraryFingerprint.getBytes(StandardCharsets.UTF_8));
+
+        final List<String> classNames = new ArrayList<>(dependencies);
+        classNames.add(className);
+
+        for (final String current : SuperTypeResolver.resolveWithSuperTypes(classNames)) {
+            digest.update(current.getBytes(StandardCharsets.UTF_8));
+            try {
+                digest.update(analysisContext.getClassBytesCache().get(current));
+            } catch (IOException e) {
+                // classes which are not available are part of the fingerprint as well
+                digest.update(ABSENT_CLASS.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Describes the library class paths in a deterministic order: jar-files by their locations, sizes and modification times, directories by their locations.
+     */
+    private static String calculateLibraryFingerprint(final Collection<Path> libraryClassPaths) throws IOException {
+        final SortedSet<Path> paths = libraryClassPaths.stream().map(p -> p.toAbsolutePath().normalize()).collect(Collectors.toCollection(TreeSet::new));
+        final StringBuilder builder = new StringBuilder();
+        for (final Path path : paths) {
+            builder.append(path);
+            if (Files.isRegularFile(path))
+                builder.append(':').append(Files.size(path)).append(':').append(Files.getLastModifiedTime(path).toMillis());
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static MessageDigest createDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("The fingerprint algorithm is not available", e);
+        }
+    }
+
+    private Path getEntryFile(final String className) {
+        return directory.resolve(getClassFileName(className).replace('/', '.') + ".json");
+    }
+
+    private static String getClassFileName(final String className) {
+        return className.replace('.', '/');
+    }
+
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sebastian_daschner.jaxrs_analyzer.analysis.cache;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.elements.Element;
+import com.sebastian_daschner.jaxrs_analyzer.model.elements.HttpResponse;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
+import com.sebastian_daschner.jaxrs_analyzer.model.rest.HttpMethod;
+import com.sebastian_daschner.jaxrs_analyzer.model.rest.MethodParameter;
+import com.sebastian_daschner.jaxrs_analyzer.model.rest.ParameterType;
+import com.sebastian_daschner.jaxrs_analyzer.model.rest.TypeIdentifier;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maps the bytecode analysis results of a class to JSON and back.
+ * Only the information which is gathered from the class files is mapped; the instructions, the JavaDoc and the sub-resource classes are not.
+ * The sub-resource locators are mapped with the names of the classes they return.
+ *
+ * @author Sebastian Daschner
+ */
+final class ClassResultMapper {
+
+    private ClassResultMapper() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Maps the class result to JSON.
+     *
+     * @param classResult        The class result
+     * @param subResourceClasses The names of the classes which are returned by the sub-resource locators
+     * @return The JSON representation
+     * @throws IllegalArgumentException If the result contains values which can't be mapped
+     */
+    static JsonObject toJson(final ClassResult classResult, final Map<MethodResult, String> subResourceClasses) {
+        final JsonObjectBuilder builder = Json.createObjectBuilder();
+        addIfNotNull(builder, "applicationPath", classResult.getApplicationPath());
+        addIfNotNull(builder, "resourcePath", classResult.getResourcePath());
+        addIfNotNull(builder, "originalClass", classResult.getOriginalClass());
+        builder.add("deprecated", classResult.isDeprecated())
+                .add("requestMediaTypes", toJson(classResult.getRequestMediaTypes(), Json::createValue))
+                .add("responseMediaTypes", toJson(classResult.getResponseMediaTypes(), Json::createValue))
+                .add("classFields", toJson(classResult.getClassFields(), ClassResultMapper::toJson))
+                .add("methods", toJson(classResult.getMethods(), m -> toJson(m, subResourceClasses)));
+        return builder.build();
+    }
+
+    /**
+     * Maps the JSON representation back to the given (empty) class result.
+     *
+     * @param json               The JSON representation
+     * @param classResult        The class result to fill
+     * @param subResourceClasses The map where the names of the classes returned by the sub-resource locators are added
+     * @throws ClassCastException   If the JSON representation is malformed
+     * @throws NullPointerException If the JSON representation is incomplete
+     */
+    static void fromJson(final JsonObject json, final ClassResult classResult, final Map<MethodResult, String> subResourceClasses) {
+        classResult.setApplicationPath(json.getString("applicationPath", null));
+        classResult.setResourcePath(json.getString("resourcePath", null));
+        classResult.setOriginalClass(json.getString("originalClass", null));
+        classResult.setDeprecated(json.getBoolean("deprecated"));
+        json.getJsonArray("requestMediaTypes").getValuesAs(JsonString.class).stream().map(JsonString::getString).forEach(classResult.getRequestMediaTypes()::add);
+        json.getJsonArray("responseMediaTypes").getValuesAs(JsonString.class).stream().map(JsonString::getString).forEach(classResult.getResponseMediaTypes()::add);
+        json.getJsonArray("classFields").getValuesAs(JsonObject.class).stream().map(ClassResultMapper::toParameter).forEach(classResult.getClassFields()::add);
+        json.getJsonArray("methods").getValuesAs(JsonObject.class).forEach(m -> {
+            // the methods are added before they are filled, like during the analysis, which determines the iteration order
+            final MethodResult methodResult = new MethodResult();
+            classResult.add(methodResult);
+            fillMethodResult(m, methodResult, subResourceClasses);
+        });
+    }
+
+    private static JsonObject toJson(final MethodResult methodResult, final Map<MethodResult, String> subResourceClasses) {
+        final JsonObjectBuilder builder = Json.createObjectBuilder();
+        if (methodResult.getOriginalMethodSignature() != null)
+            builder.add("signature", toJson(methodResult.getOriginalMethodSignature()));
+        if (methodResult.getHttpMethod() != null)
+            builder.add("httpMethod", methodResult.getHttpMethod().name());
+        addIfNotNull(builder, "path", methodResult.getPath());
+        addIfNotNull(builder, "requestBodyType", methodResult.getRequestBodyType());
+        builder.add("deprecated", methodResult.isDeprecated())
+                .add("requestMediaTypes", toJson(methodResult.getRequestMediaTypes(), Json::createValue))
+                .add("responseMediaTypes", toJson(methodResult.getResponseMediaTypes(), Json::createValue))
+                .add("methodParameters", toJson(methodResult.getMethodParameters(), ClassResultMapper::toJson))
+                .add("responses", toJson(methodResult.getResponses(), ClassResultMapper::toJson))
+                .add("subResourceLocator", methodResult.getSubResource() != null);
+        addIfNotNull(builder, "subResourceClass", subResourceClasses.get(methodResult));
+        return builder.build();
+    }
+
+    private static void fillMethodResult(final JsonObject json, final MethodResult methodResult, final Map<MethodResult, String> subResourceClasses) {
+        if (json.containsKey("signature"))
+            methodResult.setOriginalMethodSignature(toIdentifier(json.getJsonObject("signature")));
+        if (json.containsKey("httpMethod"))
+            methodResult.setHttpMethod(HttpMethod.valueOf(json.getString("httpMethod")));
+        methodResult.setPath(json.getString("path", null));
+        methodResult.setRequestBodyType(json.getString("requestBodyType", null));
+        methodResult.setDeprecated(json.getBoolean("deprecated"));
+        json.getJsonArray("requestMediaTypes").getValuesAs(JsonString.class).stream().map(JsonString::getString).forEach(methodResult.getRequestMediaTypes()::add);
+        json.getJsonArray("responseMediaTypes").getValuesAs(JsonString.class).stream().map(JsonString::getString).forEach(methodResult.getResponseMediaTypes()::add);
+        json.getJsonArray("methodParameters").getValuesAs(JsonObject.class).stream().map(ClassResultMapper::toParameter).forEach(methodResult.getMethodParameters()::add);
+        json.getJsonArray("responses").getValuesAs(JsonObject.class).stream().map(ClassResultMapper::toResponse).forEach(methodResult.getResponses()::add);
+
+        if (json.getBoolean("subResourceLocator")) {
+            methodResult.setSubResource(new ClassResult());
+            if (json.containsKey("subResourceClass"))
+                subResourceClasses.put(methodResult, json.getString("subResourceClass"));
+        }
+    }
+
+    private static JsonObject toJson(final MethodIdentifier identifier) {
+        return Json.createObjectBuilder()
+                .add("containingClass", identifier.getContainingClass())
+                .add("methodName", identifier.getMethodName())
+                .add("signature", identifier.getSignature())
+                .add("static", identifier.isStaticMethod())
+                .build();
+    }
+
+    private static MethodIdentifier toIdentifier(final JsonObject json) {
+        return MethodIdentifier.of(json.getString("containingClass"), json.getString("methodName"), json.getString("signature"), json.getBoolean("static"));
+    }
+
+    private static JsonObject toJson(final MethodParameter parameter) {
+        if (parameter.getType().getType().startsWith(TypeIdentifier.DYNAMIC_TYPE_PREFIX))
+            throw new IllegalArgumentException("Dynamic parameter types can't be mapped");
+
+        final JsonObjectBuilder builder = Json.createObjectBuilder().add("type", parameter.getType().getType());
+        if (parameter.getParameterType() != null)
+            builder.add("parameterType", parameter.getParameterType().name());
+        addIfNotNull(builder, "name", parameter.getName());
+        addIfNotNull(builder, "defaultValue", parameter.getDefaultValue());
+        return builder.build();
+    }
+
+    private static MethodParameter toParameter(final JsonObject json) {
+        final MethodParameter parameter = new MethodParameter(TypeIdentifier.ofType(json.getString("type")));
+        if (json.containsKey("parameterType"))
+            parameter.setParameterType(ParameterType.valueOf(json.getString("parameterType")));
+        parameter.setName(json.getString("name", null));
+        parameter.setDefaultValue(json.getString("defaultValue", null));
+        return parameter;
+    }
+
+    private static JsonObject toJson(final HttpResponse response) {
+        return Json.createObjectBuilder()
+                .add("statuses", toJson(response.getStatuses(), Json::createValue))
+                .add("headers", toJson(response.getHeaders(), Json::createValue))
+                .add("contentTypes", toJson(response.getContentTypes(), Json::createValue))
+                .add("entityTypes", toJson(response.getEntityTypes(), Json::createValue))
+                .add("inlineEntities", toJson(response.getInlineEntities(), ClassResultMapper::toJson))
+                .build();
+    }
+
+    private static HttpResponse toResponse(final JsonObject json) {
+        final HttpResponse response = new HttpResponse();
+        json.getJsonArray("statuses").getValuesAs(JsonNumber.class).stream().map(JsonNumber::intValueExact).forEach(response.getStatuses()::add);
+        json.getJsonArray("headers").getValuesAs(JsonString.class).stream().map(JsonString::getString).forEach(response.getHeaders()::add);
+        json.getJsonArray("contentTypes").getValuesAs(JsonString.class).stream().map(JsonString::getString).forEach(response.getContentTypes()::add);
+        json.getJsonArray("entityTypes").getValuesAs(JsonString.class).stream().map(JsonString::getString).forEach(response.getEntityTypes()::add);
+        json.getJsonArray("inlineEntities").getValuesAs(JsonObject.class).stream().map(ClassResultMapper::toJsonValue).forEach(response.getInlineEntities()::add);
+        return response;
+    }
+
+    private static JsonObject toJson(final com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonValue jsonValue) {
+        if (jsonValue instanceof com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonObject) {
+            final JsonObjectBuilder structure = Json.createObjectBuilder();
+            ((com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonObject) jsonValue).getStructure()
+                    .forEach((key, element) -> structure.add(key, toJson(element)));
+            return Json.createObjectBuilder().add("object", structure).build();
+        }
+        if (jsonValue instanceof com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonArray)
+            return Json.createObjectBuilder()
+                    .add("array", toJson(((com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonArray) jsonValue).getElements(), ClassResultMapper::toJson))
+                    .build();
+        throw new IllegalArgumentException("Unsupported JSON value " + jsonValue);
+    }
+
+    private static com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonValue toJsonValue(final JsonObject json) {
+        if (json.containsKey("object")) {
+            final com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonObject jsonObject = new com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonObject();
+            json.getJsonObject("object").forEach((key, element) -> jsonObject.getStructure().put(key, toElement((JsonObject) element)));
+            return jsonObject;
+        }
+        final com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonArray jsonArray = new com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonArray();
+        json.getJsonArray("array").getValuesAs(JsonObject.class).stream().map(ClassResultMapper::toElement).forEach(jsonArray.getElements()::add);
+        return jsonArray;
+    }
+
+    private static JsonObject toJson(final Element element) {
+        return Json.createObjectBuilder()
+                .add("types", toJson(element.getTypes(), Json::createValue))
+                .add("values", toJson(element.getPossibleValues(), ClassResultMapper::toJson))
+                .build();
+    }
+
+    private static Element toElement(final JsonObject json) {
+        final Element element = new Element(json.getJsonArray("types").getValuesAs(JsonString.class).stream()
+                .map(JsonString::getString).collect(Collectors.toSet()));
+        json.getJsonArray("values").forEach(v -> element.getPossibleValues().add(toPossibleValue(v)));
+        return element;
+    }
+
+    /**
+     * Maps a possible value of an element; the Java type is retained as the values are compared by equality.
+     */
+    private static JsonValue toJson(final Object value) {
+        if (value == null)
+            return JsonValue.NULL;
+        if (value instanceof com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonValue)
+            return toJson((com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonValue) value);
+
+        final JsonObjectBuilder builder = Json.createObjectBuilder();
+        if (value instanceof String)
+            builder.add("string", (String) value);
+        else if (value instanceof Integer)
+            builder.add("int", (Integer) value);
+        else if (value instanceof Long)
+            builder.add("long", (Long) value);
+        else if (value instanceof Double)
+            builder.add("double", Double.doubleToRawLongBits((Double) value));
+        else if (value instanceof Float)
+            builder.add("float", Float.floatToRawIntBits((Float) value));
+        else if (value instanceof Boolean)
+            builder.add("boolean", (Boolean) value);
+        else
+            throw new IllegalArgumentException("Unsupported value " + value + " of type " + value.getClass().getName());
+        return builder.build();
+    }
+
+    private static Object toPossibleValue(final JsonValue json) {
+        if (json.getValueType() == JsonValue.ValueType.NULL)
+            return null;
+
+        final JsonObject jsonObject = (JsonObject) json;
+        if (jsonObject.containsKey("object") || jsonObject.containsKey("array"))
+            return toJsonValue(jsonObject);
+        if (jsonObject.containsKey("string"))
+            return jsonObject.getString("string");
+        if (jsonObject.containsKey("int"))
+            return jsonObject.getJsonNumber("int").intValueExact();
+        if (jsonObject.containsKey("long"))
+            return jsonObject.getJsonNumber("long").longValueExact();
+        if (jsonObject.containsKey("double"))
+            return Double.longBitsToDouble(jsonObject.getJsonNumber("double").longValueExact());
+        if (jsonObject.containsKey("float"))
+            return Float.intBitsToFloat(jsonObject.getJsonNumber("float").intValueExact());
+        return jsonObject.getBoolean("boolean");
+    }
+
+    private static <T> JsonArray toJson(final Collection<T> values, final Function<T, JsonValue> mapper) {
+        final JsonArrayBuilder builder = Json.createArrayBuilder();
+        values.stream().map(mapper).forEach(builder::add);
+        return builder.build();
+    }
+
+    private static void addIfNotNull(final JsonObjectBuilder builder, final String key, final String value) {
+        if (value != null)
+            builder.add(key, value);
+    }
+
+}
@@ -0,0 +1,459 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
+import com.sebastian_daschner.jaxrs_analyzer.model.Types;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.objectweb.asm.Opcodes.ASM5;
+
+/**
+ * An index of the JAX-RS annotations of the project classes, which replaces the scanning of all class files.
+ * For every indexed class the index contains its class-level JAX-RS annotations.
+ * <p>
+ * The index is stored in a compact binary format: a header, a table of all strings, the classes referencing the string table
+ * and the fingerprint of the class files it has been created from, i.e. their names, sizes and CRC-32 checksums.
+ * Project paths (directories, jar-files or archives) which contain an up-to-date index at {@link #LOCATION} are not scanned;
+ * if their class files don't match the fingerprint, the index is ignored.
+ * This class is immutable.
+ *
+ * @author Sebastian Daschner
+ */
+public class AnnotationIndex {
+
+    /**
+     * The location of the index within a project path.
+     */
+    public static final String LOCATION = "META-INF/jaxrs-analyzer.idx";
+
+    private static final int MAGIC = 0x4A584958;
+    private static final int FORMAT_VERSION = 2;
+    private static final String JAXRS_DESCRIPTOR_PREFIX = "Ljavax/ws/rs/";
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private final SortedMap<String, IndexedClass> classes;
+    private final SortedMap<String, ClassFileChecksum> classFiles;
+
+    private AnnotationIndex(final SortedMap<String, IndexedClass> classes, final SortedMap<String, ClassFileChecksum> classFiles) {
+        this.classes = Collections.unmodifiableSortedMap(classes);
+        this.classFiles = Collections.unmodifiableSortedMap(classFiles);
+    }
+
+    /**
+     * Returns the fully-qualified names of all indexed classes.
+     */
+    public Set<String> getClassNames() {
+        return classes.keySet();
+    }
+
+    /**
+     * Returns the indexed class.
+     *
+     * @param className The fully-qualified class name
+     * @return The indexed class or {@code null} if the class doesn't reference the JAX-RS API
+     */
+    public IndexedClass get(final String className) {
+        return classes.get(className);
+    }
+
+    /**
+     * Returns the root resource (or application) classes, i.e. the classes which are annotated with {@code @Path} or {@code @ApplicationPath}.
+     *
+     * @return The sorted fully-qualified class names
+     */
+    public SortedSet<String> getRootResources() {
+        return classes.values().stream().filter(IndexedClass::isRootResource).map(IndexedClass::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Reads the index of the given project path, if it contains one which matches the class files of the project path.
+     *
+     * @param projectPath The directory, jar-file or archive
+     * @return The index or {@code null} if the project path contains no index or the index is outdated
+     * @throws IOException If the index could not be read
+     */
+    public static AnnotationIndex find(final Path projectPath) throws IOException {
+        if (Files.isDirectory(projectPath)) {
+            final Path file = projectPath.resolve(LOCATION);
+            if (!Files.isRegularFile(file))
+                return null;
+            final AnnotationIndex index = read(file);
+            return index.matches(Collections.singleton(projectPath), Files.getLastModifiedTime(file)) ? index : outdated(projectPath);
+        }
+
+        try (final ClassPathIndex.Archive archive = ClassPathIndex.openArchive(projectPath)) {
+            for (final ClassPathIndex.Location location : archive.getLocations()) {
+                if (location.isProjectEntry() && LOCATION.equals(location.getName())) {
+                    final AnnotationIndex index = read(new ByteArrayInputStream(location.read()));
+                    return index.classFiles.equals(readArchiveChecksums(archive)) ? index : outdated(projectPath);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static AnnotationIndex outdated(final Path projectPath) {
+        LogProvider.info("The annotation index of " + projectPath + " doesn't match the class files and is ignored");
+        return null;
+    }
+
+    /**
+     * Checks whether the index matches the current class files of the given project paths, e.g. of an index which has been created for the whole project.
+     * The class files of directories which have not been modified after the index are compared by their names and sizes only.
+     *
+     * @param projectPaths  The directories, jar-files or archives which have been indexed
+     * @param indexModified The modification time of the index
+     * @return {@code true} if the index matches the class files
+     * @throws IOException If the class files could not be read
+     */
+    public boolean matches(final Collection<Path> projectPaths, final FileTime indexModified) throws IOException {
+        int classFileCount = 0;
+        for (final Path projectPath : projectPaths) {
+            if (Files.isDirectory(projectPath)) {
+                final List<Path> files = listClassFiles(projectPath);
+                classFileCount += files.size();
+                if (!matchesDirectory(projectPath, files, indexModified))
+                    return false;
+            } else {
+                final SortedMap<String, ClassFileChecksum> checksums = readArchiveChecksums(projectPath);
+                classFileCount += checksums.size();
+                if (!checksums.entrySet().stream().allMatch(e -> e.getValue().equals(classFiles.get(e.getKey()))))
+                    return false;
+            }
+        }
+        return classFileCount == classFiles.size();
+    }
+
+    /**
+     * Checks the class files of the directory against the fingerprint. Only the class files which have been modified after
+     * (or together with) the index are read, the others are compared by their names and sizes.
+     */
+    private boolean matchesDirectory(final Path directory, final List<Path> files, final FileTime indexModified) throws IOException {
+        for (final Path file : files) {
+            final ClassFileChecksum checksum = classFiles.get(toResourceName(directory, file));
+            if (checksum == null || checksum.size != Files.size(file))
+                return false;
+            if (Files.getLastModifiedTime(file).compareTo(indexModified) >= 0 && checksum.crc != crc(Files.readAllBytes(file)))
+                return false;
+        }
+        return true;
+    }
+
+    private static SortedMap<String, ClassFileChecksum> readChecksums(final Path projectPath) throws IOException {
+        if (!Files.isDirectory(projectPath))
+            return readArchiveChecksums(projectPath);
+
+        final SortedMap<String, ClassFileChecksum> checksums = new TreeMap<>();
+        for (final Path file : listClassFiles(projectPath)) {
+            final byte[] bytes = Files.readAllBytes(file);
+            checksums.put(toResourceName(projectPath, file), new ClassFileChecksum(bytes.length, crc(bytes)));
+        }
+        return checksums;
+    }
+
+    private static SortedMap<String, ClassFileChecksum> readArchiveChecksums(final Path projectPath) throws IOException {
+        try (final ClassPathIndex.Archive archive = ClassPathIndex.openArchive(projectPath)) {
+            return readArchiveChecksums(archive);
+        }
+    }
+
+    private static SortedMap<String, ClassFileChecksum> readArchiveChecksums(final ClassPathIndex.Archive archive) {
+        final SortedMap<String, ClassFileChecksum> checksums = new TreeMap<>();
+        archive.getLocations().stream().filter(ClassPathIndex.Location::isProjectEntry).filter(l -> l.getName().endsWith(CLASS_FILE_EXTENSION))
+                .forEach(l -> checksums.put(l.getName(), new ClassFileChecksum(l.getSize(), l.getCrc())));
+        return checksums;
+    }
+
+    private static List<Path> listClassFiles(final Path directory) throws IOException {
+        try (final Stream<Path> files = Files.walk(directory)) {
+            return files.filter(f -> f.toString().endsWith(CLASS_FILE_EXTENSION)).filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    private static String toResourceName(final Path directory, final Path file) {
+        return directory.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    private static long crc(final byte[] bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    public static AnnotationIndex read(final Path file) throws IOException {
+        try (final InputStream stream = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(stream);
+        }
+    }
+
+    /**
+     * Reads an index. The stream is not closed.
+     *
+     * @param stream The binary index
+     * @return The index
+     * @throws IOException If the stream could not be read or doesn't contain a valid index
+     */
+    public static AnnotationIndex read(final InputStream stream) throws IOException {
+        final DataInputStream input = new DataInputStream(stream);
+        if (input.readInt() != MAGIC)
+            throw new IOException("Not an annotation index");
+        final int version = input.readUnsignedShort();
+        if (version != FORMAT_VERSION)
+            throw new IOException("Unsupported annotation index version " + version);
+
+        final String[] strings = new String[input.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = input.readUTF();
+        }
+
+        try {
+            final SortedMap<String, IndexedClass> classes = new TreeMap<>();
+            final int classCount = input.readInt();
+            for (int i = 0; i < classCount; i++) {
+                final String name = strings[input.readInt()];
+                classes.put(name, new IndexedClass(name, readStrings(input, strings)));
+            }
+
+            final SortedMap<String, ClassFileChecksum> classFiles = new TreeMap<>();
+            final int classFileCount = input.readInt();
+            for (int i = 0; i < classFileCount; i++) {
+                classFiles.put(strings[input.readInt()], new ClassFileChecksum(input.readLong(), input.readInt() & 0xFFFFFFFFL));
+            }
+            return new AnnotationIndex(classes, classFiles);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Invalid annotation index", e);
+        }
+    }
+
+    private static List<String> readStrings(final DataInputStream input, final String[] strings) throws IOException {
+        final String[] values = new String[input.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = strings[input.readInt()];
+        }
+        return Arrays.asList(values);
+    }
+
+    public void write(final Path file) throws IOException {
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+        try (final OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(stream);
+        }
+    }
+
+    /**
+     * Writes the index in the binary format. The stream is flushed but not closed.
+     *
+     * @param stream The output stream
+     * @throws IOException If the index could not be written
+     */
+    public void write(final OutputStream stream) throws IOException {
+        final Map<String, Integer> stringIndices = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        final Consumer<String> addString = s -> stringIndices.computeIfAbsent(s, k -> {
+            strings.add(k);
+            return strings.size() - 1;
+        });
+        classes.values().forEach(c -> {
+            addString.accept(c.name);
+            c.annotations.forEach(addString);
+        });
+        classFiles.keySet().forEach(addString);
+
+        final DataOutputStream output = new DataOutputStream(stream);
+        output.writeInt(MAGIC);
+        output.writeShort(FORMAT_VERSION);
+        output.writeInt(strings.size());
+        for (final String string : strings) {
+            output.writeUTF(string);
+        }
+
+        output.writeInt(classes.size());
+        for (final IndexedClass indexedClass : classes.values()) {
+            output.writeInt(stringIndices.get(indexedClass.name));
+            writeStrings(output, indexedClass.annotations, stringIndices);
+        }
+
+        output.writeInt(classFiles.size());
+        for (final Map.Entry<String, ClassFileChecksum> classFile : classFiles.entrySet()) {
+            output.writeInt(stringIndices.get(classFile.getKey()));
+            output.writeLong(classFile.getValue().size);
+            output.writeInt((int) classFile.getValue().crc);
+        }
+        output.flush();
+    }
+
+    private static void writeStrings(final DataOutputStream output, final List<String> values, final Map<String, Integer> stringIndices) throws IOException {
+        output.writeInt(values.size());
+        for (final String value : values) {
+            output.writeInt(stringIndices.get(value));
+        }
+    }
+
+    /**
+     * A class of the index.
+     */
+    public static class IndexedClass {
+
+        private final String name;
+        private final List<String> annotations;
+
+        private IndexedClass(final String name, final List<String> annotations) {
+            this.name = name;
+            this.annotations = Collections.unmodifiableList(annotations);
+        }
+
+        /**
+         * Returns the fully-qualified class name, e.g. {@code com.example.Resource}.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the type descriptors of the JAX-RS annotations of the class, e.g. {@code Ljavax/ws/rs/Path;}.
+         */
+        public List<String> getAnnotations() {
+            return annotations;
+        }
+
+        public boolean isRootResource() {
+            return annotations.contains(Types.PATH) || annotations.contains(Types.APPLICATION_PATH);
+        }
+
+    }
+
+    /**
+     * The size and CRC-32 checksum of a class file.
+     */
+    private static class ClassFileChecksum {
+
+        private final long size;
+        private final long crc;
+
+        private ClassFileChecksum(final long size, final long crc) {
+            this.size = size;
+            this.crc = crc;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final ClassFileChecksum that = (ClassFileChecksum) o;
+            return size == that.size && crc == that.crc;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, crc);
+        }
+
+    }
+
+    /**
+     * Creates an index from class files. This class is not thread-safe.
+     */
+    public static class Builder {
+
+        /**
+         * The flags to accept the class reader with, as only the annotations are relevant.
+         */
+        public static final int PARSING_OPTIONS = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+
+        private final SortedMap<String, IndexedClass> classes = new TreeMap<>();
+        private final SortedMap<String, ClassFileChecksum> classFiles = new TreeMap<>();
+
+        /**
+         * Adds the class which is read by the class reader.
+         *
+         * @param classReader The class reader
+         * @return This builder
+         */
+        public Builder add(final ClassReader classReader) {
+            final IndexingClassVisitor visitor = new IndexingClassVisitor();
+            classReader.accept(visitor, PARSING_OPTIONS);
+            final IndexedClass indexedClass = visitor.toIndexedClass();
+            classes.put(indexedClass.name, indexedClass);
+            return this;
+        }
+
+        /**
+         * Adds the fingerprint of all class files of the project path, which is checked when the index is found in the project path.
+         * The index is only used for a project path which class files equal the added ones.
+         *
+         * @param projectPath The directory, jar-file or archive
+         * @return This builder
+         * @throws IOException If the class files could not be read
+         */
+        public Builder addClassFiles(final Path projectPath) throws IOException {
+            classFiles.putAll(readChecksums(projectPath));
+            return this;
+        }
+
+        public AnnotationIndex build() {
+            return new AnnotationIndex(new TreeMap<>(classes), new TreeMap<>(classFiles));
+        }
+
+    }
+
+    private static class IndexingClassVisitor extends ClassVisitor {
+
+        private final List<String> annotations = new ArrayList<>();
+        private String name;
+
+        IndexingClassVisitor() {
+            super(ASM5);
+        }
+
+        @Override
+        public void visit(final int version, final int access, final String name, final String signature, final String superName, final String[] interfaces) {
+            this.name = name.replace('/', '.');
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(final String desc, final boolean visible) {
+            if (desc.startsWith(JAXRS_DESCRIPTOR_PREFIX))
+                annotations.add(desc);
+            return null;
+        }
+
+        IndexedClass toIndexedClass() {
+            return new IndexedClass(name, annotations);
+        }
+
+    }
+
+}
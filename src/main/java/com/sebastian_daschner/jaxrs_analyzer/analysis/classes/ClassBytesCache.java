@@ -0,0 +1,158 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caches the bytes of class files which are read from a {@link ClassLoader}.
+ * The cache is bounded by the total size of the contained class files, the least recently used entries are evicted first.
+ * This class is thread-safe.
+ *
+ * @author Sebastian Daschner
+ */
+public class ClassBytesCache {
+
+    /**
+     * The default maximum total size of the cached class files (64 MB).
+     */
+    public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+    private final Lock lock = new ReentrantLock();
+    private final Map<String, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile ClassLoader classLoader;
+    private final long maxSize;
+    private long size;
+
+    public ClassBytesCache(final ClassLoader classLoader, final long maxSize) {
+        this.classLoader = classLoader;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the bytes of the given class file. The returned array must not be modified.
+     *
+     * @param className The fully-qualified class name (either with dots or slashes)
+     * @return The class file contents
+     * @throws IOException If the class file could not be found or read
+     */
+    public byte[] get(final String className) throws IOException {
+        final String resourceName = className.replace('.', '/') + ".class";
+
+        lock.lock();
+        try {
+            final byte[] bytes = entries.get(resourceName);
+            if (bytes != null) {
+                hits.incrementAndGet();
+                return bytes;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        misses.incrementAndGet();
+        final byte[] bytes = read(resourceName);
+
+        lock.lock();
+        try {
+            if (bytes.length <= maxSize && entries.put(resourceName, bytes) == null) {
+                size += bytes.length;
+                evict();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Reads the class files from the given class loader from now on, e.g. after the project classes have been reloaded.
+     * The entries of the given classes are removed, the entries of all other classes are kept.
+     *
+     * @param classLoader The class loader
+     * @param classNames  The fully-qualified class names (either with dots or slashes)
+     */
+    public void reload(final ClassLoader classLoader, final Collection<String> classNames) {
+        lock.lock();
+        try {
+            this.classLoader = classLoader;
+            for (final String className : classNames) {
+                final byte[] bytes = entries.remove(className.replace('.', '/') + ".class");
+                if (bytes != null)
+                    size -= bytes.length;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            size = 0;
+            hits.set(0);
+            misses.set(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the total size of the currently cached class files.
+     *
+     * @return The size in bytes
+     */
+    public long getSize() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evict() {
+        final Iterator<byte[]> iterator = entries.values().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            size -= iterator.next().length;
+            iterator.remove();
+        }
+    }
+
+    private byte[] read(final String resourceName) throws IOException {
+        try (final InputStream stream = classLoader.getResourceAsStream(resourceName)) {
+            if (stream == null)
+                throw new IOException("Class not found: " + resourceName);
+
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = stream.read(buffer)) != -1)
+                output.write(buffer, 0, read);
+            return output.toByteArray();
+        }
+    }
+
+}
@@ -0,0 +1,379 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Indexes the entries of jar-files by their names, so that a resource is found with a single lookup instead of searching every jar.
+ * The jar-files are mapped into memory (see {@link MappedZipFile}) and released on {@link #close()}.
+ * <p>
+ * Web and enterprise archives as well as Spring Boot jars are indexed without extracting them:
+ * the classes in {@code WEB-INF/classes/} or {@code BOOT-INF/classes/} are indexed by their class names,
+ * the nested library jars in {@code WEB-INF/lib/} or {@code BOOT-INF/lib/}, the library jars in {@code lib/} of an EAR and its modules are indexed as well.
+ * Stored nested jars are read from the mapping of the outer archive, compressed ones are inflated into memory.
+ * The indexes of the jar-files can be shared with other class path indexes (see {@link JarIndexCache}).
+ * This class is thread-safe.
+ *
+ * @author Sebastian Daschner
+ */
+public class ClassPathIndex implements Closeable {
+
+    private static final List<String> CLASSES_DIRECTORIES = Arrays.asList("WEB-INF/classes/", "BOOT-INF/classes/");
+    private static final List<String> LIBRARY_DIRECTORIES = Arrays.asList("WEB-INF/lib/", "WEB-INF/lib-provided/", "BOOT-INF/lib/");
+    private static final String EAR_LIBRARY_DIRECTORY = "lib/";
+
+    private final Map<String, List<Location>> locations = new ConcurrentHashMap<>();
+    private final Queue<MappedZipFile> zipFiles = new ConcurrentLinkedQueue<>();
+    private final Queue<JarIndexCache.Entry> sharedJarIndexes = new ConcurrentLinkedQueue<>();
+    private final JarIndexCache jarIndexCache;
+
+    /**
+     * Creates an index which maps and indexes the jar-files itself.
+     */
+    public ClassPathIndex() {
+        this(null);
+    }
+
+    /**
+     * Creates an index which takes the indexes of the jar-files from the given cache.
+     *
+     * @param jarIndexCache The shared indexes of jar-files or {@code null}
+     */
+    public ClassPathIndex(final JarIndexCache jarIndexCache) {
+        this.jarIndexCache = jarIndexCache;
+    }
+
+    /**
+     * Adds the entries of the given jar-files. The jar-files are read in parallel;
+     * entries which are contained in several jar-files are kept in class path order.
+     * Jar-files which can't be read are ignored, as by a {@link java.net.URLClassLoader}.
+     *
+     * @param jarFiles The jar-files in class path order
+     */
+    public void addAll(final List<Path> jarFiles) {
+        final List<Map<String, List<Location>>> jarLocations = jarFiles.parallelStream().map(this::index).collect(Collectors.toList());
+        jarLocations.forEach(l -> l.forEach((name, nameLocations) -> locations.merge(name, nameLocations, ClassPathIndex::concat)));
+    }
+
+    private static List<Location> concat(final List<Location> first, final List<Location> second) {
+        final List<Location> locations = new ArrayList<>(first.size() + second.size());
+        locations.addAll(first);
+        locations.addAll(second);
+        return Collections.unmodifiableList(locations);
+    }
+
+    private Map<String, List<Location>> index(final Path jarFile) {
+        try {
+            if (jarIndexCache != null) {
+                final JarIndexCache.Entry entry = jarIndexCache.acquire(jarFile);
+                sharedJarIndexes.add(entry);
+                return entry.getLocations();
+            }
+
+            final MappedZipFile zipFile = MappedZipFile.open(jarFile);
+            zipFiles.add(zipFile);
+            return groupByName(readArchive(zipFile, jarFile));
+        } catch (IOException e) {
+            LogProvider.debug("Could not index the jar-file " + jarFile + ", reason: " + e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Groups the locations of a jar-file by their names, keeping their order.
+     */
+    static Map<String, List<Location>> groupByName(final List<Location> archiveLocations) {
+        final Map<String, List<Location>> jarLocations = new HashMap<>();
+        for (final Location location : archiveLocations) {
+            jarLocations.computeIfAbsent(location.getName(), n -> new ArrayList<>(1)).add(location);
+        }
+        jarLocations.replaceAll((name, nameLocations) -> Collections.unmodifiableList(nameLocations));
+        return Collections.unmodifiableMap(jarLocations);
+    }
+
+    /**
+     * Opens the given jar-file or archive and reads its entries including its nested jar-files.
+     * The archive has to be closed, which releases its mapping; the locations can't be read afterwards.
+     *
+     * @param archive The jar-file, WAR, EAR or Spring Boot jar
+     * @return The opened archive
+     * @throws IOException If the archive or one of its nested jar-files could not be read
+     */
+    public static Archive openArchive(final Path archive) throws IOException {
+        final MappedZipFile zipFile = MappedZipFile.open(archive);
+        try {
+            return new Archive(zipFile, readArchive(zipFile, archive));
+        } catch (IOException | RuntimeException e) {
+            zipFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the entries of the given jar-file or archive including its nested jar-files, in class path order:
+     * the project entries (e.g. {@code WEB-INF/classes/}) precede the library entries (e.g. {@code WEB-INF/lib/*.jar}).
+     */
+
+    static List<Location> readArchive(final MappedZipFile zipFile, final Path archive) throws IOException {
+        final URL url = archive.toUri().toURL();
+        final List<Location> projectLocations = new ArrayList<>();
+        final List<Location> libraryLocations = new ArrayList<>();
+        readArchive(zipFile, url, url.toString(), true, projectLocations, libraryLocations);
+
+        projectLocations.addAll(libraryLocations);
+        return projectLocations;
+    }
+
+    private static void readArchive(final MappedZipFile zipFile, final URL archiveUrl, final String path, final boolean project,
+                                    final List<Location> projectLocations, final List<Location> libraryLocations) throws IOException {
+        for (final MappedZipFile.Entry entry : zipFile.getEntries()) {
+            final String name = entry.getName();
+            final List<Location> locations = project ? projectLocations : libraryLocations;
+
+            final String classesDirectory = findDirectory(name, CLASSES_DIRECTORIES);
+            if (classesDirectory != null) {
+                locations.add(new Location(archiveUrl, path, zipFile, entry, name.substring(classesDirectory.length()), project));
+            } else if (isLibrary(zipFile, name)) {
+                readNestedArchive(zipFile, entry, archiveUrl, path, false, projectLocations, libraryLocations);
+            } else if (isModule(zipFile, name)) {
+                readNestedArchive(zipFile, entry, archiveUrl, path, project, projectLocations, libraryLocations);
+            } else {
+                locations.add(new Location(archiveUrl, path, zipFile, entry, name, project));
+            }
+        }
+    }
+
+    private static void readNestedArchive(final MappedZipFile zipFile, final MappedZipFile.Entry entry, final URL archiveUrl, final String path,
+                                          final boolean project, final List<Location> projectLocations, final List<Location> libraryLocations) {
+        try {
+            readArchive(zipFile.openNested(entry), archiveUrl, path + "!/" + entry.getName(), project, projectLocations, libraryLocations);
+        } catch (IOException e) {
+            LogProvider.debug("Could not index the nested jar-file " + entry.getName() + " of " + zipFile.getName() + ", reason: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns {@code true} if the entry is a library jar-file of a web archive, Spring Boot jar or enterprise archive.
+     * The {@code lib/} directory only contains libraries in an EAR, as it is a regular package in other jar-files.
+     */
+    private static boolean isLibrary(final MappedZipFile zipFile, final String name) {
+        return isJarFile(name) && (findDirectory(name, LIBRARY_DIRECTORIES) != null || isEnterpriseArchive(zipFile) && name.startsWith(EAR_LIBRARY_DIRECTORY));
+    }
+
+    /**
+     * Returns {@code true} if the entry is a module of an enterprise archive, i.e. a jar-file or WAR in the root of an EAR.
+     */
+    private static boolean isModule(final MappedZipFile zipFile, final String name) {
+        return isEnterpriseArchive(zipFile) && (isJarFile(name) || name.endsWith(".war")) && name.indexOf('/') < 0;
+    }
+
+    private static boolean isEnterpriseArchive(final MappedZipFile zipFile) {
+        return zipFile.getName().endsWith(".ear");
+    }
+
+    private static String findDirectory(final String name, final List<String> directories) {
+        return directories.stream().filter(name::startsWith).findFirst().orElse(null);
+    }
+
+    private static boolean isJarFile(final String name) {
+        return name.endsWith(".jar");
+    }
+
+    /**
+     * Returns the first location of the given resource.
+     *
+     * @param resourceName The resource name, e.g. {@code com/example/Resource.class}
+     * @return The location or {@code null} if the resource is not contained in the indexed jar-files
+     */
+    public Location get(final String resourceName) {
+        final List<Location> nameLocations = locations.get(resourceName);
+        return nameLocations != null ? nameLocations.get(0) : null;
+    }
+
+    /**
+     * Returns all locations of the given resource, e.g. the service files of several jar-files.
+     *
+     * @param resourceName The resource name, e.g. {@code META-INF/services/javax.ws.rs.ext.Providers}
+     * @return The locations in class path order, empty if the resource is not contained in the indexed jar-files
+     */
+    public List<Location> getAll(final String resourceName) {
+        return locations.getOrDefault(resourceName, Collections.emptyList());
+    }
+
+    public int size() {
+        return locations.size();
+    }
+
+    /**
+     * Removes all entries and releases the mapped jar-files; the locations can't be read anymore.
+     * Shared jar-files are released when they are not used by other class path indexes anymore.
+     */
+    @Override
+    public void close() {
+        locations.clear();
+        MappedZipFile zipFile;
+        while ((zipFile = zipFiles.poll()) != null) {
+            zipFile.close();
+        }
+        JarIndexCache.Entry entry;
+        while ((entry = sharedJarIndexes.poll()) != null) {
+            jarIndexCache.release(entry);
+        }
+    }
+
+    /**
+     * An opened jar-file or archive, see {@link #openArchive(Path)}.
+     */
+    public static class Archive implements Closeable {
+
+        private final MappedZipFile zipFile;
+        private final List<Location> locations;
+
+        private Archive(final MappedZipFile zipFile, final List<Location> locations) {
+            this.zipFile = zipFile;
+            this.locations = Collections.unmodifiableList(locations);
+        }
+
+        /**
+         * Returns the locations of all file entries in class path order: the project entries (e.g. {@code WEB-INF/classes/})
+         * precede the library entries (e.g. {@code WEB-INF/lib/*.jar}).
+         */
+        public List<Location> getLocations() {
+            return locations;
+        }
+
+        /**
+         * Releases the mapping of the archive.
+         */
+        @Override
+        public void close() {
+            zipFile.close();
+        }
+
+    }
+
+    /**
+     * An entry of an indexed jar-file.
+     */
+    public static class Location {
+
+        private final URL jarUrl;
+        private final String path;
+        private final MappedZipFile zipFile;
+        private final MappedZipFile.Entry entry;
+        private final String name;
+        private final boolean project;
+
+        private Location(final URL jarUrl, final String path, final MappedZipFile zipFile, final MappedZipFile.Entry entry,
+                         final String name, final boolean project) {
+            this.jarUrl = jarUrl;
+            this.path = path;
+            this.zipFile = zipFile;
+            this.entry = entry;
+            this.name = name;
+            this.project = project;
+        }
+
+        /**
+         * Returns the URL of the (outermost) jar-file which contains the entry.
+         */
+        public URL getJarUrl() {
+            return jarUrl;
+        }
+
+        /**
+         * Returns the resource name of the entry, e.g. {@code com/example/Resource.class} for {@code WEB-INF/classes/com/example/Resource.class}.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns {@code true} if the entry is a project entry of the archive, i.e. not contained in a nested library jar-file.
+         */
+        public boolean isProjectEntry() {
+            return project;
+        }
+
+        /**
+         * Returns the URL of the entry itself. The URL is read from the index, also for entries of nested jar-files.
+         */
+        public URL getUrl() {
+            try {
+                return new URL(null, "jar:" + path + "!/" + entry.getName(), new LocationStreamHandler(this));
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Returns the uncompressed size of the entry.
+         */
+        public long getSize() {
+            return entry.getSize();
+        }
+
+        /**
+         * Returns the CRC-32 checksum of the entry, as stored in the jar-file.
+         */
+        public long getCrc() {
+            return entry.getCrc();
+        }
+
+        /**
+         * Reads the contents of the entry from the mapped jar-file.
+         *
+         * @return The bytes
+         * @throws IOException If the entry could not be read
+         */
+        public byte[] read() throws IOException {
+            return zipFile.read(entry);
+        }
+
+    }
+
+    private static class LocationStreamHandler extends URLStreamHandler {
+
+        private final Location location;
+
+        LocationStreamHandler(final Location location) {
+            this.location = location;
+        }
+
+        @Override
+        protected URLConnection openConnection(final URL url) {
+            return new URLConnection(url) {
+                @Override
+                public void connect() {
+                    connected = true;
+                }
+
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    return new ByteArrayInputStream(location.read());
+                }
+            };
+        }
+
+    }
+
+}
@@ -1,43 +1,29 @@
 package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
 
+import com.sebastian_daschner.jaxrs_analyzer.analysis.AnalysisContext;
 import org.objectweb.asm.ClassReader;
 
 import java.io.IOException;
 import java.net.URL;
-import java.net.URLClassLoader;
 
 /**
  * A {@link ClassReader} that is able to use a separate {@link ClassLoader}.
+ * The class loader and the cached class files are taken from the current {@link AnalysisContext}.
  *
  * @author Sebastian Daschner
  */
 public class ContextClassReader extends ClassReader {
 
-    private static final ExtensibleClassLoader CLASS_LOADER = new ExtensibleClassLoader();
-
     public ContextClassReader(final String className) throws IOException {
-        super(CLASS_LOADER.getResourceAsStream(className.replace('.', '/') + ".class"));
+        super(AnalysisContext.current().getClassBytesCache().get(className));
     }
 
     public static ClassLoader getClassLoader() {
-        return CLASS_LOADER;
+        return AnalysisContext.current().getClassLoader();
     }
 
     public static void addClassPath(final URL url) {
-        CLASS_LOADER.addURL(url);
-    }
-
-    private static class ExtensibleClassLoader extends URLClassLoader {
-
-        ExtensibleClassLoader() {
-            super(new URL[]{});
-        }
-
-        @Override
-        public void addURL(final URL url) {
-            super.addURL(url);
-        }
-
+        AnalysisContext.current().addClassPath(url);
     }
 
 }
@@ -0,0 +1,258 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A {@link URLClassLoader} to which class path locations can be added.
+ * The entries of added jar-files are indexed by their names (see {@link ClassPathIndex}), so that classes and resources are found
+ * with a single lookup instead of searching every jar-file; directories are looked up in the file system.
+ * Classes and resources are resolved in class path order, regardless whether they are contained in jar-files or directories.
+ * Locations which are neither files nor directories are searched after them, by the {@link URLClassLoader}.
+ *
+ * @author Sebastian Daschner
+ */
+public class ExtensibleClassLoader extends URLClassLoader {
+
+    private final ClassPathIndex classPathIndex;
+    private final List<URL> urls = new CopyOnWriteArrayList<>();
+    private final Map<URL, Integer> jarPositions = new ConcurrentHashMap<>();
+    private final List<Directory> directories = new CopyOnWriteArrayList<>();
+    private final Map<URL, ProtectionDomain> protectionDomains = new ConcurrentHashMap<>();
+
+    public ExtensibleClassLoader(final ClassLoader parent) {
+        this(parent, null);
+    }
+
+    /**
+     * Creates a class loader which takes the indexes of the jar-files from the given cache.
+     *
+     * @param parent        The parent class loader
+     * @param jarIndexCache The shared indexes of jar-files or {@code null}
+     */
+    public ExtensibleClassLoader(final ClassLoader parent, final JarIndexCache jarIndexCache) {
+        super(new URL[]{}, parent);
+        classPathIndex = new ClassPathIndex(jarIndexCache);
+    }
+
+    @Override
+    public void addURL(final URL url) {
+        addURLs(Collections.singletonList(url));
+    }
+
+    /**
+     * Adds the class path locations. The jar-files are indexed in parallel.
+     *
+     * @param urls The locations in class path order
+     */
+    public synchronized void addURLs(final Collection<URL> urls) {
+        final List<Path> jarFiles = new ArrayList<>();
+        for (final URL url : urls) {
+            if (this.urls.contains(url))
+                continue;
+
+            final int position = this.urls.size();
+            this.urls.add(url);
+            final Path path = toPath(url);
+            if (path != null && Files.isRegularFile(path)) {
+                final Path jarFile = path.toAbsolutePath().normalize();
+                jarFiles.add(jarFile);
+                // the index identifies the jar-files by their path URLs
+                jarPositions.put(toURL(jarFile), position);
+            } else {
+                if (path != null)
+                    directories.add(new Directory(position, path));
+                super.addURL(url);
+            }
+        }
+        classPathIndex.addAll(jarFiles);
+    }
+
+    /**
+     * Returns the added locations in class path order.
+     */
+    @Override
+    public URL[] getURLs() {
+        return urls.toArray(new URL[0]);
+    }
+
+    @Override
+    protected Class<?> findClass(final String name) throws ClassNotFoundException {
+        final ClassPathIndex.Location location = findLocation(name.replace('.', '/') + ".class");
+        if (location == null)
+            return super.findClass(name);
+
+        final byte[] bytes;
+        try {
+            bytes = location.read();
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+
+        definePackage(name);
+        return defineClass(name, bytes, 0, bytes.length, protectionDomains.computeIfAbsent(location.getJarUrl(),
+                u -> new ProtectionDomain(new CodeSource(u, (CodeSigner[]) null), null, this, null)));
+    }
+
+    private void definePackage(final String className) {
+        final int lastDot = className.lastIndexOf('.');
+        if (lastDot < 0)
+            return;
+
+        final String packageName = className.substring(0, lastDot);
+        if (getPackage(packageName) == null) {
+            try {
+                definePackage(packageName, null, null, null, null, null, null, null);
+            } catch (IllegalArgumentException e) {
+                // the package has been defined concurrently
+            }
+        }
+    }
+
+    /**
+     * Returns the first indexed location of the resource, unless a preceding directory contains the resource.
+     *
+     * @return The location or {@code null} if the resource has to be searched by the {@link URLClassLoader}
+     */
+    private ClassPathIndex.Location findLocation(final String name) {
+        final ClassPathIndex.Location location = classPathIndex.get(name);
+        if (location == null)
+            return null;
+
+        final int position = jarPositions.get(location.getJarUrl());
+        for (final Directory directory : directories) {
+            if (directory.position > position)
+                break;
+            if (directory.contains(name))
+                return null;
+        }
+        return location;
+    }
+
+    @Override
+    public URL findResource(final String name) {
+        final ClassPathIndex.Location location = findLocation(name);
+        return location != null ? location.getUrl() : super.findResource(name);
+    }
+
+    @Override
+    public Enumeration<URL> findResources(final String name) throws IOException {
+        final List<ClassPathIndex.Location> locations = classPathIndex.getAll(name);
+        if (locations.isEmpty())
+            return super.findResources(name);
+
+        final List<URL> resources = new ArrayList<>();
+        final Directory[] directories = this.directories.toArray(new Directory[0]);
+        int directory = 0;
+        for (final ClassPathIndex.Location location : locations) {
+            final int position = jarPositions.get(location.getJarUrl());
+            for (; directory < directories.length && directories[directory].position < position; directory++) {
+                addResource(directories[directory], name, resources);
+            }
+            resources.add(location.getUrl());
+        }
+        for (; directory < directories.length; directory++) {
+            addResource(directories[directory], name, resources);
+        }
+
+        // the other locations are searched by the URLClassLoader
+        Collections.list(super.findResources(name)).stream().filter(r -> !"file".equals(r.getProtocol())).forEach(resources::add);
+        return Collections.enumeration(resources);
+    }
+
+    private static void addResource(final Directory directory, final String name, final List<URL> resources) throws IOException {
+        if (directory.contains(name))
+            resources.add(directory.resolve(name).toUri().toURL());
+    }
+
+    /**
+     * Returns the contents of the resource; resources of indexed jar-files are read directly from the jar-file.
+     */
+    @Override
+    public InputStream getResourceAsStream(final String name) {
+        final URL parentResource = getParent() != null ? getParent().getResource(name) : null;
+        try {
+            if (parentResource != null)
+                return parentResource.openStream();
+
+            final ClassPathIndex.Location location = findLocation(name);
+            if (location != null)
+                return new ByteArrayInputStream(location.read());
+
+            final URL resource = super.findResource(name);
+            return resource != null ? resource.openStream() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            classPathIndex.close();
+        }
+    }
+
+    private static URL toURL(final Path path) {
+        try {
+            return path.toUri().toURL();
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static Path toPath(final URL url) {
+        if (!"file".equals(url.getProtocol()))
+            return null;
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A class path directory, which is looked up in the file system.
+     */
+    private static class Directory {
+
+        private final int position;
+        private final Path path;
+
+        private Directory(final int position, final Path path) {
+            this.position = position;
+            this.path = path;
+        }
+
+        private Path resolve(final String name) {
+            return path.resolve(name);
+        }
+
+        private boolean contains(final String name) {
+            return Files.isRegularFile(resolve(name));
+        }
+
+    }
+
+}
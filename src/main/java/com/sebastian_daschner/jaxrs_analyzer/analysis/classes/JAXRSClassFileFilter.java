@@ -0,0 +1,133 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pre-filters class files by scanning the raw constant pool for references to the JAX-RS API ({@code javax/ws/rs/}).
+ * Classes which don't reference the API in any UTF8 constant can never be JAX-RS resources and are dropped before any ASM visitor or reflection is involved.
+ * <p>
+ * The bytes are read into a reusable buffer, thus no objects are allocated per rejected class file.
+ * This class is not thread-safe.
+ *
+ * @author Sebastian Daschner
+ */
+public class JAXRSClassFileFilter {
+
+    private static final byte[] JAXRS_PACKAGE = "javax/ws/rs/".getBytes(StandardCharsets.US_ASCII);
+    private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+    /**
+     * Reads the class file from the stream and checks whether it references the JAX-RS API.
+     * The stream is read completely but not closed.
+     *
+     * @param stream The class file contents
+     * @return {@code true} if the class may be a JAX-RS resource
+     */
+    public boolean accept(final InputStream stream) throws IOException {
+        int length = 0;
+        int read;
+        while ((read = stream.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if (length == buffer.length)
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        return referencesJAXRS(buffer, length);
+    }
+
+    /**
+     * Checks whether the constant pool of the given class file contains a UTF8 entry which references the JAX-RS API.
+     * Malformed or unknown class file structures are accepted, in order to let the actual analysis report them.
+     *
+     * @param classFile The class file bytes
+     * @param length    The number of valid bytes
+     * @return {@code true} if the class may be a JAX-RS resource
+     */
+    static boolean referencesJAXRS(final byte[] classFile, final int length) {
+        if (length < 10 || readInt(classFile, 0) != CLASS_FILE_MAGIC)
+            return true;
+
+        final int constantPoolCount = readUnsignedShort(classFile, 8);
+        int offset = 10;
+
+        for (int index = 1; index < constantPoolCount; index++) {
+            if (offset >= length)
+                return true;
+
+            switch (classFile[offset]) {
+                case 1:
+                    // CONSTANT_Utf8
+                    if (offset + 3 > length)
+                        return true;
+                    final int start = offset + 3;
+                    final int end = start + readUnsignedShort(classFile, offset + 1);
+                    if (end > length)
+                        return true;
+                    if (containsJAXRSPackage(classFile, start, end))
+                        return true;
+                    offset = end;
+                    break;
+                case 7:
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    // Class, String, MethodType, Module, Package
+                    offset += 3;
+                    break;
+                case 15:
+                    // MethodHandle
+                    offset += 4;
+                    break;
+                case 3:
+                case 4:
+                case 9:
+                case 10:
+                case 11:
+                case 12:
+                case 17:
+                case 18:
+                    // Integer, Float, Fieldref, Methodref, InterfaceMethodref, NameAndType, Dynamic, InvokeDynamic
+                    offset += 5;
+                    break;
+                case 5:
+                case 6:
+                    // Long and Double take two constant pool slots
+                    offset += 9;
+                    index++;
+                    break;
+                default:
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean containsJAXRSPackage(final byte[] bytes, final int start, final int end) {
+        final int last = end - JAXRS_PACKAGE.length;
+        outer:
+        for (int i = start; i <= last; i++) {
+            for (int j = 0; j < JAXRS_PACKAGE.length; j++) {
+                if (bytes[i + j] != JAXRS_PACKAGE[j])
+                    continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static int readUnsignedShort(final byte[] bytes, final int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    private static int readInt(final byte[] bytes, final int offset) {
+        return (readUnsignedShort(bytes, offset) << 16) | readUnsignedShort(bytes, offset + 2);
+    }
+
+}
@@ -17,7 +17,6 @@ import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.stream.Stream;
 
 import static com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils.isAnnotationPresent;
@@ -97,36 +96,13 @@ public class JAXRSClassVisitor extends ClassVisitor {
     }
 
     private static Method searchAnnotatedSuperMethod(final String className, final String methodName, final String methodSignature) {
-        final List<Class<?>> superTypes = determineSuperTypes(className);
-        return superTypes.stream().map(c -> {
-            final Method superAnnotatedMethod = JavaUtils.findMethod(c, methodName, methodSignature);
-            if (superAnnotatedMethod != null && hasJAXRSAnnotations(superAnnotatedMethod))
-                return superAnnotatedMethod;
-            return null;
-        }).filter(Objects::nonNull).findAny().orElse(null);
-    }
-
-    private static List<Class<?>> determineSuperTypes(final String className) {
-        final Class<?> loadedClass = JavaUtils.loadClassFromName(className);
-        if (loadedClass == null)
-            return Collections.emptyList();
-
-        final List<Class<?>> superClasses = new ArrayList<>();
-        final Queue<Class<?>> classesToCheck = new LinkedBlockingQueue<>();
-        Class<?> currentClass = loadedClass;
-
-        do {
-            if (currentClass.getSuperclass() != null && Object.class != currentClass.getSuperclass())
-                classesToCheck.add(currentClass.getSuperclass());
-
-            Stream.of(currentClass.getInterfaces()).forEach(classesToCheck::add);
-
-            if (currentClass != loadedClass)
-                superClasses.add(currentClass);
-
-        } while ((currentClass = classesToCheck.poll()) != null);
-
-        return superClasses;
+        return TypeHierarchy.getInstance().getSuperTypes(className).stream()
+                .filter(t -> !Types.CLASS_OBJECT.equals(t))
+                .map(JavaUtils::loadClassFromName)
+                .filter(Objects::nonNull)
+                .map(c -> JavaUtils.findMethod(c, methodName, methodSignature))
+                .filter(m -> m != null && hasJAXRSAnnotations(m))
+                .findAny().orElse(null);
     }
 
     private static boolean hasJAXRSAnnotations(final Method method) {
@@ -0,0 +1,40 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.Types;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+
+import static org.objectweb.asm.Opcodes.ASM5;
+
+/**
+ * Determines whether a class is a JAX-RS root resource (or application) by its class-level annotations only.
+ * The class is neither loaded into the JVM nor are the method bodies visited.
+ *
+ * @author Sebastian Daschner
+ */
+public class JAXRSRootResourceClassVisitor extends ClassVisitor {
+
+    /**
+     * The flags to accept the class reader with, as only the class-level annotations are relevant.
+     */
+    public static final int PARSING_OPTIONS = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+
+    private boolean rootResource;
+
+    public JAXRSRootResourceClassVisitor() {
+        super(ASM5);
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(final String desc, final boolean visible) {
+        if (Types.PATH.equals(desc) || Types.APPLICATION_PATH.equals(desc))
+            rootResource = true;
+        return null;
+    }
+
+    public boolean isRootResource() {
+        return rootResource;
+    }
+
+}
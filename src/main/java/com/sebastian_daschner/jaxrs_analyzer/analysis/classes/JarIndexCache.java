@@ -0,0 +1,166 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Shares the indexes of jar-files between several {@link ClassPathIndex}es, e.g. of the class loaders of modules which use the same libraries.
+ * Every jar-file is mapped and indexed once as long as it is used and unchanged, and released when the last class path index which uses it is closed.
+ * Changed jar-files (by their size or modification time) are indexed again.
+ * The jar-files are indexed outside of the lock; concurrent requests of the same jar-file wait for the same index.
+ * This class is thread-safe.
+ *
+ * @author Sebastian Daschner
+ */
+public class JarIndexCache {
+
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    /**
+     * Returns the index of the given jar-file, which must be released after usage.
+     *
+     * @param jarFile The jar-file
+     * @return The index
+     * @throws IOException If the jar-file could not be read
+     */
+    Entry acquire(final Path jarFile) throws IOException {
+        final Key key = new Key(jarFile);
+
+        final Entry entry;
+        final boolean created;
+        synchronized (this) {
+            final Entry existing = entries.get(key);
+            created = existing == null;
+            if (created) {
+                misses++;
+                entry = new Entry(key);
+                entries.put(key, entry);
+            } else {
+                hits++;
+                entry = existing;
+            }
+            entry.users++;
+        }
+
+        if (created)
+            entry.index();
+
+        try {
+            entry.locations.join();
+            return entry;
+        } catch (CompletionException e) {
+            release(entry);
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Releases the index; the jar-file is unmapped once it isn't used anymore.
+     *
+     * @param entry The index
+     */
+    synchronized void release(final Entry entry) {
+        entry.users--;
+        if (entry.users == 0) {
+            entries.remove(entry.key, entry);
+            entry.close();
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of currently indexed jar-files.
+     *
+     * @return The number of jar-files
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * The index of a jar-file.
+     */
+    static class Entry {
+
+        private final Key key;
+        private final CompletableFuture<Map<String, List<ClassPathIndex.Location>>> locations = new CompletableFuture<>();
+        private volatile MappedZipFile zipFile;
+        private int users;
+
+        private Entry(final Key key) {
+            this.key = key;
+        }
+
+        private void index() {
+            try {
+                zipFile = MappedZipFile.open(key.path);
+                locations.complete(ClassPathIndex.groupByName(ClassPathIndex.readArchive(zipFile, key.path)));
+            } catch (IOException | RuntimeException e) {
+                close();
+                locations.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Returns the locations of the jar-file by their names.
+         */
+        Map<String, List<ClassPathIndex.Location>> getLocations() {
+            return locations.join();
+        }
+
+        private void close() {
+            if (zipFile != null)
+                zipFile.close();
+        }
+
+    }
+
+    /**
+     * Identifies a jar-file by its location, size and modification time.
+     */
+    private static class Key {
+
+        private final Path path;
+        private final long size;
+        private final long modificationTime;
+
+        Key(final Path jarFile) throws IOException {
+            path = jarFile.toAbsolutePath().normalize();
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            size = attributes.size();
+            modificationTime = attributes.lastModifiedTime().toMillis();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Key key = (Key) o;
+            return size == key.size && modificationTime == key.modificationTime && path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, modificationTime);
+        }
+
+    }
+
+}
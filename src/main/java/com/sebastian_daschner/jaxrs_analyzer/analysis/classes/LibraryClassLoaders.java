@@ -0,0 +1,263 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Shares the class loaders of library class paths between several analyses, e.g. of different modules.
+ * Classes which have been loaded once from a library are reused as long as the same class paths are requested and the locations are unchanged.
+ * At most the given number of class loaders are kept, the least recently used ones are closed as soon as they are not used anymore.
+ * New class loaders are created and indexed outside of the lock, so that requests of other class paths aren't blocked;
+ * concurrent requests of the same class paths wait for the same class loader.
+ * The class loaders share the indexes of their jar-files (see {@link JarIndexCache}), so that a jar-file which is used by several class paths
+ * is mapped and indexed only once.
+ * This class is thread-safe.
+ *
+ * @author Sebastian Daschner
+ */
+public class LibraryClassLoaders implements Closeable {
+
+    /**
+     * The default maximum number of kept class loaders.
+     */
+    public static final int DEFAULT_MAX_SIZE = 16;
+
+    private final Map<List<Path>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final JarIndexCache jarIndexes = new JarIndexCache();
+    private final int maxSize;
+    private final List<Path> sharedClassPaths;
+    private final ExtensibleClassLoader sharedClassLoader;
+    private long hits;
+    private long misses;
+
+    public LibraryClassLoaders(final int maxSize) {
+        this(maxSize, Collections.emptySet());
+    }
+
+    /**
+     * Creates the class loaders, which load the given class paths once for all analyses.
+     * The shared class paths should be self-contained, e.g. common API jars, as their classes can't see other class paths.
+     *
+     * @param maxSize          The maximum number of kept class loaders
+     * @param sharedClassPaths The class paths which are loaded by a common parent class loader
+     */
+    public LibraryClassLoaders(final int maxSize, final Collection<Path> sharedClassPaths) {
+        if (maxSize < 1)
+            throw new IllegalArgumentException("The maximum size must be positive");
+        this.maxSize = maxSize;
+        this.sharedClassPaths = normalize(sharedClassPaths);
+        this.sharedClassPaths.forEach(LibraryClassLoaders::modificationTime);
+        sharedClassLoader = createClassLoader(this.sharedClassPaths, ClassLoader.getSystemClassLoader());
+    }
+
+    /**
+     * Returns a class loader of the given class paths, which delegates to the class loader of the shared class paths.
+     * The class loader must be released by closing the returned lease after the analysis.
+     *
+     * @param classPaths The locations of the library class paths (can be directories or jar-files)
+     * @return The lease of the class loader
+     */
+    public Lease acquire(final Collection<Path> classPaths) {
+        final List<Path> key = normalize(classPaths);
+        key.removeAll(sharedClassPaths);
+        final List<Long> modificationTimes = key.stream().map(LibraryClassLoaders::modificationTime).collect(Collectors.toList());
+
+        final Entry entry;
+        final boolean created;
+        synchronized (this) {
+            Entry existing = entries.get(key);
+            if (existing != null && !existing.modificationTimes.equals(modificationTimes)) {
+                LogProvider.debug("Library class paths have been changed, reloading " + key);
+                entries.remove(key);
+                retire(existing);
+                existing = null;
+            }
+
+            created = existing == null;
+            if (created) {
+                misses++;
+                entry = new Entry(modificationTimes);
+                entries.put(key, entry);
+                evict();
+            } else {
+                hits++;
+                entry = existing;
+            }
+            entry.users++;
+        }
+
+        if (created) {
+            try {
+                entry.classLoader.complete(createClassLoader(key, sharedClassLoader));
+            } catch (RuntimeException e) {
+                entry.classLoader.completeExceptionally(e);
+            }
+        }
+
+        try {
+            return new Lease(entry, entry.classLoader.join());
+        } catch (CompletionException e) {
+            synchronized (this) {
+                entries.remove(key, entry);
+                retire(entry);
+                release(entry);
+            }
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of currently kept class loaders.
+     *
+     * @return The number of class loaders
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the indexes of the jar-files which are shared between the class loaders.
+     *
+     * @return The jar indexes
+     */
+    public JarIndexCache getJarIndexes() {
+        return jarIndexes;
+    }
+
+    /**
+     * Closes all class loaders which are not used anymore. Class loaders which are still used are closed when they are released.
+     * The shared class paths must not be used anymore.
+     */
+    @Override
+    public synchronized void close() {
+        entries.values().forEach(this::retire);
+        entries.clear();
+        closeClassLoader(sharedClassLoader);
+    }
+
+    private synchronized void release(final Entry entry) {
+        entry.users--;
+        if (entry.retired && entry.users == 0)
+            closeClassLoader(entry);
+    }
+
+    private void evict() {
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            retire(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private void retire(final Entry entry) {
+        entry.retired = true;
+        if (entry.users == 0)
+            closeClassLoader(entry);
+    }
+
+    private static List<Path> normalize(final Collection<Path> classPaths) {
+        return classPaths.stream().map(p -> p.toAbsolutePath().normalize()).sorted().distinct().collect(Collectors.toList());
+    }
+
+    private static long modificationTime(final Path path) {
+        final File file = path.toFile();
+        if (!file.exists())
+            throw new IllegalArgumentException("The location '" + path + "' does not exist!");
+        return file.lastModified();
+    }
+
+    private ExtensibleClassLoader createClassLoader(final List<Path> paths, final ClassLoader parent) {
+        final ExtensibleClassLoader classLoader = new ExtensibleClassLoader(parent, jarIndexes);
+        final List<URL> urls = new ArrayList<>();
+        for (final Path path : paths) {
+            try {
+                urls.add(path.toUri().toURL());
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("The location '" + path + "' could not be loaded to the class path!", e);
+            }
+        }
+        classLoader.addURLs(urls);
+        return classLoader;
+    }
+
+    private static void closeClassLoader(final Entry entry) {
+        // class loaders which are still created have users, failed ones have no class loader
+        if (entry.classLoader.isDone() && !entry.classLoader.isCompletedExceptionally())
+            closeClassLoader(entry.classLoader.join());
+    }
+
+    private static void closeClassLoader(final ExtensibleClassLoader classLoader) {
+        try {
+            classLoader.close();
+        } catch (IOException e) {
+            LogProvider.error("Could not close the class loader, reason: " + e.getMessage());
+            LogProvider.debug(e);
+        }
+    }
+
+    private static class Entry {
+        private final CompletableFuture<ExtensibleClassLoader> classLoader = new CompletableFuture<>();
+        private final List<Long> modificationTimes;
+        private int users;
+        private boolean retired;
+
+        private Entry(final List<Long> modificationTimes) {
+            this.modificationTimes = modificationTimes;
+        }
+    }
+
+    /**
+     * The usage of a shared class loader, which is released when closed.
+     */
+    public class Lease implements AutoCloseable {
+
+        private final Entry entry;
+        private final ExtensibleClassLoader classLoader;
+        private boolean released;
+
+        private Lease(final Entry entry, final ExtensibleClassLoader classLoader) {
+            this.entry = entry;
+            this.classLoader = classLoader;
+        }
+
+        public ClassLoader getClassLoader() {
+            return classLoader;
+        }
+
+        @Override
+        public void close() {
+            synchronized (LibraryClassLoaders.this) {
+                if (released)
+                    return;
+                released = true;
+                release(entry);
+            }
+        }
+
+    }
+
+}
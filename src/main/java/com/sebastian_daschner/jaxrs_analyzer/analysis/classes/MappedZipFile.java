@@ -0,0 +1,418 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A read-only zip file (e.g. a jar-file) which is mapped into memory.
+ * The central directory is parsed once; the entries are inflated straight from the mapped file without stream copying,
+ * reusing the {@link Inflater} and (up to a fixed size) the input buffer of the current thread.
+ * Files larger than 2 GB are not supported.
+ * The mapping is released on {@link #close()}, entries which are read afterwards fail with an {@link IOException}.
+ * This class is thread-safe.
+ *
+ * @author Sebastian Daschner
+ */
+final class MappedZipFile implements Closeable {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EXTRA_FIELD = 0x0001;
+
+    private static final int END_SIZE = 22;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+    /**
+     * The largest input buffer which is kept per thread; larger entries, e.g. compressed nested jar-files, use a temporary buffer.
+     */
+    static final int MAX_CACHED_INPUT_SIZE = 1 << 20;
+    private static final ThreadLocal<byte[]> INPUT_BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    private final String name;
+    private final ByteBuffer buffer;
+    private final Mapping mapping;
+    private final List<Entry> entries;
+
+    private MappedZipFile(final String name, final ByteBuffer buffer, final Mapping mapping) throws IOException {
+        this.name = name;
+        this.buffer = buffer;
+        this.mapping = mapping;
+        entries = Collections.unmodifiableList(readCentralDirectory());
+    }
+
+    /**
+     * Maps the given zip file into memory and reads its central directory.
+     *
+     * @param path The zip file
+     * @return The mapped zip file
+     * @throws IOException If the file could not be read or is not a valid zip file
+     */
+    static MappedZipFile open(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("The zip file " + path + " is too large to be mapped");
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            final Mapping mapping = new Mapping(buffer);
+            try {
+                return new MappedZipFile(path.toString(), buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN), mapping);
+            } catch (IOException e) {
+                mapping.close();
+                throw e;
+            }
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the file entries, i.e. all entries except directories, in the order of the central directory.
+     *
+     * @return The entries
+     */
+    List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Reads the uncompressed contents of the given entry of this file.
+     *
+     * @param entry The entry
+     * @return The contents, the array has the exact size of the entry
+     * @throws IOException If the entry is corrupt or uses an unsupported compression method
+     */
+    byte[] read(final Entry entry) throws IOException {
+        mapping.lock.readLock().lock();
+        try {
+            mapping.checkOpen(name);
+            return readEntry(entry);
+        } finally {
+            mapping.lock.readLock().unlock();
+        }
+    }
+
+    private byte[] readEntry(final Entry entry) throws IOException {
+        final ByteBuffer buffer = this.buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(dataOffset(entry));
+        final byte[] bytes = new byte[entry.size];
+
+        switch (entry.method) {
+            case STORED:
+                buffer.get(bytes);
+                return bytes;
+            case DEFLATED:
+                inflate(buffer, entry, bytes);
+                return bytes;
+            default:
+                throw new IOException("Unsupported compression method " + entry.method + " of " + entry.name + " in " + name);
+        }
+    }
+
+    /**
+     * Opens the given zip file entry of this file, e.g. a jar-file within a WAR.
+     * Stored entries are read directly from the mapping of this file, compressed entries are inflated into memory.
+     *
+     * @param entry The entry
+     * @return The nested zip file
+     * @throws IOException If the entry is not a valid zip file
+     */
+    MappedZipFile openNested(final Entry entry) throws IOException {
+        final String nestedName = name + "!/" + entry.name;
+        if (entry.method != STORED)
+            return new MappedZipFile(nestedName, ByteBuffer.wrap(read(entry)).order(ByteOrder.LITTLE_ENDIAN), mapping);
+
+        mapping.lock.readLock().lock();
+        try {
+            mapping.checkOpen(name);
+            final ByteBuffer buffer = this.buffer.duplicate();
+            buffer.position(dataOffset(entry));
+            buffer.limit(buffer.position() + entry.compressedSize);
+            return new MappedZipFile(nestedName, buffer.slice().order(ByteOrder.LITTLE_ENDIAN), mapping);
+        } finally {
+            mapping.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Releases the mapping of the outermost file, i.e. nested files of the same file are closed as well.
+     */
+    @Override
+    public void close() {
+        mapping.close();
+    }
+
+    private int dataOffset(final Entry entry) throws IOException {
+        final int localHeader = entry.localHeaderOffset;
+        if (localHeader + 30 > buffer.limit() || buffer.getInt(localHeader) != LOCAL_HEADER_SIGNATURE)
+            throw new IOException("Invalid local header of " + entry.name + " in " + name);
+
+        final int dataOffset = localHeader + 30 + unsignedShort(buffer, localHeader + 26) + unsignedShort(buffer, localHeader + 28);
+        if ((long) dataOffset + entry.compressedSize > buffer.limit() || entry.method == STORED && entry.size != entry.compressedSize)
+            throw new IOException("Invalid size of " + entry.name + " in " + name);
+        return dataOffset;
+    }
+
+    private void inflate(final ByteBuffer buffer, final Entry entry, final byte[] bytes) throws IOException {
+        final Inflater inflater = INFLATER.get();
+        // the inflater needs an additional dummy byte for raw deflate data
+        final byte[] input = inputBuffer(entry.compressedSize + 1);
+        buffer.get(input, 0, entry.compressedSize);
+        input[entry.compressedSize] = 0;
+
+        inflater.reset();
+        inflater.setInput(input, 0, entry.compressedSize + 1);
+        try {
+            int offset = 0;
+            while (offset < bytes.length) {
+                final int inflated = inflater.inflate(bytes, offset, bytes.length - offset);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+                    throw new IOException("Unexpected end of " + entry.name + " in " + name);
+                offset += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid compressed data of " + entry.name + " in " + name, e);
+        }
+    }
+
+    /**
+     * Returns the input buffer of the current thread, grown up to {@link #MAX_CACHED_INPUT_SIZE}, or a temporary buffer if it's larger.
+     */
+    static byte[] inputBuffer(final int size) {
+        if (size > MAX_CACHED_INPUT_SIZE)
+            return new byte[size];
+        byte[] input = INPUT_BUFFER.get();
+        if (input.length < size) {
+            input = new byte[Math.max(size, Math.min(input.length * 2, MAX_CACHED_INPUT_SIZE))];
+            INPUT_BUFFER.set(input);
+        }
+        return input;
+    }
+
+        private List<Entry> readCentralDirectory() throws IOException {
+        final int end = findEnd();
+        long entryCount = unsignedShort(buffer, end + 10);
+        long directorySize = unsignedInt(buffer, end + 12);
+        long directoryOffset = unsignedInt(buffer, end + 16);
+
+        final int locator = end - ZIP64_LOCATOR_SIZE;
+        if (locator >= 0 && buffer.getInt(locator) == ZIP64_LOCATOR_SIGNATURE) {
+            final int zip64End = checkedOffset(buffer.getLong(locator + 8));
+            if (zip64End + 56 > buffer.limit() || buffer.getInt(zip64End) != ZIP64_END_SIGNATURE)
+                throw new IOException("Invalid ZIP64 end of central directory in " + name);
+            entryCount = buffer.getLong(zip64End + 32);
+            directorySize = buffer.getLong(zip64End + 40);
+            directoryOffset = buffer.getLong(zip64End + 48);
+        }
+
+        final int directoryEnd = checkedOffset(directoryOffset + directorySize);
+        int offset = checkedOffset(directoryOffset);
+        final List<Entry> entries = new ArrayList<>((int) Math.min(entryCount, 1 << 16));
+
+        for (long i = 0; i < entryCount; i++) {
+            if (offset + 46 > directoryEnd || buffer.getInt(offset) != CENTRAL_HEADER_SIGNATURE)
+                throw new IOException("Invalid central directory in " + name);
+
+            final int method = unsignedShort(buffer, offset + 10);
+            final long crc = unsignedInt(buffer, offset + 16);
+            long compressedSize = unsignedInt(buffer, offset + 20);
+            long size = unsignedInt(buffer, offset + 24);
+            final int nameLength = unsignedShort(buffer, offset + 28);
+            final int extraLength = unsignedShort(buffer, offset + 30);
+            final int commentLength = unsignedShort(buffer, offset + 32);
+            long localHeaderOffset = unsignedInt(buffer, offset + 42);
+
+            final byte[] nameBytes = new byte[nameLength];
+            final ByteBuffer nameBuffer = buffer.duplicate();
+            nameBuffer.position(offset + 46);
+            nameBuffer.get(nameBytes);
+            final String entryName = new String(nameBytes, StandardCharsets.UTF_8);
+
+            if (size == ZIP64_MAGIC || compressedSize == ZIP64_MAGIC || localHeaderOffset == ZIP64_MAGIC) {
+                final int extra = findZip64Extra(offset + 46 + nameLength, extraLength);
+                int field = extra + 4;
+                if (size == ZIP64_MAGIC) {
+                    size = buffer.getLong(field);
+                    field += 8;
+                }
+                if (compressedSize == ZIP64_MAGIC) {
+                    compressedSize = buffer.getLong(field);
+                    field += 8;
+                }
+                if (localHeaderOffset == ZIP64_MAGIC)
+                    localHeaderOffset = buffer.getLong(field);
+            }
+
+            if (!entryName.endsWith("/"))
+                entries.add(new Entry(entryName, method, crc, checkedOffset(compressedSize), checkedSize(size), checkedOffset(localHeaderOffset)));
+
+            offset += 46 + nameLength + extraLength + commentLength;
+        }
+
+        return entries;
+    }
+
+    private int findEnd() throws IOException {
+        final int limit = buffer.limit();
+        final int lowest = Math.max(0, limit - END_SIZE - MAX_COMMENT_SIZE);
+        for (int offset = limit - END_SIZE; offset >= lowest; offset--) {
+            if (buffer.getInt(offset) == END_SIGNATURE && offset + END_SIZE + unsignedShort(buffer, offset + 20) == limit)
+                return offset;
+        }
+        throw new IOException("No end of central directory found in " + name);
+    }
+
+    private int findZip64Extra(final int start, final int length) throws IOException {
+        int offset = start;
+        while (offset + 4 <= start + length) {
+            if (unsignedShort(buffer, offset) == ZIP64_EXTRA_FIELD)
+                return offset;
+            offset += 4 + unsignedShort(buffer, offset + 2);
+        }
+        throw new IOException("Missing ZIP64 extra field in " + name);
+    }
+
+    private int checkedOffset(final long value) throws IOException {
+        if (value < 0 || value > buffer.limit())
+            throw new IOException("Invalid offset or size in " + name);
+        return (int) value;
+    }
+
+    private int checkedSize(final long size) throws IOException {
+        if (size < 0 || size > Integer.MAX_VALUE - 8)
+            throw new IOException("Invalid size in " + name);
+        return (int) size;
+    }
+
+    private static int unsignedShort(final ByteBuffer buffer, final int offset) {
+        return buffer.getShort(offset) & 0xFFFF;
+    }
+
+    private static long unsignedInt(final ByteBuffer buffer, final int offset) {
+        return buffer.getInt(offset) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * The mapping of an outermost file, which is shared with its nested files.
+     * Reads hold the read lock, so that the mapping is never released while it's accessed.
+     */
+    private static final class Mapping {
+
+        private final MappedByteBuffer buffer;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private boolean closed;
+
+        private Mapping(final MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private void checkOpen(final String name) throws IOException {
+            if (closed)
+                throw new IOException("The zip file " + name + " has been closed");
+        }
+
+        private void close() {
+            lock.writeLock().lock();
+            try {
+                if (closed)
+                    return;
+                closed = true;
+                unmap(buffer);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Unmaps the buffer with the cleaner of the JDK; if that's not accessible the buffer is released by the garbage collector.
+         */
+        private static void unmap(final MappedByteBuffer buffer) {
+            try {
+                final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                try {
+                    // Java 9 and later
+                    final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                    final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                    theUnsafe.setAccessible(true);
+                    invokeCleaner.invoke(theUnsafe.get(null), buffer);
+                } catch (NoSuchMethodException e) {
+                    final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                    cleanerMethod.setAccessible(true);
+                    final Object cleaner = cleanerMethod.invoke(buffer);
+                    if (cleaner != null)
+                        cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LogProvider.debug("Could not unmap the zip file, reason: " + e.getMessage());
+            }
+        }
+
+    }
+
+    /**
+     * An entry of the central directory.
+     */
+    static final class Entry {
+
+        private final String name;
+        private final int method;
+        private final long crc;
+        private final int compressedSize;
+        private final int size;
+        private final int localHeaderOffset;
+
+        private Entry(final String name, final int method, final long crc, final int compressedSize, final int size, final int localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the CRC-32 checksum of the uncompressed contents, as stored in the central directory.
+         */
+        long getCrc() {
+            return crc;
+        }
+
+    }
+
+}
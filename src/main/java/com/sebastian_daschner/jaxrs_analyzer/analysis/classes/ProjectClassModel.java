@@ -0,0 +1,72 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parsed instructions of all (non-abstract and non-native) methods declared in a project class.
+ *
+ * @author Sebastian Daschner
+ */
+public class ProjectClassModel {
+
+    private final Map<String, List<List<Instruction>>> methodInstructions = new HashMap<>();
+    private final String className;
+    private String superName;
+
+    public ProjectClassModel(final String className) {
+        this.className = className;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getSuperName() {
+        return superName;
+    }
+
+    void setSuperName(final String superName) {
+        this.superName = superName;
+    }
+
+    /**
+     * Adds the instructions of a declared method. The method is found by both its descriptor and its generic signature.
+     *
+     * @param name         The method name
+     * @param desc         The method descriptor
+     * @param signature    The generic method signature or {@code null}
+     * @param instructions The instructions of the method
+     */
+    void addMethod(final String name, final String desc, final String signature, final List<Instruction> instructions) {
+        methodInstructions.computeIfAbsent(name + desc, k -> new ArrayList<>(1)).add(instructions);
+        if (signature != null && !signature.equals(desc))
+            methodInstructions.computeIfAbsent(name + signature, k -> new ArrayList<>(1)).add(instructions);
+    }
+
+    /**
+     * Returns the instructions of the method which is declared in this class.
+     *
+     * @param identifier The method identifier
+     * @return The instructions or {@code null} if the method is not declared in this class
+     */
+    public List<Instruction> getInstructions(final MethodIdentifier identifier) {
+        final List<List<Instruction>> matches = methodInstructions.get(identifier.getMethodName() + identifier.getSignature());
+        if (matches == null)
+            return null;
+
+        if (matches.size() == 1)
+            return Collections.unmodifiableList(matches.get(0));
+
+        final List<Instruction> instructions = new ArrayList<>();
+        matches.forEach(instructions::addAll);
+        return instructions;
+    }
+
+}
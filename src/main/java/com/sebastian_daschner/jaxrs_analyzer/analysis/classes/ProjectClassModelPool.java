@@ -0,0 +1,105 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.AnalysisContext;
+import com.sebastian_daschner.jaxrs_analyzer.model.Types;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
+import org.objectweb.asm.ClassReader;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A thread-safe pool of {@link ProjectClassModel}s of an analysis. Every class is parsed at most once, regardless how many of its methods are requested.
+ *
+ * @author Sebastian Daschner
+ */
+public class ProjectClassModelPool {
+
+    private final ConcurrentMap<String, ProjectClassModel> classModels = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the instructions of the given project method.
+     * If the method isn't declared in the containing class the super classes are searched (invoke_virtual).
+     *
+     * @param identifier The method identifier
+     * @return The instructions (empty if the method couldn't be found) or {@code null} if the containing class couldn't be read
+     */
+    public List<Instruction> getInstructions(final MethodIdentifier identifier) {
+        ProjectClassModel classModel;
+        try {
+            classModel = getClassModel(identifier.getContainingClass());
+        } catch (IOException e) {
+            LogProvider.error("Could not analyze project method " + identifier.getContainingClass() + "#" + identifier.getMethodName());
+            LogProvider.debug(e);
+            return null;
+        }
+
+        List<Instruction> instructions;
+        while ((instructions = classModel.getInstructions(identifier)) == null) {
+            final String superName = classModel.getSuperName();
+            if (superName == null || superName.equals(Types.CLASS_OBJECT))
+                return Collections.emptyList();
+
+            try {
+                classModel = getClassModel(superName);
+            } catch (IOException e) {
+                LogProvider.error("Could not analyze project method " + superName + "#" + identifier.getMethodName());
+                LogProvider.debug(e);
+                return Collections.emptyList();
+            }
+        }
+        return instructions;
+    }
+
+    /**
+     * Returns the parsed model of the given class.
+     *
+     * @param className The class name (either with dots or slashes)
+     * @return The class model
+     * @throws IOException If the class couldn't be read
+     */
+    public ProjectClassModel getClassModel(final String className) throws IOException {
+        final String internalName = className.replace('.', '/');
+        final ProjectClassModel classModel = classModels.get(internalName);
+        if (classModel != null)
+            return classModel;
+
+        final ProjectClassModel parsedModel = new ProjectClassModel(internalName);
+        new ContextClassReader(internalName).accept(new ProjectClassModelVisitor(parsedModel), ClassReader.EXPAND_FRAMES);
+
+        final ProjectClassModel existingModel = classModels.putIfAbsent(internalName, parsedModel);
+        return existingModel != null ? existingModel : parsedModel;
+    }
+
+    /**
+     * Removes the parsed models of the given classes, e.g. after they have been changed.
+     *
+     * @param classNames The class names (either with dots or slashes)
+     */
+    public void evict(final Collection<String> classNames) {
+        classNames.forEach(c -> classModels.remove(c.replace('.', '/')));
+    }
+
+    /**
+     * Removes all parsed class models.
+     */
+    public void clear() {
+        classModels.clear();
+    }
+
+    /**
+     * Returns the class model pool of the current analysis.
+     *
+     * @return The class model pool of the current {@link AnalysisContext}
+     */
+    public static ProjectClassModelPool getInstance() {
+        return AnalysisContext.current().getClassModelPool();
+    }
+
+}
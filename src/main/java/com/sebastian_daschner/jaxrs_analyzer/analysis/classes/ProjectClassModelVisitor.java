@@ -0,0 +1,40 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Collects the instructions of all methods of a class into a {@link ProjectClassModel} in a single pass.
+ *
+ * @author Sebastian Daschner
+ */
+public class ProjectClassModelVisitor extends ClassVisitor {
+
+    private final ProjectClassModel classModel;
+
+    public ProjectClassModelVisitor(final ProjectClassModel classModel) {
+        super(ASM5);
+        this.classModel = classModel;
+    }
+
+    @Override
+    public void visit(final int version, final int access, final String name, final String signature, final String superName, final String[] interfaces) {
+        classModel.setSuperName(superName);
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+        // TODO allow abstract?
+        final boolean legalModifiers = (access & ACC_ABSTRACT | access & ACC_NATIVE) == 0;
+        if (!legalModifiers)
+            return null;
+
+        final MethodResult methodResult = new MethodResult();
+        classModel.addMethod(name, desc, signature, methodResult.getInstructions());
+        return new ProjectMethodVisitor(methodResult, classModel.getClassName());
+    }
+
+}
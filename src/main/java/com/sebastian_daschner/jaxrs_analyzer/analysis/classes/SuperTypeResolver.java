@@ -0,0 +1,42 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Resolves the super classes and interfaces of classes from the {@link TypeHierarchy} of the current analysis, without loading the classes.
+ *
+ * @author Sebastian Daschner
+ */
+public final class SuperTypeResolver {
+
+    private SuperTypeResolver() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the given classes together with all their (transitive) super classes and interfaces, except the JDK types.
+     * Classes which are not available are contained but not followed.
+     *
+     * @param classNames The class names (either with dots or slashes)
+     * @return The class names with slashes, sorted
+     */
+    public static SortedSet<String> resolveWithSuperTypes(final Collection<String> classNames) {
+        final TypeHierarchy typeHierarchy = TypeHierarchy.getInstance();
+        final SortedSet<String> resolved = new TreeSet<>();
+        final Deque<String> pending = new ArrayDeque<>();
+        classNames.stream().map(c -> c.replace('.', '/')).forEach(pending::add);
+
+        while (!pending.isEmpty()) {
+            final String current = pending.poll();
+            if (!current.startsWith("java/") && !current.startsWith("javax/") && resolved.add(current))
+                pending.addAll(typeHierarchy.getDirectSuperTypes(current));
+        }
+
+        return resolved;
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.AnalysisContext;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+/**
+ * Memoizes the pairwise decisions of the type lattice, i.e. whether a type is assignable to another and which of two types is the most specific.
+ * The decisions depend on the loaded classes and are therefore kept per analysis; the cache has to be cleared when the class path changes.
+ * Each table is bounded and dropped completely when it's full.
+ * This class is thread-safe.
+ *
+ * @author Sebastian Daschner
+ */
+public class TypeDecisionCache {
+
+    /**
+     * The default maximum number of decisions per table.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1 << 14;
+
+    private final Table assignability;
+    private final Table specificity;
+
+    public TypeDecisionCache(final int maxSize) {
+        assignability = new Table(maxSize);
+        specificity = new Table(maxSize);
+    }
+
+    /**
+     * Returns whether the left type is assignable to the right type.
+     *
+     * @param leftType  The left type signature
+     * @param rightType The right type signature
+     * @param decision  Decides the assignability if it's not yet known
+     * @return The (memoized) decision
+     */
+    public boolean isAssignableTo(final String leftType, final String rightType, final BiPredicate<String, String> decision) {
+        return assignability.decide(leftType, rightType, decision);
+    }
+
+    /**
+     * Returns whether the first type is the most specific of both types.
+     *
+     * @param firstType  The first type signature
+     * @param secondType The second type signature
+     * @param decision   Decides whether the first type is the most specific if it's not yet known
+     * @return The (memoized) decision
+     */
+    public boolean isMostSpecific(final String firstType, final String secondType, final BiPredicate<String, String> decision) {
+        return specificity.decide(firstType, secondType, decision);
+    }
+
+    /**
+     * Removes all decisions and resets the counters.
+     */
+    public void clear() {
+        assignability.clear();
+        specificity.clear();
+    }
+
+    public long getAssignabilityHits() {
+        return assignability.hits.get();
+    }
+
+    public long getAssignabilityMisses() {
+        return assignability.misses.get();
+    }
+
+    public long getSpecificityHits() {
+        return specificity.hits.get();
+    }
+
+    public long getSpecificityMisses() {
+        return specificity.misses.get();
+    }
+
+    /**
+     * Returns a summary of the hit rates, e.g. for logging.
+     */
+    public String getStatistics() {
+        return "assignability " + assignability + ", specificity " + specificity;
+    }
+
+    /**
+     * Returns the type decision cache of the current analysis.
+     *
+     * @return The type decision cache of the current {@link AnalysisContext}
+     */
+    public static TypeDecisionCache getInstance() {
+        return AnalysisContext.current().getTypeDecisionCache();
+    }
+
+    private static class Table {
+
+        private final ConcurrentMap<TypePair, Boolean> decisions = new ConcurrentHashMap<>();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final int maxSize;
+
+        Table(final int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        boolean decide(final String first, final String second, final BiPredicate<String, String> decision) {
+            final TypePair key = new TypePair(first, second);
+            final Boolean known = decisions.get(key);
+            if (known != null) {
+                hits.incrementAndGet();
+                return known;
+            }
+
+            misses.incrementAndGet();
+            // decisions may recurse into the same table, therefore no computeIfAbsent
+            final boolean decided = decision.test(first, second);
+            if (decisions.size() >= maxSize)
+                decisions.clear();
+            decisions.put(key, decided);
+            return decided;
+        }
+
+        void clear() {
+            decisions.clear();
+            hits.set(0);
+            misses.set(0);
+        }
+
+        @Override
+        public String toString() {
+            final long hits = this.hits.get();
+            final long total = hits + misses.get();
+            return hits + " hits, " + (total - hits) + " misses" + (total == 0 ? "" : String.format(Locale.ROOT, " (%.1f %%)", 100.0 * hits / total));
+        }
+
+    }
+
+    private static class TypePair {
+
+        private final String first;
+        private final String second;
+        private final int hashCode;
+
+        TypePair(final String first, final String second) {
+            this.first = first;
+            this.second = second;
+            hashCode = 31 * first.hashCode() + second.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TypePair)) return false;
+            final TypePair other = (TypePair) o;
+            return first.equals(other.first) && second.equals(other.second);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+}
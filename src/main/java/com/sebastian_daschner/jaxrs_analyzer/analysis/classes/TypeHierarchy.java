@@ -0,0 +1,150 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.AnalysisContext;
+import org.objectweb.asm.ClassReader;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The type hierarchy of the classes of an analysis, which is read from the class files without loading the classes.
+ * For every requested class the direct super types and the transitive closure of all super types are recorded; later lookups are map reads.
+ * This class is thread-safe.
+ *
+ * @author Sebastian Daschner
+ */
+public class TypeHierarchy {
+
+    private final ClassBytesCache classBytesCache;
+    private final ConcurrentMap<String, Node> nodes = new ConcurrentHashMap<>();
+
+    public TypeHierarchy(final ClassBytesCache classBytesCache) {
+        this.classBytesCache = classBytesCache;
+    }
+
+    /**
+     * Returns the direct super class and the directly implemented interfaces.
+     *
+     * @param className The class name (either with dots or slashes)
+     * @return The internal names, the super class first; empty if the class is not available
+     */
+    public List<String> getDirectSuperTypes(final String className) {
+        return getNode(className.replace('.', '/')).directSuperTypes;
+    }
+
+    /**
+     * Returns all (transitive) super classes and interfaces, in breadth-first order.
+     * The types of which the class files are not available are contained but not followed.
+     *
+     * @param className The class name (either with dots or slashes)
+     * @return The internal names, excluding the class itself
+     */
+    public Set<String> getSuperTypes(final String className) {
+        final Node node = getNode(className.replace('.', '/'));
+        Set<String> superTypes = node.superTypes;
+        if (superTypes == null) {
+            superTypes = Collections.unmodifiableSet(resolveSuperTypes(node));
+            node.superTypes = superTypes;
+        }
+        return superTypes;
+    }
+
+    /**
+     * Checks whether the class is the same as or a sub type of the given type, as {@link Class#isAssignableFrom(Class)} but without loading the classes.
+     *
+     * @param className The class name (either with dots or slashes)
+     * @param superType The potential super type (either with dots or slashes)
+     * @return {@code true} if the class is assignable to the super type
+     */
+    public boolean isSubType(final String className, final String superType) {
+        final String internalName = className.replace('.', '/');
+        final String superInternalName = superType.replace('.', '/');
+        return internalName.equals(superInternalName) || getSuperTypes(internalName).contains(superInternalName);
+    }
+
+    /**
+     * Removes the given types, e.g. after they have been changed; the super types of all other types are resolved again.
+     *
+     * @param classNames The class names (either with dots or slashes)
+     */
+    public void evict(final Collection<String> classNames) {
+        classNames.forEach(c -> nodes.remove(c.replace('.', '/')));
+        nodes.values().forEach(n -> n.superTypes = null);
+    }
+
+    /**
+     * Removes all resolved types.
+     */
+    public void clear() {
+        nodes.clear();
+    }
+
+    private Set<String> resolveSuperTypes(final Node node) {
+        final Set<String> superTypes = new LinkedHashSet<>();
+        final Deque<String> pending = new ArrayDeque<>(node.directSuperTypes);
+
+        while (!pending.isEmpty()) {
+            final String current = pending.poll();
+            if (!current.equals(node.name) && superTypes.add(current))
+                pending.addAll(getNode(current).directSuperTypes);
+        }
+        return superTypes;
+    }
+
+    private Node getNode(final String internalName) {
+        final Node node = nodes.get(internalName);
+        if (node != null)
+            return node;
+
+        final Node readNode = new Node(internalName, readDirectSuperTypes(internalName));
+        final Node existingNode = nodes.putIfAbsent(internalName, readNode);
+        return existingNode != null ? existingNode : readNode;
+    }
+
+    private List<String> readDirectSuperTypes(final String internalName) {
+        try {
+            final ClassReader classReader = new ClassReader(classBytesCache.get(internalName));
+            final List<String> superTypes = new ArrayList<>();
+            if (classReader.getSuperName() != null)
+                superTypes.add(classReader.getSuperName());
+            superTypes.addAll(Arrays.asList(classReader.getInterfaces()));
+            return Collections.unmodifiableList(superTypes);
+        } catch (IOException e) {
+            // not available classes have no known super types
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Returns the type hierarchy of the current analysis.
+     *
+     * @return The type hierarchy of the current {@link AnalysisContext}
+     */
+    public static TypeHierarchy getInstance() {
+        return AnalysisContext.current().getTypeHierarchy();
+    }
+
+    private static class Node {
+
+        private final String name;
+        private final List<String> directSuperTypes;
+        private volatile Set<String> superTypes;
+
+        Node(final String name, final List<String> directSuperTypes) {
+            this.name = name;
+            this.directSuperTypes = directSuperTypes;
+        }
+
+    }
+
+}
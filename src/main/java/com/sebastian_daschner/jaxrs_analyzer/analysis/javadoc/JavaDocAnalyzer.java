@@ -4,6 +4,7 @@ import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.TypeHierarchy;
 import com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils;
 import com.sebastian_daschner.jaxrs_analyzer.model.javadoc.ClassComment;
 import com.sebastian_daschner.jaxrs_analyzer.model.javadoc.MethodComment;
@@ -28,12 +29,42 @@ public class JavaDocAnalyzer {
 
     private final Map<MethodIdentifier, MethodComment> methodComments = new HashMap<>();
     private final Map<String, ClassComment> classComments = new HashMap<>();
-
-    public void analyze(final Set<Path> projectSourcePaths, final Set<ClassResult> classResults) {
+    private final Map<Path, Set<MethodIdentifier>> methodsBySourceFile = new HashMap<>();
+    private final Map<Path, Set<String>> classesBySourceFile = new HashMap<>();
+
+    public void analyze(final Set<Path> projectSourcePaths, final Collection<ClassResult> classResults) {
+        methodComments.clear();
+        classComments.clear();
+        methodsBySourceFile.clear();
+        classesBySourceFile.clear();
         invokeParser(projectSourcePaths);
         combineResults(classResults);
     }
 
+    /**
+     * Parses only the source files of the given classes (again) and combines the JavaDoc of all parsed files with the class results.
+     * The JavaDoc of re-parsed or deleted source files replaces or removes the previously parsed JavaDoc of these files.
+     *
+     * @param projectSourcePaths The project source paths
+     * @param classNames         The fully-qualified class names (either with dots or slashes), nested classes are resolved to their source file
+     * @param classResults       The class results
+     */
+    public void analyze(final Set<Path> projectSourcePaths, final Set<String> classNames, final Collection<ClassResult> classResults) {
+        final Set<String> sourceFiles = classNames.stream().map(c -> c.replace('.', '/').replaceFirst("\\$.*", "") + ".java")
+                .collect(Collectors.toSet());
+
+        projectSourcePaths.stream().filter(Files::isDirectory)
+                .flatMap(p -> sourceFiles.stream().map(p::resolve))
+                .forEach(path -> {
+                    if (Files.isRegularFile(path))
+                        parseJavaDoc(path);
+                    else
+                        evict(path);
+                });
+
+        combineResults(classResults);
+    }
+
     private void invokeParser(Set<Path> projectSourcePaths) {
         try {
             for (Path projectSourcePath : projectSourcePaths) {
@@ -58,7 +89,29 @@ public class JavaDocAnalyzer {
             }
         });
 
-        files.forEach(path -> parseJavaDoc(path, new JavaDocParserVisitor(methodComments, classComments)));
+        files.forEach(this::parseJavaDoc);
+    }
+
+    /**
+     * Parses the source file and records which comments it contains, so that they can be evicted when the file is parsed again or deleted.
+     */
+    private void parseJavaDoc(Path path) {
+        evict(path);
+        final Map<MethodIdentifier, MethodComment> fileMethodComments = new HashMap<>();
+        final Map<String, ClassComment> fileClassComments = new HashMap<>();
+        parseJavaDoc(path, new JavaDocParserVisitor(fileMethodComments, fileClassComments));
+
+        methodComments.putAll(fileMethodComments);
+        classComments.putAll(fileClassComments);
+        final Path sourceFile = path.toAbsolutePath().normalize();
+        methodsBySourceFile.put(sourceFile, fileMethodComments.keySet());
+        classesBySourceFile.put(sourceFile, fileClassComments.keySet());
+    }
+
+    private void evict(Path path) {
+        final Path sourceFile = path.toAbsolutePath().normalize();
+        Optional.ofNullable(methodsBySourceFile.remove(sourceFile)).ifPresent(methodComments.keySet()::removeAll);
+        Optional.ofNullable(classesBySourceFile.remove(sourceFile)).ifPresent(classComments.keySet()::removeAll);
     }
 
     private static void parseJavaDoc(Path path, JavaDocParserVisitor visitor) {
@@ -70,7 +123,7 @@ public class JavaDocAnalyzer {
         }
     }
 
-    private void combineResults(final Set<ClassResult> classResults) {
+    private void combineResults(final Collection<ClassResult> classResults) {
         methodComments.forEach((key, value) -> classResults.stream()
                 .map(c -> findMethodResult(key, c))
                 .filter(Objects::nonNull).forEach(m -> {
@@ -118,10 +171,10 @@ public class JavaDocAnalyzer {
     }
 
     private List<String> retrieveSubTypes(String className) {
-        Class<?> clazz = JavaUtils.loadClassFromName(className);
+        final TypeHierarchy typeHierarchy = TypeHierarchy.getInstance();
         return classComments.keySet().stream().
                 filter(cn -> !cn.equals(className)).
-                filter(cn -> clazz.isAssignableFrom(JavaUtils.loadClassFromName(cn))).
+                filter(cn -> typeHierarchy.isSubType(cn, className)).
                 map(cn -> cn.replace('.', '/')).
                 collect(Collectors.toList());
     }
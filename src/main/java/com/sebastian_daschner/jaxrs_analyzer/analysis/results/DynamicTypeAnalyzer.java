@@ -39,6 +39,11 @@ class DynamicTypeAnalyzer {
      */
     private final Map<TypeIdentifier, TypeRepresentation> typeRepresentations;
 
+    /**
+     * The number of created dynamic types; the identifiers are numbered per analysis, independently of other analyses in the same JVM.
+     */
+    private int dynamicTypes;
+
     DynamicTypeAnalyzer(final Map<TypeIdentifier, TypeRepresentation> typeRepresentations) {
         this.typeRepresentations = typeRepresentations;
     }
@@ -82,7 +87,7 @@ class DynamicTypeAnalyzer {
             return existingCollection;
         }
 
-        final TypeIdentifier identifier = TypeIdentifier.ofDynamic();
+        final TypeIdentifier identifier = TypeIdentifier.ofDynamic(++dynamicTypes);
         typeRepresentations.put(identifier, TypeRepresentation.ofCollection(identifier, containedRepresentation));
         return identifier;
     }
@@ -95,7 +100,7 @@ class DynamicTypeAnalyzer {
         if (existing != null)
             return existing;
 
-        final TypeIdentifier identifier = TypeIdentifier.ofDynamic();
+        final TypeIdentifier identifier = TypeIdentifier.ofDynamic(++dynamicTypes);
         typeRepresentations.put(identifier, TypeRepresentation.ofConcrete(identifier, properties));
         return identifier;
     }
@@ -17,6 +17,7 @@ package com.sebastian_daschner.jaxrs_analyzer.analysis.results;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreType;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.TypeHierarchy;
 import com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils;
 import static com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils.*;
 import static com.sebastian_daschner.jaxrs_analyzer.model.Types.COLLECTION;
@@ -269,13 +270,10 @@ class JavaTypeAnalyzer {
     }
 
     private Set<String> retrieveSubTypes(String type, final Set<String> availableSubTypes) {
-        Class<?> clazz = JavaUtils.loadClassFromType(type.replace('/', '.'));
+        final String className = JavaUtils.toClassName(type);
+        final TypeHierarchy typeHierarchy = TypeHierarchy.getInstance();
         return availableSubTypes.stream().
-                filter(t -> {
-                    Class<?> subclazz = JavaUtils.loadClassFromName(t.replace('/', '.'));
-                    boolean assignable = clazz.isAssignableFrom(subclazz);
-                    return assignable;
-                }).
+                filter(t -> typeHierarchy.isSubType(t, className)).
                 collect(Collectors.toSet());
     }
 
@@ -39,7 +39,7 @@ final class PathNormalizer {
      *
      * @return The base URI of the application
      */
-    static String getApplicationPath(final Set<ClassResult> classResults) {
+    static String getApplicationPath(final Collection<ClassResult> classResults) {
         return classResults.stream().map(ClassResult::getApplicationPath).filter(Objects::nonNull)
                 .map(PathNormalizer::normalize).findAny().orElse("");
     }
@@ -52,37 +52,48 @@ final class PathNormalizer {
      * @return The normalized full path of the method
      */
     static String getPath(final MethodResult methodResult) {
-        final List<String> paths = determinePaths(methodResult);
-
-        return paths.stream().map(PathNormalizer::normalize).collect(Collectors.joining("/"));
+        return getPath(determineSubResourceLocators(methodResult), methodResult);
     }
 
     /**
-     * Determines all single paths of the method result recursively. All parent class and method results are analyzed as well.
+     * Returns the normalized path (without forward-slashes at the beginning or the end) of the given method result
+     * which is reached via the given sub-resource locators. The locators have to be passed explicitly as sub-resource classes
+     * may be shared by several locators.
      *
-     * @param methodResult The method result
-     * @return All single path pieces
+     * @param subResourceLocators The sub-resource locators from the root resource to the class of the method (empty for root resource methods)
+     * @param methodResult        The method result
+     * @return The normalized full path of the method
      */
-    private static List<String> determinePaths(final MethodResult methodResult) {
+    static String getPath(final List<MethodResult> subResourceLocators, final MethodResult methodResult) {
         final List<String> paths = new LinkedList<>();
-        MethodResult currentMethod = methodResult;
 
-        while (true) {
-            addNonBlank(currentMethod.getPath(), paths);
-            final ClassResult parentClass = currentMethod.getParentResource();
+        final ClassResult rootClass = (subResourceLocators.isEmpty() ? methodResult : subResourceLocators.get(0)).getParentResource();
+        if (rootClass != null)
+            addNonBlank(rootClass.getResourcePath(), paths);
 
-            if (parentClass == null)
-                break;
+        subResourceLocators.forEach(l -> addNonBlank(l.getPath(), paths));
+        addNonBlank(methodResult.getPath(), paths);
 
-            currentMethod = parentClass.getParentSubResourceLocator();
-            if (currentMethod == null) {
-                addNonBlank(parentClass.getResourcePath(), paths);
-                break;
-            }
+        return paths.stream().map(PathNormalizer::normalize).collect(Collectors.joining("/"));
+    }
+
+    /**
+     * Determines the sub-resource locators of the method result by following the (first) parent locators.
+     *
+     * @param methodResult The method result
+     * @return The sub-resource locators, starting at the root resource
+     */
+    private static List<MethodResult> determineSubResourceLocators(final MethodResult methodResult) {
+        final LinkedList<MethodResult> locators = new LinkedList<>();
+        ClassResult parentClass = methodResult.getParentResource();
+
+        while (parentClass != null && parentClass.getParentSubResourceLocator() != null) {
+            final MethodResult locator = parentClass.getParentSubResourceLocator();
+            locators.addFirst(locator);
+            parentClass = locator.getParentResource();
         }
 
-        Collections.reverse(paths);
-        return paths;
+        return locators;
     }
 
     /**
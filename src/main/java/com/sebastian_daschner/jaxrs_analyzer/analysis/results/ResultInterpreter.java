@@ -28,7 +28,9 @@ import com.sebastian_daschner.jaxrs_analyzer.model.rest.Resources;
 import com.sebastian_daschner.jaxrs_analyzer.model.rest.Response;
 import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
 import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedList;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -44,6 +46,7 @@ public class ResultInterpreter {
     private Resources resources;
     private DynamicTypeAnalyzer dynamicTypeAnalyzer;
     private StringParameterResolver stringParameterResolver;
+    private final LinkedList<MethodResult> subResourceLocators = new LinkedList<>();
 
     /**
      * Interprets the class results.
@@ -51,7 +54,7 @@ public class ResultInterpreter {
      * @param classResults The class results
      * @return All REST resources
      */
-    public Resources interpret(final Set<ClassResult> classResults) {
+    public Resources interpret(final Collection<ClassResult> classResults) {
         resources = new Resources();
         resources.setBasePath(PathNormalizer.getApplicationPath(classResults));
 
@@ -82,12 +85,18 @@ public class ResultInterpreter {
      */
     private void interpretMethodResult(final MethodResult methodResult, final ClassResult classResult) {
         if (methodResult.getSubResource() != null) {
-            interpretClassResult(methodResult.getSubResource());
+            // the sub-resource class result may be shared by several locators
+            subResourceLocators.addLast(methodResult);
+            try {
+                interpretClassResult(methodResult.getSubResource());
+            } finally {
+                subResourceLocators.removeLast();
+            }
             return;
         }
 
         // determine resource of the method
-        final String path = PathNormalizer.getPath(methodResult);
+        final String path = PathNormalizer.getPath(subResourceLocators, methodResult);
 
         final ResourceMethod resourceMethod = interpretResourceMethod(methodResult, classResult);
 
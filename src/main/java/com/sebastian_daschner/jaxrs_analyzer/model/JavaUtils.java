@@ -17,16 +17,19 @@ package com.sebastian_daschner.jaxrs_analyzer.model;
 
 import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
 import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ContextClassReader;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.TypeDecisionCache;
 import static com.sebastian_daschner.jaxrs_analyzer.model.Types.*;
 import com.sebastian_daschner.jaxrs_analyzer.utils.StringUtils;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.TypeVariable;
 import java.util.*;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.objectweb.asm.Type;
@@ -42,6 +45,16 @@ public final class JavaUtils {
 
     public static final String INITIALIZER_NAME = "<init>";
 
+    /**
+     * The reflection lookups of every class, held as long as the class is loaded.
+     */
+    private static final ClassValue<ClassMembers> CLASS_MEMBERS = new ClassValue<ClassMembers>() {
+        @Override
+        protected ClassMembers computeValue(final Class<?> type) {
+            return new ClassMembers(type);
+        }
+    };
+
     private JavaUtils() {
         throw new UnsupportedOperationException();
     }
@@ -64,10 +77,7 @@ public final class JavaUtils {
      * compared by FQ class name.
      */
     public static <A extends Annotation> A getAnnotation(final AnnotatedElement annotatedElement, final Class<A> annotationClass) {
-        final Optional<Annotation> annotation = Stream.of(annotatedElement.getAnnotations())
-                .filter(a -> a.annotationType().getName().equals(annotationClass.getName()))
-                .findAny();
-        return (A) annotation.orElse(null);
+        return (A) getAnnotationsByName(annotatedElement).get(annotationClass.getName());
     }
 
     /**
@@ -77,7 +87,34 @@ public final class JavaUtils {
      * compared by FQ class name.
      */
     public static boolean isAnnotationPresent(final AnnotatedElement annotatedElement, final Class<?> annotationClass) {
-        return Stream.of(annotatedElement.getAnnotations()).map(Annotation::annotationType).map(Class::getName).anyMatch(n -> n.equals(annotationClass.getName()));
+        return getAnnotationsByName(annotatedElement).containsKey(annotationClass.getName());
+    }
+
+    /**
+     * Returns the annotations of the element by their fully-qualified type names.
+     * The annotations of classes, methods, fields and constructors are memoized per element.
+     */
+    private static Map<String, Annotation> getAnnotationsByName(final AnnotatedElement annotatedElement) {
+        final Class<?> declaringClass = getDeclaringClass(annotatedElement);
+        if (declaringClass == null)
+            return mapAnnotationsByName(annotatedElement);
+        return CLASS_MEMBERS.get(declaringClass).getAnnotations(annotatedElement);
+    }
+
+    private static Class<?> getDeclaringClass(final AnnotatedElement annotatedElement) {
+        if (annotatedElement instanceof Class)
+            return (Class<?>) annotatedElement;
+        if (annotatedElement instanceof Member)
+            return ((Member) annotatedElement).getDeclaringClass();
+        return null;
+    }
+
+    private static Map<String, Annotation> mapAnnotationsByName(final AnnotatedElement annotatedElement) {
+        final Map<String, Annotation> annotations = new HashMap<>();
+        for (final Annotation annotation : annotatedElement.getAnnotations()) {
+            annotations.putIfAbsent(annotation.annotationType().getName(), annotation);
+        }
+        return annotations;
     }
 
     /**
@@ -115,6 +152,10 @@ public final class JavaUtils {
             return secondType;
         }
 
+        return TypeDecisionCache.getInstance().isMostSpecific(firstType, secondType, (f, s) -> resolveMostSpecific(f, s) == f) ? firstType : secondType;
+    }
+
+    private static String resolveMostSpecific(final String firstType, final String secondType) {
         final List<String> firstTypeParameters = getTypeParameters(firstType);
         final List<String> secondTypeParameters = getTypeParameters(secondType);
         final boolean firstTypeParameterized = !firstTypeParameters.isEmpty();
@@ -219,23 +260,25 @@ public final class JavaUtils {
             return true;
         }
 
-        final boolean firstTypeArray = leftType.charAt(0) == '[';
-        if (firstTypeArray ^ rightType.charAt(0) == '[') {
+        return TypeDecisionCache.getInstance().isAssignableTo(leftType, rightType, JavaUtils::resolveAssignable);
+    }
+
+    private static boolean resolveAssignable(final String leftType, final String rightType) {
+        final TypeDescriptor left = TypeDescriptor.of(leftType);
+        final TypeDescriptor right = TypeDescriptor.of(rightType);
+        final boolean firstTypeArray = left.isArray();
+        if (firstTypeArray ^ right.isArray()) {
             return false;
         }
 
-        final Class<?> leftClass = loadClassFromType(leftType);
-        final Class<?> rightClass = loadClassFromType(rightType);
+        final Class<?> leftClass = loadClassFromName(left.getClassName());
+        final Class<?> rightClass = loadClassFromName(right.getClassName());
         if (leftClass == null || rightClass == null) {
             return false;
         }
 
-        final boolean bothTypesParameterized = hasTypeParameters(leftType) && hasTypeParameters(rightType);
-        return rightClass.isAssignableFrom(leftClass) && (firstTypeArray || !bothTypesParameterized || getTypeParameters(leftType).equals(getTypeParameters(rightType)));
-    }
-
-    private static boolean hasTypeParameters(final String type) {
-        return type.indexOf('<') >= 0;
+        final boolean bothTypesParameterized = left.hasTypeArguments() && right.hasTypeArguments();
+        return rightClass.isAssignableFrom(leftClass) && (firstTypeArray || !bothTypesParameterized || left.getTypeParameters().equals(right.getTypeParameters()));
     }
 
     /**
@@ -248,6 +291,10 @@ public final class JavaUtils {
      * type.
      */
     public static String toClassName(final String type) {
+        return TypeDescriptor.of(type).getClassName();
+    }
+
+    static String parseClassName(final String type) {
         switch (type.charAt(0)) {
             case 'V':
                 return CLASS_PRIMITIVE_VOID;
@@ -274,7 +321,7 @@ public final class JavaUtils {
             case '[':
             case '+':
             case '-':
-                return toClassName(type.substring(1));
+                return parseClassName(type.substring(1));
             case 'T':
                 // TODO handle type variables
                 return CLASS_OBJECT;
@@ -327,6 +374,10 @@ public final class JavaUtils {
      * the type is not parametrized.
      */
     public static List<String> getTypeParameters(final String type) {
+        return TypeDescriptor.of(type).getTypeParameters();
+    }
+
+    static List<String> parseTypeParameters(final String type) {
         if (type.charAt(0) != 'L') {
             return emptyList();
         }
@@ -428,13 +479,13 @@ public final class JavaUtils {
         return findMethod(loadedClass, methodName, signature);
     }
 
+    /**
+     * Returns the declared method with the given name and parameter types.
+     * The return types are not taken into account (could be overloaded method w/ different return type).
+     * The declared methods of every class are indexed once.
+     */
     public static Method findMethod(final Class<?> loadedClass, final String methodName, final String signature) {
-        final List<String> parameters = getParameters(signature);
-        return Stream.of(loadedClass.getDeclaredMethods()).filter(m -> m.getName().equals(methodName)
-                && m.getParameterCount() == parameters.size()
-                // return types are not taken into account (could be overloaded method w/ different return type)
-                && Objects.equals(getParameters(getMethodSignature(m)), parameters)
-        ).findAny().orElse(null);
+        return CLASS_MEMBERS.get(loadedClass).getMethod(methodName, getParameters(signature));
     }
 
     public static String getMethodSignature(final String returnType, final String... parameterTypes) {
@@ -530,11 +581,15 @@ public final class JavaUtils {
      * types are supported.
      */
     public static List<String> getParameters(final String methodDesc) {
-//        final String[] types = resolveMethodSignature(methodDesc);
-//        return IntStream.range(0, types.length).mapToObj(i -> types[i]).collect(Collectors.toList());
         if (methodDesc == null) {
             return emptyList();
         }
+        return TypeDescriptor.of(methodDesc).getParameters();
+    }
+
+    static List<String> parseParameters(final String methodDesc) {
+//        final String[] types = resolveMethodSignature(methodDesc);
+//        return IntStream.range(0, types.length).mapToObj(i -> types[i]).collect(Collectors.toList());
 
         final char[] buffer = methodDesc.toCharArray();
         final List<String> args = new ArrayList<>();
@@ -682,4 +737,50 @@ public final class JavaUtils {
         // exclude java, javax, etc. packages
         return Types.PRIMITIVE_TYPES.contains(type) || type.startsWith("Ljava/") || type.startsWith("Ljavax/") || type.startsWith("[");
     }
+
+    /**
+     * The memoized reflection lookups of a class: its declared methods by name and parameter types
+     * and the annotations of the class and its members. This class is thread-safe.
+     */
+    private static class ClassMembers {
+
+        private final Class<?> type;
+        private final Map<AnnotatedElement, Map<String, Annotation>> annotations = new ConcurrentHashMap<>();
+        private volatile Map<String, Method> methods;
+
+        ClassMembers(final Class<?> type) {
+            this.type = type;
+        }
+
+        Method getMethod(final String methodName, final List<String> parameters) {
+            Map<String, Method> methods = this.methods;
+            if (methods == null) {
+                methods = new HashMap<>();
+                for (final Method method : type.getDeclaredMethods()) {
+                    final List<String> methodParameters = getParameters(getMethodSignature(method));
+                    // the first matching method is found, as by a linear search
+                    if (methodParameters.size() == method.getParameterCount())
+                        methods.putIfAbsent(methodKey(method.getName(), methodParameters), method);
+                }
+                this.methods = methods;
+            }
+            return methods.get(methodKey(methodName, parameters));
+        }
+
+        Map<String, Annotation> getAnnotations(final AnnotatedElement annotatedElement) {
+            final Map<String, Annotation> elementAnnotations = annotations.get(annotatedElement);
+            if (elementAnnotations != null)
+                return elementAnnotations;
+            final Map<String, Annotation> mappedAnnotations = mapAnnotationsByName(annotatedElement);
+            annotations.putIfAbsent(annotatedElement, mappedAnnotations);
+            return mappedAnnotations;
+        }
+
+        private static String methodKey(final String methodName, final List<String> parameters) {
+            // the type signatures are self-delimiting
+            return methodName + '(' + String.join("", parameters) + ')';
+        }
+
+    }
+
 }
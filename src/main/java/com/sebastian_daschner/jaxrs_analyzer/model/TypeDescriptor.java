@@ -0,0 +1,129 @@
+package com.sebastian_daschner.jaxrs_analyzer.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An interned type or method signature, e.g. {@code Ljava/util/List<Ljava/lang/String;>;} or {@code (Ljava/lang/String;I)V}.
+ * Every distinct signature is represented by one instance; the class name, type parameters and method parameters are parsed once on first access.
+ * The symbol table is bounded and dropped completely when it's full, which only costs re-parsing.
+ * This class is thread-safe.
+ *
+ * @author Sebastian Daschner
+ */
+public final class TypeDescriptor {
+
+    static final int MAX_SIZE = 1 << 16;
+
+    private static final ConcurrentMap<String, TypeDescriptor> DESCRIPTORS = new ConcurrentHashMap<>();
+
+    private final String signature;
+    private volatile String className;
+    private volatile List<String> typeParameters;
+    private volatile List<String> parameters;
+
+    private TypeDescriptor(final String signature) {
+        this.signature = signature;
+    }
+
+    /**
+     * Returns the interned descriptor of the given signature.
+     *
+     * @param signature The type signature or method signature
+     * @return The descriptor
+     */
+    public static TypeDescriptor of(final String signature) {
+        final TypeDescriptor descriptor = DESCRIPTORS.get(signature);
+        if (descriptor != null)
+            return descriptor;
+
+        if (DESCRIPTORS.size() >= MAX_SIZE)
+            DESCRIPTORS.clear();
+        return DESCRIPTORS.computeIfAbsent(signature, TypeDescriptor::new);
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * Returns the erased class name, e.g. {@code java/util/List} (see {@link JavaUtils#toClassName(String)}).
+     *
+     * @throws IllegalArgumentException If the signature is not a reference or array type
+     */
+    public String getClassName() {
+        String className = this.className;
+        if (className == null) {
+            className = JavaUtils.parseClassName(signature);
+            this.className = className;
+        }
+        return className;
+    }
+
+    /**
+     * Returns the type parameters of a parameterized type (see {@link JavaUtils#getTypeParameters(String)}).
+     *
+     * @return The unmodifiable type parameters or an empty list
+     */
+    public List<String> getTypeParameters() {
+        List<String> typeParameters = this.typeParameters;
+        if (typeParameters == null) {
+            typeParameters = Collections.unmodifiableList(JavaUtils.parseTypeParameters(signature));
+            this.typeParameters = typeParameters;
+        }
+        return typeParameters;
+    }
+
+    /**
+     * Returns the parameter types of a method signature (see {@link JavaUtils#getParameters(String)}).
+     *
+     * @return The unmodifiable parameter types
+     */
+    public List<String> getParameters() {
+        List<String> parameters = this.parameters;
+        if (parameters == null) {
+            parameters = Collections.unmodifiableList(JavaUtils.parseParameters(signature));
+            this.parameters = parameters;
+        }
+        return parameters;
+    }
+
+    public boolean isArray() {
+        return signature.charAt(0) == '[';
+    }
+
+    /**
+     * Checks whether the signature contains type arguments, e.g. {@code Ljava/util/List<Ljava/lang/String;>;}.
+     */
+    public boolean hasTypeArguments() {
+        return signature.indexOf('<') >= 0;
+    }
+
+    static void clear() {
+        DESCRIPTORS.clear();
+    }
+
+    static int size() {
+        return DESCRIPTORS.size();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return signature.equals(((TypeDescriptor) o).signature);
+    }
+
+    @Override
+    public int hashCode() {
+        return signature.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return signature;
+    }
+
+}
@@ -34,11 +34,23 @@ public class Element {
     private final Set<String> types;
 
     public Element() {
-        this(Collections.singleton(OBJECT));
+        this(OBJECT);
+    }
+
+    public Element(final String type) {
+        types = new HashSet<>();
+        types.add(type);
+        possibleValues = new HashSet<>();
     }
 
     public Element(final String type, final Object... values) {
-        this(Collections.singleton(type), values);
+        this(type);
+
+        // allow null as vararg argument
+        if (values == null)
+            possibleValues.add(null);
+        else
+            Collections.addAll(possibleValues, values);
     }
 
     public Element(final Set<String> types, final Object... values) {
@@ -31,4 +31,11 @@ public interface IdentifiableMethod extends Method {
      */
     boolean matches(final MethodIdentifier identifier);
 
+    /**
+     * Returns the identifier of this method.
+     *
+     * @return The method signature
+     */
+    MethodIdentifier getIdentifier();
+
 }
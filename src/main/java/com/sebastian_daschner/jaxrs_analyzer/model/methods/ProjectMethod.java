@@ -42,6 +42,11 @@ public class ProjectMethod implements IdentifiableMethod {
         return this.identifier.equals(identifier);
     }
 
+    @Override
+    public MethodIdentifier getIdentifier() {
+        return identifier;
+    }
+
     @Override
     public Element invoke(final Element object, final List<Element> arguments) {
         return new InjectableArgumentMethodSimulator().simulate(arguments, instructions, identifier);
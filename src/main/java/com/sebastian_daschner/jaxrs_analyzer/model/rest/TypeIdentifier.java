@@ -31,6 +31,16 @@ public abstract class TypeIdentifier {
         return new DynamicTypeIdentifier(dynamicCounter.incrementAndGet());
     }
 
+    /**
+     * Returns the dynamic type identifier with the given number.
+     *
+     * @param number The number, unique within the analysis
+     * @return The type identifier
+     */
+    public static TypeIdentifier ofDynamic(final int number) {
+        return new DynamicTypeIdentifier(number);
+    }
+
     private static class JavaTypeIdentifier extends TypeIdentifier {
         private final String type;
 
@@ -122,7 +122,9 @@ public class MethodResult {
 
     public void setSubResource(final ClassResult subResource) {
         this.subResource = subResource;
-        subResource.setParentSubResourceLocator(this);
+        // a sub-resource which is shared by several locators keeps its first locator
+        if (subResource.getParentSubResourceLocator() == null)
+            subResource.setParentSubResourceLocator(this);
     }
 
     public ClassResult getParentResource() {
@@ -0,0 +1,157 @@
+package com.sebastian_daschner.jaxrs_analyzer;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.project.classes.testclasses.TestClass1;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class AnalyzerDaemonTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path tokens;
+    private AnalyzerDaemon daemon;
+    private Thread daemonThread;
+
+    @Before
+    public void setUp() throws IOException {
+        tokens = folder.newFolder("tokens").toPath();
+        daemon = new AnalyzerDaemon(0, tokens, Collections.singleton("-o"));
+        daemonThread = new Thread(daemon::run);
+        daemonThread.start();
+    }
+
+    @After
+    public void tearDown() throws IOException, InterruptedException {
+        daemon.close();
+        daemonThread.join();
+    }
+
+    @Test(timeout = 30_000)
+    public void testAnalyze() throws IOException {
+        final Path classes = folder.newFolder("classes").toPath();
+        final Path file = classes.resolve(TestClass1.class.getName().replace('.', '/') + ".class");
+        Files.createDirectories(file.getParent());
+        try (final InputStream stream = TestClass1.class.getResourceAsStream(TestClass1.class.getSimpleName() + ".class")) {
+            Files.copy(stream, file);
+        }
+        final Path libraries = folder.newFolder("libraries").toPath();
+
+        for (int i = 0; i < 2; i++) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final int status = AnalyzerDaemonClient.analyze(daemon.getPort(), tokens, folder.getRoot().toPath(),
+                    Arrays.asList("-b", "plaintext", "-cp", "libraries", "classes"), output, new PrintStream(new ByteArrayOutputStream()));
+
+            assertThat(status, is(0));
+            assertThat(new String(output.toByteArray(), StandardCharsets.UTF_8), containsString("GET test"));
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testInvalidArguments() throws IOException {
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        final int status = AnalyzerDaemonClient.analyze(daemon.getPort(), tokens, folder.getRoot().toPath(),
+                Collections.singletonList("missing"), new ByteArrayOutputStream(), new PrintStream(errors, true));
+
+        assertThat(status, is(2));
+        assertThat(new String(errors.toByteArray(), StandardCharsets.UTF_8), containsString("doesn't exist"));
+    }
+
+    @Test(timeout = 30_000)
+    public void testRestrictedOptions() throws IOException {
+        folder.newFolder("classes");
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        final int status = AnalyzerDaemonClient.analyze(daemon.getPort(), tokens, folder.getRoot().toPath(),
+                Arrays.asList("--initializeClasses", "classes"), new ByteArrayOutputStream(), new PrintStream(errors, true));
+
+        assertThat(status, is(2));
+        assertThat(new String(errors.toByteArray(), StandardCharsets.UTF_8), containsString("--initializeClasses is not allowed"));
+    }
+
+    @Test(timeout = 30_000)
+    public void testGlobalOptions() throws IOException {
+        folder.newFolder("classes");
+        for (final List<String> args : Arrays.asList(Arrays.asList("-X", "classes"), Arrays.asList("-e", "ISO-8859-1", "classes"))) {
+            final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+            final int status = AnalyzerDaemonClient.analyze(daemon.getPort(), tokens, folder.getRoot().toPath(),
+                    args, new ByteArrayOutputStream(), new PrintStream(errors, true));
+
+            assertThat(status, is(2));
+            assertThat(new String(errors.toByteArray(), StandardCharsets.UTF_8), containsString("-X and -e are not supported"));
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testRequestTimeout() throws IOException, InterruptedException {
+        try (final AnalyzerDaemon timingOutDaemon = new AnalyzerDaemon(0, tokens, Collections.emptySet(), 100)) {
+            final Thread thread = new Thread(timingOutDaemon::run);
+            thread.start();
+
+            try (final Socket socket = new Socket(InetAddress.getLoopbackAddress(), timingOutDaemon.getPort())) {
+                // the daemon closes the connection which doesn't send a request
+                assertThat(socket.getInputStream().read(), is(-1));
+            } finally {
+                timingOutDaemon.close();
+                thread.join();
+            }
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testInvalidToken() throws IOException {
+        Files.write(daemon.getTokenFile(), "invalid".getBytes(StandardCharsets.US_ASCII));
+
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        final int status = AnalyzerDaemonClient.analyze(daemon.getPort(), tokens, folder.getRoot().toPath(),
+                Collections.singletonList("missing"), new ByteArrayOutputStream(), new PrintStream(errors, true));
+
+        assertThat(status, is(3));
+        assertThat(new String(errors.toByteArray(), StandardCharsets.UTF_8), containsString("Invalid daemon token"));
+    }
+
+    @Test
+    public void testTokenFile() throws IOException {
+        assertThat(Files.isRegularFile(daemon.getTokenFile()), is(true));
+        if (Files.getFileStore(daemon.getTokenFile()).supportsFileAttributeView("posix"))
+            assertThat(Files.getPosixFilePermissions(daemon.getTokenFile()), is(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE)));
+    }
+
+    @Test(timeout = 30_000)
+    public void testOversizedFrame() throws IOException {
+        try (final Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort());
+             final DataOutputStream request = new DataOutputStream(socket.getOutputStream())) {
+            request.writeInt(DaemonProtocol.VERSION);
+            request.writeInt(Integer.MAX_VALUE);
+            request.flush();
+
+            // the daemon closes the connection
+            assertThat(socket.getInputStream().read(), is(-1));
+        }
+
+        testInvalidArguments();
+    }
+
+}
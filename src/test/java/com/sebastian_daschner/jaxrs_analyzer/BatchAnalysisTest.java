@@ -0,0 +1,77 @@
+package com.sebastian_daschner.jaxrs_analyzer;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.project.classes.testclasses.TestClass1;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class BatchAnalysisTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testAnalyze() throws IOException {
+        copyClass(folder.newFolder("first").toPath());
+        copyClass(folder.newFolder("second").toPath());
+        final Path common = folder.newFolder("common").toPath();
+        folder.newFolder("extra");
+
+        final Path manifest = folder.getRoot().toPath().resolve("batch.json");
+        Files.write(manifest, ("{\"parallelism\": 2, \"modules\": [" +
+                "{\"projectPaths\": [\"first\"], \"classPaths\": [\"common\", \"extra\"], \"backend\": \"plaintext\", \"output\": \"first.txt\"}," +
+                "{\"projectPaths\": [\"second\"], \"classPaths\": [\"common\"], \"output\": \"second.json\"," +
+                " \"arguments\": [\"-n\", \"second\"]}" +
+                "]}").getBytes(StandardCharsets.UTF_8));
+
+        final BatchAnalysis cut = BatchAnalysis.read(manifest);
+
+        assertThat(cut.getSharedClassPaths(), is(Collections.singleton(common)));
+        assertThat(cut.analyze(), is(0));
+        assertThat(read("first.txt"), containsString("GET test"));
+        assertThat(read("second.json"), containsString("\"title\": \"second\""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingOutput() throws IOException {
+        copyClass(folder.newFolder("first").toPath());
+        final Path manifest = folder.getRoot().toPath().resolve("batch.json");
+        Files.write(manifest, "{\"modules\": [{\"projectPaths\": [\"first\"]}]}".getBytes(StandardCharsets.UTF_8));
+
+        BatchAnalysis.read(manifest);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGlobalOptions() throws IOException {
+        copyClass(folder.newFolder("first").toPath());
+        final Path manifest = folder.getRoot().toPath().resolve("batch.json");
+        Files.write(manifest, "{\"modules\": [{\"projectPaths\": [\"first\"], \"output\": \"first.json\", \"arguments\": [\"-e\", \"ISO-8859-1\"]}]}"
+                .getBytes(StandardCharsets.UTF_8));
+
+        BatchAnalysis.read(manifest);
+    }
+
+    private String read(final String file) throws IOException {
+        return new String(Files.readAllBytes(folder.getRoot().toPath().resolve(file)), StandardCharsets.UTF_8);
+    }
+
+    private static void copyClass(final Path directory) throws IOException {
+        final Path file = directory.resolve(TestClass1.class.getName().replace('.', '/') + ".class");
+        Files.createDirectories(file.getParent());
+        try (final InputStream stream = TestClass1.class.getResourceAsStream(TestClass1.class.getSimpleName() + ".class")) {
+            Files.copy(stream, file);
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import com.sebastian_daschner.jaxrs_analyzer.backend.plaintext.PlainTextBackend;
 import com.sebastian_daschner.jaxrs_analyzer.backend.swagger.SwaggerBackend;
 import org.junit.Test;
 
+import java.nio.file.Paths;
 import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -16,21 +17,21 @@ public class MainTest {
 
     @Test
     public void shouldAddBinaryAttributes() {
-        final Map<String, String> conf = Main.addAttribute("att1 = val1");
+        final Map<String, String> conf = new Main(Paths.get("")).addAttribute("att1 = val1");
         assertThat(conf.containsKey("att1"), is(true));
         assertThat(conf.get("att1"), is("val1"));
     }
 
     @Test
     public void shouldAddSingleAttributes() {
-        final Map<String, String> conf = Main.addAttribute("att1");
+        final Map<String, String> conf = new Main(Paths.get("")).addAttribute("att1");
         assertThat(conf.containsKey("att1"), is(true));
         assertThat(conf.get("att1"), is(""));
     }
 
     @Test
     public void shouldAddEmptyAttributeValues() {
-        final Map<String, String> conf = Main.addAttribute("att1=");
+        final Map<String, String> conf = new Main(Paths.get("")).addAttribute("att1=");
         assertThat(conf.containsKey("att1"), is(true));
         assertThat(conf.get("att1"), is(""));
     }
@@ -0,0 +1,113 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.simulation.MethodPool;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ContextClassReader;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ProjectClassModelPool;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+public class AnalysisContextTest {
+
+    @Test
+    public void testScopes() {
+        final AnalysisContext defaultContext = AnalysisContext.current();
+
+        try (final AnalysisContext first = new AnalysisContext();
+             final AnalysisContext second = new AnalysisContext()) {
+
+            try (final AnalysisContext.Scope firstScope = first.enter()) {
+                assertThat(AnalysisContext.current(), is(sameInstance(first)));
+                assertThat(JobRegistry.getInstance(), is(sameInstance(first.getJobRegistry())));
+                assertThat(MethodPool.getInstance(), is(sameInstance(first.getMethodPool())));
+                assertThat(ProjectClassModelPool.getInstance(), is(sameInstance(first.getClassModelPool())));
+                assertThat(ContextClassReader.getClassLoader(), is(sameInstance(first.getClassLoader())));
+
+                try (final AnalysisContext.Scope secondScope = second.enter()) {
+                    assertThat(AnalysisContext.current(), is(sameInstance(second)));
+                    assertThat(JobRegistry.getInstance(), is(sameInstance(second.getJobRegistry())));
+                }
+
+                assertThat(AnalysisContext.current(), is(sameInstance(first)));
+            }
+        }
+
+        assertThat(AnalysisContext.current(), is(sameInstance(defaultContext)));
+    }
+
+    @Test
+    public void testIsolation() {
+        try (final AnalysisContext first = new AnalysisContext();
+             final AnalysisContext second = new AnalysisContext()) {
+            first.setClassInitializationEnabled(true);
+            first.getJobRegistry().analyzeResourceClass("com.sebastian_daschner.Test", new ClassResult());
+
+            assertThat(second.isClassInitializationEnabled(), is(false));
+            assertThat(second.getJobRegistry().nextUnhandledClass(), is(nullValue()));
+            assertThat(first.getJobRegistry().nextUnhandledClass().getLeft(), is("com.sebastian_daschner.Test"));
+        }
+    }
+
+    @Test
+    public void testClear() throws IOException {
+        try (final AnalysisContext context = new AnalysisContext()) {
+            final MethodPool methodPool = context.getMethodPool();
+            final String className = AnalysisContextTest.class.getName();
+
+            try (final AnalysisContext.Scope scope = context.enter()) {
+                new ContextClassReader(className);
+                context.getClassModelPool().getClassModel(className);
+            }
+            context.getJobRegistry().analyzeResourceClass(className, new ClassResult());
+            assertThat(context.getClassBytesCache().getSize() > 0, is(true));
+
+            context.clear();
+
+            assertThat(context.getClassBytesCache().getSize(), is(0L));
+            assertThat(context.getJobRegistry().nextUnhandledClass(), is(nullValue()));
+            assertThat(context.getMethodPool(), is(not(sameInstance(methodPool))));
+        }
+    }
+
+    @Test
+    public void testReloadClasses() throws IOException {
+        try (final AnalysisContext context = new AnalysisContext()) {
+            final URL libraryPath = Paths.get("target", "classes").toUri().toURL();
+            final URL projectPath = Paths.get("target", "test-classes").toUri().toURL();
+            context.addClassPath(libraryPath);
+            context.addProjectClassPath(projectPath);
+            final ClassLoader classLoader = context.getClassLoader();
+            final String changedClass = AnalysisContextTest.class.getName();
+            final String unchangedClass = ProjectAnalyzerTest.class.getName();
+
+            try (final AnalysisContext.Scope scope = context.enter()) {
+                new ContextClassReader(changedClass);
+                new ContextClassReader(unchangedClass);
+            }
+            final long misses = context.getClassBytesCache().getMisses();
+
+            context.reloadClasses(Collections.singleton(changedClass));
+
+            assertThat(context.getClassLoader(), is(not(sameInstance(classLoader))));
+            assertThat(context.getClassLoader().getParent(), is(sameInstance(classLoader.getParent())));
+            assertThat(((URLClassLoader) context.getClassLoader()).getURLs(), is(new URL[]{projectPath}));
+            assertThat(((URLClassLoader) context.getClassLoader().getParent()).getURLs(), is(new URL[]{libraryPath}));
+
+            try (final AnalysisContext.Scope scope = context.enter()) {
+                new ContextClassReader(unchangedClass);
+                assertThat(context.getClassBytesCache().getMisses(), is(misses));
+                new ContextClassReader(changedClass);
+                assertThat(context.getClassBytesCache().getMisses(), is(misses + 1));
+            }
+        }
+    }
+
+}
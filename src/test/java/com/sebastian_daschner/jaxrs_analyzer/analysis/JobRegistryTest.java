@@ -0,0 +1,96 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
+import com.sebastian_daschner.jaxrs_analyzer.utils.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class JobRegistryTest {
+
+    private JobRegistry cut;
+
+    @Before
+    public void setUp() {
+        cut = new JobRegistry();
+    }
+
+    @Test
+    public void testRootResources() {
+        final ClassResult first = new ClassResult();
+        final ClassResult second = new ClassResult();
+        cut.analyzeResourceClass("com.sebastian_daschner.Root", first);
+        cut.analyzeResourceClass("com.sebastian_daschner.Root", second);
+
+        assertThat(cut.nextUnhandledClass().getRight(), is(sameInstance(first)));
+        assertThat(cut.nextUnhandledClass().getRight(), is(sameInstance(second)));
+        assertThat(cut.nextUnhandledClass(), is(nullValue()));
+    }
+
+    @Test
+    public void testSharedSubResource() {
+        final ClassResult root = new ClassResult();
+        final MethodResult firstLocator = addLocator(root);
+        final MethodResult secondLocator = addLocator(root);
+
+        cut.analyzeResourceClass("com.sebastian_daschner.Sub", firstLocator.getSubResource());
+        cut.analyzeResourceClass("com.sebastian_daschner.Sub", secondLocator.getSubResource());
+
+        final Pair<String, ClassResult> job = cut.nextUnhandledClass();
+        assertThat(job.getRight(), is(sameInstance(firstLocator.getSubResource())));
+        assertThat(cut.nextUnhandledClass(), is(nullValue()));
+
+        assertThat(secondLocator.getSubResource(), is(sameInstance(job.getRight())));
+        assertThat(job.getRight().getParentSubResourceLocator(), is(sameInstance(firstLocator)));
+    }
+
+    @Test
+    public void testRecursiveSubResources() {
+        final ClassResult root = new ClassResult();
+        final MethodResult rootLocator = addLocator(root);
+        cut.analyzeResourceClass("com.sebastian_daschner.A", rootLocator.getSubResource());
+        final ClassResult a = cut.nextUnhandledClass().getRight();
+
+        // A -> B
+        final MethodResult aLocator = addLocator(a);
+        cut.analyzeResourceClass("com.sebastian_daschner.B", aLocator.getSubResource());
+        final ClassResult b = cut.nextUnhandledClass().getRight();
+
+        // B -> A, B -> B
+        final MethodResult bLocator = addLocator(b);
+        final MethodResult selfLocator = addLocator(b);
+        final ClassResult unresolvedA = bLocator.getSubResource();
+        final ClassResult unresolvedB = selfLocator.getSubResource();
+        cut.analyzeResourceClass("com.sebastian_daschner.A", unresolvedA);
+        cut.analyzeResourceClass("com.sebastian_daschner.B", unresolvedB);
+
+        assertThat(cut.nextUnhandledClass(), is(nullValue()));
+        assertThat(bLocator.getSubResource(), is(sameInstance(unresolvedA)));
+        assertThat(selfLocator.getSubResource(), is(sameInstance(unresolvedB)));
+    }
+
+    @Test
+    public void testClear() {
+        final ClassResult root = new ClassResult();
+        cut.analyzeResourceClass("com.sebastian_daschner.Sub", addLocator(root).getSubResource());
+        cut.nextUnhandledClass();
+        cut.clear();
+
+        final ClassResult subResource = addLocator(root).getSubResource();
+        cut.analyzeResourceClass("com.sebastian_daschner.Sub", subResource);
+        assertThat(cut.nextUnhandledClass().getRight(), is(sameInstance(subResource)));
+    }
+
+    private static MethodResult addLocator(final ClassResult classResult) {
+        final MethodResult locator = new MethodResult();
+        locator.setSubResource(new ClassResult());
+        classResult.add(locator);
+        return locator;
+    }
+
+}
@@ -17,6 +17,7 @@
 package com.sebastian_daschner.jaxrs_analyzer.analysis;
 
 import com.sebastian_daschner.jaxrs_analyzer.LogProvider;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.AnnotationIndex;
 import com.sebastian_daschner.jaxrs_analyzer.builder.ResourceMethodBuilder;
 import com.sebastian_daschner.jaxrs_analyzer.builder.ResponseBuilder;
 import com.sebastian_daschner.jaxrs_analyzer.model.Types;
@@ -35,6 +36,7 @@ import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
 import javax.tools.ToolProvider;
 import static org.junit.Assert.*;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -68,6 +70,11 @@ public class ProjectAnalyzerTest {
         classUnderTest = new ProjectAnalyzer(classPaths);
     }
 
+    @After
+    public void tearDown() {
+        classUnderTest.close();
+    }
+
     @Test
     public void test() {
         final long startTime = System.currentTimeMillis();
@@ -83,6 +90,41 @@ public class ProjectAnalyzerTest {
         assertEquals(expectedResources.getTypeRepresentations().size(), actualResources.getTypeRepresentations().size());
     }
 
+    @Test
+    public void testAnnotationIndex() {
+        final Resources scannedResources = classUnderTest.analyze(singleton(path), singleton(path), singleton(ignoredRootResource));
+
+        final AnnotationIndex annotationIndex = classUnderTest.createAnnotationIndex(singleton(path));
+        assertTrue(annotationIndex.getRootResources().contains("com.sebastian_daschner.jaxrs_test.SubResources"));
+        assertFalse(annotationIndex.getRootResources().contains("com.sebastian_daschner.jaxrs_test.SomeSubResource"));
+
+        classUnderTest.setAnnotationIndex(annotationIndex);
+        final Resources indexedResources = classUnderTest.analyze(singleton(path), singleton(path), singleton(ignoredRootResource));
+
+        assertEquals(scannedResources.getBasePath(), indexedResources.getBasePath());
+        assertEquals(scannedResources.getResources(), indexedResources.getResources());
+        assertResourceEquals(scannedResources, indexedResources);
+    }
+
+    @Test
+    public void testIncremental() {
+        final AnalysisSnapshot snapshot = classUnderTest.analyzeSnapshot(singleton(path), singleton(path), singleton(ignoredRootResource));
+        final AnalysisSnapshot updatedSnapshot = classUnderTest.analyzeIncrementally(snapshot, singleton("com.sebastian_daschner.jaxrs_test.SomeSubResource"),
+                singleton(path), singleton(path), singleton(ignoredRootResource));
+
+        assertEquals(snapshot.getRootResourceClasses(), updatedSnapshot.getRootResourceClasses());
+        assertEquals(snapshot.getResources().getBasePath(), updatedSnapshot.getResources().getBasePath());
+        assertEquals(snapshot.getResources().getResources(), updatedSnapshot.getResources().getResources());
+        assertResourceEquals(snapshot.getResources(), updatedSnapshot.getResources());
+        assertEquals(snapshot.getResources().getTypeRepresentations().size(), updatedSnapshot.getResources().getTypeRepresentations().size());
+
+        // only the root resources which depend on the changed class are analyzed again
+        final String subResources = "com.sebastian_daschner.jaxrs_test.SubResources";
+        final String jsonResources = "com.sebastian_daschner.jaxrs_test.JsonResources";
+        assertNotSame(snapshot.getRootResults().get(subResources), updatedSnapshot.getRootResults().get(subResources));
+        assertSame(snapshot.getRootResults().get(jsonResources), updatedSnapshot.getRootResults().get(jsonResources));
+    }
+
     private static void assertResourceEquals(final Resources expectedResources, final Resources actualResources) {
         actualResources.getResources().forEach(r -> {
             final Set<ResourceMethod> expectedMethods = expectedResources.getMethods(r);
@@ -0,0 +1,114 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.testclasses.resource.response.TestClass1;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.testclasses.resource.response.TestClass2;
+import com.sebastian_daschner.jaxrs_analyzer.utils.Pair;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ProjectClassScannerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testScanDirectoryAndJar() throws IOException {
+        final Path directory = folder.newFolder("classes").toPath();
+        copyClass(TestClass1.class, directory);
+        copyClass(Pair.class, directory);
+
+        final Path jar = folder.newFile("project.jar").toPath();
+        try (final JarOutputStream stream = new JarOutputStream(Files.newOutputStream(jar))) {
+            addClass(TestClass2.class, stream);
+            addClass(ProjectClassScannerTest.class, stream);
+        }
+
+        final SortedSet<String> expected = new TreeSet<>(Arrays.asList(TestClass1.class.getName(), TestClass2.class.getName()));
+
+        assertThat(new ProjectClassScanner().scan(new HashSet<>(Arrays.asList(directory, jar))), is(expected));
+        assertThat(new ProjectClassScanner(1).scan(new HashSet<>(Arrays.asList(jar, directory))), is(expected));
+    }
+
+    @Test
+    public void testScanWebArchive() throws IOException {
+        final Path war = folder.newFile("project.war").toPath();
+        try (final JarOutputStream stream = new JarOutputStream(Files.newOutputStream(war))) {
+            addClass(TestClass2.class, "WEB-INF/classes/", stream);
+            addClass(Pair.class, "WEB-INF/classes/", stream);
+            stream.putNextEntry(new JarEntry("WEB-INF/lib/library.jar"));
+            final JarOutputStream libraryStream = new JarOutputStream(stream);
+            addClass(TestClass1.class, "", libraryStream);
+            libraryStream.finish();
+            stream.closeEntry();
+        }
+
+        final SortedSet<String> expected = new TreeSet<>(Arrays.asList(TestClass2.class.getName()));
+
+        assertThat(new ProjectClassScanner().scan(new HashSet<>(Arrays.asList(war))), is(expected));
+    }
+
+    @Test
+    public void testScanPartitions() throws IOException {
+        final Path directory = folder.newFolder("classes").toPath();
+        final SortedSet<String> expected = new TreeSet<>();
+        for (int i = 0; i < 1000; i++) {
+            final Path file = directory.resolve("a/b/Class" + i + ".class");
+            Files.createDirectories(file.getParent());
+            try (final InputStream stream = openClass(i % 2 == 0 ? TestClass1.class : Pair.class)) {
+                Files.copy(stream, file);
+            }
+            if (i % 2 == 0)
+                expected.add("a.b.Class" + i);
+        }
+
+        assertThat(new ProjectClassScanner(4).scan(new HashSet<>(Arrays.asList(directory))), is(expected));
+    }
+
+    private static void copyClass(final Class<?> clazz, final Path directory) throws IOException {
+        final Path file = directory.resolve(clazz.getName().replace('.', '/') + ".class");
+        Files.createDirectories(file.getParent());
+        try (final InputStream stream = openClass(clazz)) {
+            Files.copy(stream, file);
+        }
+    }
+
+    private static void addClass(final Class<?> clazz, final JarOutputStream jarStream) throws IOException {
+        addClass(clazz, "", jarStream);
+    }
+
+    private static void addClass(final Class<?> clazz, final String directory, final JarOutputStream jarStream) throws IOException {
+        jarStream.putNextEntry(new JarEntry(directory + clazz.getName().replace('.', '/') + ".class"));
+        try (final InputStream stream = openClass(clazz)) {
+            copy(stream, jarStream);
+        }
+        jarStream.closeEntry();
+    }
+
+    private static InputStream openClass(final Class<?> clazz) {
+        return clazz.getResourceAsStream('/' + clazz.getName().replace('.', '/') + ".class");
+    }
+
+    private static void copy(final InputStream in, final OutputStream out) throws IOException {
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1)
+            out.write(buffer, 0, read);
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ProjectClassWatcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = 10_000)
+    public void testChangedClasses() throws IOException, InterruptedException {
+        final Path directory = folder.newFolder("classes").toPath();
+        writeFile(directory.resolve("com/example/Resource.class"));
+        writeFile(directory.resolve("com/example/Service.class"));
+
+        try (final ProjectClassWatcher watcher = new ProjectClassWatcher(Collections.singleton(directory), 200)) {
+            writeFile(directory.resolve("com/example/Resource.class"));
+            Files.delete(directory.resolve("com/example/Service.class"));
+            writeFile(directory.resolve("com/example/resources.properties"));
+            writeFile(directory.resolve("com/example/sub/SubResource.class"));
+
+            assertThat(watcher.awaitChangedClasses(), is(new HashSet<>(Arrays.asList("com.example.Resource", "com.example.Service",
+                    "com.example.sub.SubResource"))));
+
+            writeFile(directory.resolve("com/example/sub/Other.class"));
+
+            assertThat(watcher.awaitChangedClasses(), is(Collections.singleton("com.example.sub.Other")));
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void testRecreatedClassPath() throws IOException, InterruptedException {
+        final Path directory = folder.newFolder("classes").toPath();
+        writeFile(directory.resolve("com/example/Resource.class"));
+        writeFile(directory.resolve("com/example/Service.class"));
+
+        try (final ProjectClassWatcher watcher = new ProjectClassWatcher(Collections.singleton(directory), 200)) {
+            delete(directory);
+
+            assertThat(watcher.awaitChangedClasses(), is(new HashSet<>(Arrays.asList("com.example.Resource", "com.example.Service"))));
+
+            writeFile(directory.resolve("com/example/Resource.class"));
+
+            assertThat(watcher.awaitChangedClasses(), is(Collections.singleton("com.example.Resource")));
+
+            writeFile(directory.resolve("com/example/Other.class"));
+
+            assertThat(watcher.awaitChangedClasses(), is(Collections.singleton("com.example.Other")));
+        }
+    }
+
+    private static void delete(final Path directory) throws IOException {
+        try (final Stream<Path> paths = Files.walk(directory)) {
+            for (final Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+                Files.delete(path);
+        }
+    }
+
+    private static void writeFile(final Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[]{(byte) 0xCA, (byte) 0xFE});
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.cache.AnalysisCache;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.utils.TestClassUtils;
+import com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class ResourceClassAnalyzerTest {
+
+    private static final String TEST_CLASSES = "com/sebastian_daschner/jaxrs_analyzer/analysis/project/classes/testclasses";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSequential() throws ReflectiveOperationException {
+        assertAnalysis(1, null);
+    }
+
+    @Test
+    public void testParallel() throws ReflectiveOperationException {
+        assertAnalysis(4, null);
+    }
+
+    @Test
+    public void testCached() throws ReflectiveOperationException, IOException {
+        final AnalysisCache analysisCache = new AnalysisCache(folder.newFolder("cache").toPath());
+
+        assertAnalysis(1, analysisCache);
+        assertThat(analysisCache.getHits(), is(0L));
+
+        final long misses = analysisCache.getMisses();
+        assertAnalysis(4, analysisCache);
+        assertThat(analysisCache.getHits(), is(misses));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        new ResourceClassAnalyzer(AnalysisContext.current(), 0);
+    }
+
+    private static void assertAnalysis(final int parallelism, final AnalysisCache analysisCache) throws ReflectiveOperationException {
+        final List<String> testClasses = TestClassUtils.getClasses(TEST_CLASSES).stream()
+                .filter(c -> c.contains("/TestClass")).sorted().collect(Collectors.toList());
+
+        final List<ClassResult> expectedResults = new ArrayList<>();
+        for (final String testClass : testClasses) {
+            expectedResults.add((ClassResult) JavaUtils.loadClassFromName(testClass).getDeclaredMethod("getResult").invoke(null));
+        }
+
+        try (final AnalysisContext analysisContext = new AnalysisContext();
+             final AnalysisContext.Scope scope = analysisContext.enter()) {
+            analysisContext.setAnalysisCache(analysisCache);
+            testClasses.forEach(c -> analysisContext.getJobRegistry().analyzeResourceClass(c, new ClassResult()));
+
+            final List<ClassResult> actualResults = new ResourceClassAnalyzer(analysisContext, parallelism).analyze();
+
+            assertEquals(expectedResults, actualResults);
+        }
+    }
+
+}
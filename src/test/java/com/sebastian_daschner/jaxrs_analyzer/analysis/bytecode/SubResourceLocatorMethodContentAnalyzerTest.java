@@ -1,8 +1,10 @@
 package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode;
 
+import com.sebastian_daschner.jaxrs_analyzer.analysis.AnalysisContext;
 import com.sebastian_daschner.jaxrs_analyzer.analysis.JobRegistry;
 import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ContextClassReader;
-import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ProjectMethodClassVisitor;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ProjectClassModel;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ProjectClassModelVisitor;
 import com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils;
 import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
 import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
@@ -32,7 +34,7 @@ import static org.mockito.Mockito.*;
 @RunWith(Parameterized.class)
 public class SubResourceLocatorMethodContentAnalyzerTest {
 
-    private static JobRegistry originalJobRegistry;
+    private static AnalysisContext.Scope analysisContextScope;
     private final SubResourceLocatorMethodContentAnalyzer classUnderTest;
     private final String testClassSimpleName;
     private final String testClassName;
@@ -82,8 +84,9 @@ public class SubResourceLocatorMethodContentAnalyzerTest {
             final ClassResult parentResource = new ClassResult();
             parentResource.setOriginalClass(testClassName);
             methodResult.setParentResource(parentResource);
-            final ProjectMethodClassVisitor visitor = new ProjectMethodClassVisitor(methodResult, MethodIdentifier.of(testClassName, "method", signature, false));
-            classReader.accept(visitor, ClassReader.EXPAND_FRAMES);
+            final ProjectClassModel classModel = new ProjectClassModel(testClassName);
+            classReader.accept(new ProjectClassModelVisitor(classModel), ClassReader.EXPAND_FRAMES);
+            methodResult.getInstructions().addAll(classModel.getInstructions(MethodIdentifier.of(testClassName, "method", signature, false)));
 
             classUnderTest.analyze(methodResult);
         } catch (Exception e) {
@@ -99,18 +102,23 @@ public class SubResourceLocatorMethodContentAnalyzerTest {
     }
 
     @AfterClass
-    public static void tearDown() throws NoSuchFieldException, IllegalAccessException {
-        injectJobRegistry(originalJobRegistry);
+    public static void tearDown() {
+        if (analysisContextScope != null)
+            analysisContextScope.close();
     }
 
     private static void injectJobRegistry(final JobRegistry jobRegistry) throws NoSuchFieldException, IllegalAccessException {
-        final Field field = JobRegistry.class.getDeclaredField("INSTANCE");
+        final AnalysisContext analysisContext = new AnalysisContext();
+        final Field field = AnalysisContext.class.getDeclaredField("jobRegistry");
         field.setAccessible(true);
-        originalJobRegistry = JobRegistry.getInstance();
         Field modifiersField = Field.class.getDeclaredField("modifiers");
         modifiersField.setAccessible(true);
         modifiersField.setInt(field, field.getModifiers() & ~Modifier.FINAL);
-        field.set(null, jobRegistry);
+        field.set(analysisContext, jobRegistry);
+
+        if (analysisContextScope != null)
+            analysisContextScope.close();
+        analysisContextScope = analysisContext.enter();
     }
 
 }
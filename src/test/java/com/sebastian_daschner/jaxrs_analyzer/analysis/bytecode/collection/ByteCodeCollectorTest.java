@@ -17,11 +17,11 @@
 package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.collection;
 
 import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ContextClassReader;
-import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ProjectMethodClassVisitor;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ProjectClassModel;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ProjectClassModelVisitor;
 import com.sebastian_daschner.jaxrs_analyzer.analysis.utils.TestClassUtils;
 import com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils;
 import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
-import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -77,11 +77,11 @@ public class ByteCodeCollectorTest {
         final Method method = Stream.of(JavaUtils.loadClassFromName(testClass).getDeclaredMethods()).filter(m -> m.getName().equals("method")).findAny().orElseThrow(NoSuchElementException::new);
 
         final ClassReader classReader = new ContextClassReader(testClass);
-        final MethodResult methodResult = new MethodResult();
-        final ProjectMethodClassVisitor visitor = new ProjectMethodClassVisitor(methodResult, of(testClass, "method", Type.getMethodDescriptor(method), false));
+        final ProjectClassModel classModel = new ProjectClassModel(testClass);
+        final ProjectClassModelVisitor visitor = new ProjectClassModelVisitor(classModel);
         classReader.accept(visitor, ClassReader.EXPAND_FRAMES);
 
-        final List<Instruction> actualInstructions = methodResult.getInstructions();
+        final List<Instruction> actualInstructions = classModel.getInstructions(of(testClass, "method", Type.getMethodDescriptor(method), false));
 
         assertEquals(expectedInstructions, actualInstructions);
     }
@@ -0,0 +1,68 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.collection;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.AnalysisContext;
+import org.junit.After;
+import org.junit.Test;
+import org.objectweb.asm.Type;
+
+import javax.ws.rs.core.Response;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class StaticFieldValueResolverTest {
+
+    private static final String CONSTANTS = Type.getInternalName(Constants.class);
+    private static final String INITIALIZED = Type.getInternalName(Initialized.class);
+
+    static boolean initialized;
+
+    @After
+    public void tearDown() {
+        AnalysisContext.current().setClassInitializationEnabled(false);
+    }
+
+    @Test
+    public void testApiClass() {
+        assertThat(StaticFieldValueResolver.resolve("javax/ws/rs/core/Response$Status", "OK", "Ljavax/ws/rs/core/Response$Status;"), is(Response.Status.OK));
+    }
+
+    @Test
+    public void testConstantValues() {
+        assertThat(StaticFieldValueResolver.resolve(CONSTANTS, "STRING", "Ljava/lang/String;"), is("hello"));
+        assertThat(StaticFieldValueResolver.resolve(CONSTANTS, "INT", "I"), is(42));
+        assertThat(StaticFieldValueResolver.resolve(CONSTANTS, "LONG", "J"), is(42L));
+        assertThat(StaticFieldValueResolver.resolve(CONSTANTS, "BOOLEAN", "Z"), is(true));
+        assertThat(StaticFieldValueResolver.resolve(CONSTANTS, "CHAR", "C"), is('c'));
+        assertThat(StaticFieldValueResolver.resolve(CONSTANTS, "UNKNOWN", "I"), nullValue());
+    }
+
+    @Test
+    public void testClassNotInitialized() {
+        assertThat(StaticFieldValueResolver.resolve(INITIALIZED, "VALUE", "Ljava/lang/String;"), nullValue());
+        assertThat(initialized, is(false));
+
+        AnalysisContext.current().setClassInitializationEnabled(true);
+        assertThat(StaticFieldValueResolver.resolve(INITIALIZED, "VALUE", "Ljava/lang/String;"), is("initialized"));
+        assertThat(initialized, is(true));
+    }
+
+    static class Constants {
+        static final String STRING = "hello";
+        static final int INT = 42;
+        static final long LONG = 42L;
+        static final boolean BOOLEAN = true;
+        static final char CHAR = 'c';
+    }
+
+    static class Initialized {
+        static final String VALUE;
+
+        static {
+            initialized = true;
+            VALUE = "initialized";
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.reduction;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.Types;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.LoadInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.PushInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.ReturnInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.StoreInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.ThrowInstruction;
+import org.junit.Test;
+import org.objectweb.asm.Label;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class InstructionIndexTest {
+
+    private final Label label = new Label();
+
+    @Test
+    public void testIndex() {
+        final InstructionIndex cut = new InstructionIndex(Arrays.asList(
+                new PushInstruction("a", Types.STRING, label),
+                new StoreInstruction(1, Types.STRING, label),
+                new LoadInstruction(1, Types.STRING, label, label),
+                new StoreInstruction(20, Types.STRING, label),
+                new LoadInstruction(20, Types.STRING, label, label),
+                new ThrowInstruction(label),
+                new ReturnInstruction(label)));
+
+        assertEquals(7, cut.size());
+        assertArrayEquals(new int[]{5, 6}, cut.getReturnsAndThrows());
+        assertArrayEquals(new int[]{1, 2}, cut.getLoadStores(1));
+        // the def-use index grows beyond its initial capacity
+        assertArrayEquals(new int[]{3, 4}, cut.getLoadStores(20));
+        assertArrayEquals(new int[0], cut.getLoadStores(0));
+        assertArrayEquals(new int[0], cut.getLoadStores(21));
+        assertArrayEquals(new int[0], cut.getLoadStores(100));
+    }
+
+    @Test
+    public void testEmptyInstructions() {
+        final InstructionIndex cut = new InstructionIndex(Collections.emptyList());
+
+        assertEquals(0, cut.size());
+        assertArrayEquals(new int[0], cut.getReturnsAndThrows());
+        assertArrayEquals(new int[0], cut.getLoadStores(0));
+    }
+
+    @Test
+    public void testPositions() {
+        final InstructionIndex.Positions cut = new InstructionIndex.Positions();
+        for (int position = 9; position >= 0; position--)
+            cut.add(position);
+
+        assertEquals(10, cut.size());
+        cut.sort();
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, cut.toArray());
+
+        cut.clear();
+        assertEquals(0, cut.size());
+        assertArrayEquals(new int[0], cut.toArray());
+    }
+
+}
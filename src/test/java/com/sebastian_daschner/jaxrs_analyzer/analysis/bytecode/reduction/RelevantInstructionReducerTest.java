@@ -16,17 +16,15 @@
 
 package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.reduction;
 
-import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ContextClassReader;
-import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ProjectMethodClassVisitor;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ProjectClassModel;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.ProjectClassModelPool;
 import com.sebastian_daschner.jaxrs_analyzer.analysis.utils.TestClassUtils;
 import com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils;
 import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
-import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
-import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Type;
 
 import javax.ws.rs.NotFoundException;
@@ -96,11 +94,9 @@ public class RelevantInstructionReducerTest {
     private static List<Instruction> getInstructions(final Method method) {
         try {
             final String className = method.getDeclaringClass().getCanonicalName().replace('.', '/');
-            final MethodResult methodResult = new MethodResult();
-            final ProjectMethodClassVisitor visitor = new ProjectMethodClassVisitor(methodResult, of(className, method.getName(), Type.getMethodDescriptor(method), false));
-            new ContextClassReader(className).accept(visitor, ClassReader.EXPAND_FRAMES);
+            final ProjectClassModel classModel = ProjectClassModelPool.getInstance().getClassModel(className);
 
-            return methodResult.getInstructions();
+            return classModel.getInstructions(of(className, method.getName(), Type.getMethodDescriptor(method), false));
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
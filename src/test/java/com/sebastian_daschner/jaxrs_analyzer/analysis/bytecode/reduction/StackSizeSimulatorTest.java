@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.reduction;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.Types;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.LoadInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.PushInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.ReturnInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.SizeChangingInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.StoreInstruction;
+import org.junit.Test;
+import org.objectweb.asm.Label;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class StackSizeSimulatorTest {
+
+    private final Label label = new Label();
+
+    @Test
+    public void testStatementBoundaries() {
+        final StackSizeSimulator cut = new StackSizeSimulator(new InstructionIndex(Arrays.asList(
+                new PushInstruction("a", Types.STRING, label),
+                new StoreInstruction(1, Types.STRING, label),
+                new LoadInstruction(1, Types.STRING, label, label),
+                new PushInstruction(2, Types.PRIMITIVE_INT, label),
+                new SizeChangingInstruction("INVOKEVIRTUAL", 1, 2, label),
+                new ReturnInstruction(label),
+                new PushInstruction("unreachable", Types.STRING, label))));
+
+        assertEquals(0, cut.findStatementStart(0));
+        assertEquals(0, cut.findStatementStart(1));
+        assertEquals(2, cut.findStatementStart(2));
+        assertEquals(2, cut.findStatementStart(5));
+        assertEquals(6, cut.findStatementStart(6));
+
+        assertEquals(1, cut.findBacktrackPosition(0));
+        assertEquals(1, cut.findBacktrackPosition(1));
+        assertEquals(5, cut.findBacktrackPosition(2));
+        assertEquals(5, cut.findBacktrackPosition(5));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoBacktrackPosition() {
+        final StackSizeSimulator cut = new StackSizeSimulator(new InstructionIndex(Arrays.asList(
+                new PushInstruction("a", Types.STRING, label),
+                new PushInstruction("b", Types.STRING, label))));
+
+        cut.findBacktrackPosition(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStackUnderFlow() {
+        new StackSizeSimulator(new InstructionIndex(Collections.singletonList(new SizeChangingInstruction("POP", 0, 1, label))));
+    }
+
+    @Test
+    public void testEmptyInstructions() {
+        new StackSizeSimulator(new InstructionIndex(Collections.emptyList()));
+    }
+
+}
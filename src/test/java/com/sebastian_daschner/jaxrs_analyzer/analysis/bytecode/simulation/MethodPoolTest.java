@@ -0,0 +1,61 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.simulation;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.Types;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.ProjectMethod;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier.ofNonStatic;
+import static com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier.ofStatic;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+public class MethodPoolTest {
+
+    private static final String CLASS_NAME = "com/sebastian_daschner/test/MethodPoolTestClass";
+
+    private final MethodPool cut = MethodPool.getInstance();
+
+    @Test
+    public void testKnownMethod() {
+        assertThat(cut.get(ofNonStatic(Types.CLASS_RESPONSE_BUILDER, "build", Types.RESPONSE)), is(KnownResponseResultMethod.RESPONSE_BUILDER_BUILD));
+    }
+
+    @Test
+    public void testProjectMethods() {
+        final ProjectMethod first = new ProjectMethod(ofNonStatic(CLASS_NAME, "first", Types.STRING, Types.STRING), Collections.emptyList());
+        final ProjectMethod second = new ProjectMethod(ofNonStatic(CLASS_NAME, "first", Types.STRING, Types.STRING, Types.STRING), Collections.emptyList());
+        final ProjectMethod duplicate = new ProjectMethod(ofNonStatic(CLASS_NAME, "first", Types.STRING, Types.STRING), Collections.emptyList());
+        cut.addProjectMethod(first);
+        cut.addProjectMethod(second);
+        cut.addProjectMethod(duplicate);
+
+        // methods with equal identifiers are replaced
+        assertThat(cut.get(ofNonStatic(CLASS_NAME, "first", Types.STRING, Types.STRING)), sameInstance(duplicate));
+        assertThat(cut.get(ofNonStatic(CLASS_NAME, "first", Types.STRING, Types.STRING, Types.STRING)), sameInstance(second));
+
+        // static flag, parameter types and arity are considered
+        assertThat(cut.get(ofStatic(CLASS_NAME, "first", Types.STRING, Types.STRING)), not(instanceOf(ProjectMethod.class)));
+        assertThat(cut.get(ofNonStatic(CLASS_NAME, "first", Types.STRING, Types.OBJECT)), not(instanceOf(ProjectMethod.class)));
+        assertThat(cut.get(ofNonStatic(CLASS_NAME, "first", Types.STRING)), not(instanceOf(ProjectMethod.class)));
+    }
+
+    @Test
+    public void testErasedSignature() {
+        final ProjectMethod method = new ProjectMethod(ofNonStatic(CLASS_NAME, "generic", Types.OBJECT, "Ljava/util/List<Ljava/lang/String;>;"), Collections.emptyList());
+        cut.addProjectMethod(method);
+
+        assertThat(cut.get(ofNonStatic(CLASS_NAME, "generic", Types.OBJECT, "Ljava/util/List;")), sameInstance(method));
+    }
+
+    @Test
+    public void testDefaultMethod() {
+        final MethodIdentifier identifier = ofNonStatic(CLASS_NAME, "unknown", Types.STRING);
+
+        assertThat(cut.get(identifier).invoke(null, Collections.emptyList()).getTypes(), hasItem(Types.STRING));
+        assertThat(cut.get(ofNonStatic(CLASS_NAME, "unknown", Types.PRIMITIVE_VOID)).invoke(null, Collections.emptyList()), nullValue());
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2015 Sebastian Daschner, sebastian-daschner.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sebastian_daschner.jaxrs_analyzer.analysis.bytecode.simulation;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.Types;
+import com.sebastian_daschner.jaxrs_analyzer.model.elements.Element;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.LoadInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.PushInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.ReturnInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.SizeChangingInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.StoreInstruction;
+import org.junit.Test;
+import org.objectweb.asm.Label;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class MethodSimulatorTest {
+
+    private final MethodSimulator cut = new MethodSimulator();
+
+    @Test
+    public void testUnknownElementsAreNotShared() {
+        final Label label = new Label();
+        final List<Instruction> instructions = Arrays.asList(
+                new PushInstruction(1, Types.PRIMITIVE_INT, label),
+                new PushInstruction(2, Types.PRIMITIVE_INT, label),
+                new SizeChangingInstruction("IADD", 1, 2, label),
+                new ReturnInstruction(label));
+
+        final Element first = cut.simulate(instructions);
+        first.merge(new Element(Types.STRING, "value"));
+        final Element second = new MethodSimulator().simulate(instructions);
+
+        assertThat(second, not(sameInstance(first)));
+        assertThat(second, is(new Element()));
+    }
+
+    @Test
+    public void testStoreMergesVariable() {
+        final Label label = new Label();
+        final List<Instruction> instructions = Arrays.asList(
+                new PushInstruction("first", Types.STRING, label),
+                new StoreInstruction(1, Types.STRING, "value", label),
+                new PushInstruction("second", Types.STRING, label),
+                new StoreInstruction(1, Types.STRING, "value", label),
+                new LoadInstruction(1, Types.STRING, "value", label, null),
+                new ReturnInstruction(label));
+
+        final Element element = cut.simulate(instructions);
+
+        assertThat(element.getTypes(), is(Collections.singleton(Types.STRING)));
+        assertThat(element.getPossibleValues(), is(new HashSet<>(Arrays.asList("first", "second"))));
+    }
+
+}
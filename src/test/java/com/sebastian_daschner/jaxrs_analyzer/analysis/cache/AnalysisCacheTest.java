@@ -0,0 +1,166 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.cache;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.AnalysisContext;
+import com.sebastian_daschner.jaxrs_analyzer.builder.ClassResultBuilder;
+import com.sebastian_daschner.jaxrs_analyzer.builder.HttpResponseBuilder;
+import com.sebastian_daschner.jaxrs_analyzer.builder.MethodResultBuilder;
+import com.sebastian_daschner.jaxrs_analyzer.model.Types;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
+import com.sebastian_daschner.jaxrs_analyzer.model.rest.HttpMethod;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class AnalysisCacheTest {
+
+    private static final String RESOURCE_CLASS = "com/sebastian_daschner/cached/Resource";
+    private static final String SERVICE_CLASS = "com/sebastian_daschner/cached/Service";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path classes;
+    private AnalysisCache cut;
+
+    @Before
+    public void setUp() throws IOException {
+        classes = folder.newFolder("classes").toPath();
+        cut = new AnalysisCache(folder.getRoot().toPath().resolve("cache"));
+
+        writeClass(RESOURCE_CLASS, "java/lang/Object", "resource");
+        writeClass(SERVICE_CLASS, "java/lang/Object", "service");
+    }
+
+    @Test
+    public void testStoreAndLoad() {
+        final ClassResult expected = storeResult();
+
+        final ClassResult actual = new ClassResult();
+        final Map<MethodResult, String> subResourceClasses = load(actual, false);
+
+        assertThat(subResourceClasses, is(notNullValue()));
+        assertThat(subResourceClasses.values().iterator().next(), is("com/sebastian_daschner/cached/Sub"));
+        assertEquals(expected, actual);
+        assertThat(cut.getHits(), is(1L));
+    }
+
+    @Test
+    public void testMissingEntry() {
+        assertThat(load(new ClassResult(), false), is(nullValue()));
+        assertThat(cut.getMisses(), is(1L));
+    }
+
+    @Test
+    public void testChangedClass() throws IOException {
+        storeResult();
+        writeClass(RESOURCE_CLASS, "java/lang/Object", "changed");
+
+        assertThat(load(new ClassResult(), false), is(nullValue()));
+    }
+
+    @Test
+    public void testChangedDependency() throws IOException {
+        storeResult();
+        writeClass(SERVICE_CLASS, "java/lang/Object", "changed");
+
+        assertThat(load(new ClassResult(), false), is(nullValue()));
+    }
+
+    @Test
+    public void testChangedSuperType() throws IOException {
+        storeResult();
+        writeClass("com/sebastian_daschner/cached/Base", "java/lang/Object", "base");
+        writeClass(SERVICE_CLASS, "com/sebastian_daschner/cached/Base", "service");
+        storeResult();
+        assertThat(load(new ClassResult(), false), is(notNullValue()));
+
+        writeClass("com/sebastian_daschner/cached/Base", "java/lang/Object", "changed");
+        assertThat(load(new ClassResult(), false), is(nullValue()));
+    }
+
+    @Test
+    public void testChangedClassInitialization() {
+        storeResult();
+
+        assertThat(load(new ClassResult(), true), is(nullValue()));
+    }
+
+    @Test
+    public void testChangedLibrary() throws IOException {
+        final Path library = folder.newFile("library.jar").toPath();
+        Files.write(library, new byte[]{1, 2, 3});
+        cut = new AnalysisCache(folder.getRoot().toPath().resolve("cache"), Collections.singleton(library));
+        storeResult();
+
+        cut = new AnalysisCache(folder.getRoot().toPath().resolve("cache"), Collections.singleton(library));
+        assertThat(load(new ClassResult(), false), is(notNullValue()));
+
+        Files.write(library, new byte[]{1, 2, 3, 4});
+        cut = new AnalysisCache(folder.getRoot().toPath().resolve("cache"), Collections.singleton(library));
+        assertThat(load(new ClassResult(), false), is(nullValue()));
+    }
+
+    private ClassResult storeResult() {
+        final MethodResult method = MethodResultBuilder.withResponses(HttpResponseBuilder.withStatues(200).andEntityTypes(Types.STRING).build())
+                .andMethod(HttpMethod.GET).build();
+        final MethodResult locator = MethodResultBuilder.newBuilder().andPath("sub").build();
+        locator.setSubResource(new ClassResult());
+        final ClassResult classResult = ClassResultBuilder.withResourcePath("cached").andMethods(method, locator).build();
+
+        final Set<MethodIdentifier> invokedProjectMethods = Collections.singleton(MethodIdentifier.ofNonStatic(SERVICE_CLASS, "find", Types.STRING));
+        try (final AnalysisContext analysisContext = createContext(false);
+             final AnalysisContext.Scope scope = analysisContext.enter()) {
+            cut.store(RESOURCE_CLASS, classResult, invokedProjectMethods, Collections.singletonMap(locator, "com/sebastian_daschner/cached/Sub"));
+        }
+        return classResult;
+    }
+
+    private Map<MethodResult, String> load(final ClassResult classResult, final boolean classInitializationEnabled) {
+        try (final AnalysisContext analysisContext = createContext(classInitializationEnabled);
+             final AnalysisContext.Scope scope = analysisContext.enter()) {
+            return cut.load(RESOURCE_CLASS, classResult, new HashSet<>());
+        }
+    }
+
+    private AnalysisContext createContext(final boolean classInitializationEnabled) {
+        final AnalysisContext analysisContext = new AnalysisContext();
+        try {
+            analysisContext.addClassPath(classes.toUri().toURL());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        analysisContext.setClassInitializationEnabled(classInitializationEnabled);
+        return analysisContext;
+    }
+
+    private void writeClass(final String className, final String superName, final String fieldName) throws IOException {
+        final ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, className, null, superName, null);
+        classWriter.visitField(Opcodes.ACC_PRIVATE, fieldName, Types.STRING, null, null).visitEnd();
+        classWriter.visitEnd();
+
+        final Path file = classes.resolve(className + ".class");
+        Files.createDirectories(file.getParent());
+        Files.write(file, classWriter.toByteArray());
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.cache;
+
+import com.sebastian_daschner.jaxrs_analyzer.builder.ClassResultBuilder;
+import com.sebastian_daschner.jaxrs_analyzer.builder.HttpResponseBuilder;
+import com.sebastian_daschner.jaxrs_analyzer.builder.MethodResultBuilder;
+import com.sebastian_daschner.jaxrs_analyzer.model.Types;
+import com.sebastian_daschner.jaxrs_analyzer.model.elements.Element;
+import com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonArray;
+import com.sebastian_daschner.jaxrs_analyzer.model.elements.JsonObject;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
+import com.sebastian_daschner.jaxrs_analyzer.model.rest.HttpMethod;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.ClassResult;
+import com.sebastian_daschner.jaxrs_analyzer.model.results.MethodResult;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class ClassResultMapperTest {
+
+    @Test
+    public void testRoundTrip() {
+        final JsonObject nestedObject = new JsonObject();
+        nestedObject.getStructure().put("value", new Element(Types.DOUBLE, 1.5d, null));
+        final JsonArray jsonArray = new JsonArray();
+        jsonArray.getElements().add(new Element(Types.BOOLEAN, true));
+        jsonArray.getElements().add(new Element(Types.PRIMITIVE_LONG, 2L, 3L));
+
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.getStructure().put("key", new Element(Types.STRING, "value"));
+        jsonObject.getStructure().put("number", new Element(Types.PRIMITIVE_INT, 1));
+        jsonObject.getStructure().put("object", new Element(Types.JSON_OBJECT, nestedObject));
+        jsonObject.getStructure().put("array", new Element(Types.JSON_ARRAY, jsonArray));
+
+        final MethodResult getMethod = MethodResultBuilder.withResponses(HttpResponseBuilder.withStatues(200, 404)
+                .andHeaders("Location").andContentTypes("application/json").andInlineEntities(jsonObject).build())
+                .andMethod(HttpMethod.GET).andPath("{id}").andPathParam("id", Types.PRIMITIVE_LONG).andResponseMediaTypes("application/json").build();
+        getMethod.setOriginalMethodSignature(MethodIdentifier.ofNonStatic("com/sebastian_daschner/Test", "get", Types.RESPONSE, Types.PRIMITIVE_LONG));
+
+        final MethodResult postMethod = MethodResultBuilder.withResponses(HttpResponseBuilder.withStatues(201).andEntityTypes(Types.STRING).build())
+                .andMethod(HttpMethod.POST).andRequestBodyType(Types.STRING).andQueryParam("query", Types.STRING, "default")
+                .andDeprecated(true).build();
+
+        final MethodResult locator = MethodResultBuilder.newBuilder().andPath("sub").build();
+        locator.setSubResource(new ClassResult());
+
+        final ClassResult expected = ClassResultBuilder.withResourcePath("test").andAcceptMediaTypes("text/plain").andHeaderParam("header", Types.STRING)
+                .andMethods(getMethod, postMethod, locator).build();
+        expected.setOriginalClass("com/sebastian_daschner/Test");
+
+        final javax.json.JsonObject json = ClassResultMapper.toJson(expected, Collections.singletonMap(locator, "com/sebastian_daschner/Sub"));
+
+        final ClassResult actual = new ClassResult();
+        final Map<MethodResult, String> subResourceClasses = new IdentityHashMap<>();
+        ClassResultMapper.fromJson(json, actual, subResourceClasses);
+
+        assertEquals(expected, actual);
+        assertThat(actual.getOriginalClass(), is("com/sebastian_daschner/Test"));
+        assertThat(subResourceClasses.size(), is(1));
+        final MethodResult actualLocator = subResourceClasses.keySet().iterator().next();
+        assertThat(actualLocator.getPath(), is("sub"));
+        assertThat(subResourceClasses.get(actualLocator), is("com/sebastian_daschner/Sub"));
+        assertThat(actual.getMethods().stream().filter(m -> HttpMethod.GET == m.getHttpMethod()).findAny().get().getOriginalMethodSignature(),
+                is(getMethod.getOriginalMethodSignature()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedValue() {
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.getStructure().put("key", new Element(Types.OBJECT, new Object()));
+
+        final MethodResult method = MethodResultBuilder.withResponses(HttpResponseBuilder.withStatues(200).andInlineEntities(jsonObject).build())
+                .andMethod(HttpMethod.GET).build();
+
+        ClassResultMapper.toJson(ClassResultBuilder.withResourcePath("test").andMethods(method).build(), Collections.emptyMap());
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.testclasses.resource.response.TestClass2;
+import com.sebastian_daschner.jaxrs_analyzer.analysis.project.classes.testclasses.TestClass1;
+import com.sebastian_daschner.jaxrs_analyzer.model.Types;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class AnnotationIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        final AnnotationIndex index = createIndex();
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        index.write(output);
+        final AnnotationIndex cut = AnnotationIndex.read(new ByteArrayInputStream(output.toByteArray()));
+
+        assertThat(cut.getClassNames(), is(new HashSet<>(Arrays.asList(TestClass1.class.getName(), TestClass2.class.getName()))));
+        assertThat(cut.getRootResources(), is(Collections.singleton(TestClass1.class.getName())));
+
+        final AnnotationIndex.IndexedClass indexedClass = cut.get(TestClass1.class.getName());
+        assertThat(indexedClass.getAnnotations(), is(Collections.singletonList(Types.PATH)));
+        assertThat(cut.get(TestClass2.class.getName()).isRootResource(), is(false));
+    }
+
+    @Test
+    public void testFind() throws IOException {
+        final AnnotationIndex index = createIndex();
+
+        final Path directory = folder.newFolder("classes").toPath();
+        assertThat(AnnotationIndex.find(directory), is(nullValue()));
+        index.write(directory.resolve(AnnotationIndex.LOCATION));
+        assertThat(AnnotationIndex.find(directory).getRootResources(), is(index.getRootResources()));
+
+        final ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        index.write(indexBytes);
+        final Path war = folder.getRoot().toPath().resolve("project.war");
+        try (final JarOutputStream stream = new JarOutputStream(Files.newOutputStream(war))) {
+            stream.putNextEntry(new JarEntry("WEB-INF/classes/" + AnnotationIndex.LOCATION));
+            stream.write(indexBytes.toByteArray());
+            stream.closeEntry();
+        }
+        assertThat(AnnotationIndex.find(war).getClassNames(), is(index.getClassNames()));
+    }
+
+    @Test
+    public void testOutdatedIndex() throws IOException {
+        final Path directory = folder.newFolder("classes").toPath();
+        final Path classFile = directory.resolve("com/example/Resource.class");
+        Files.createDirectories(classFile.getParent());
+        Files.write(classFile, new byte[]{1, 2, 3});
+
+        new AnnotationIndex.Builder().add(readClass(TestClass1.class)).addClassFiles(directory).build()
+                .write(directory.resolve(AnnotationIndex.LOCATION));
+        assertThat(AnnotationIndex.find(directory).getRootResources(), is(Collections.singleton(TestClass1.class.getName())));
+
+        // same size, modified contents
+        Files.write(classFile, new byte[]{1, 2, 4});
+        assertThat(AnnotationIndex.find(directory), is(nullValue()));
+
+        Files.write(classFile, new byte[]{1, 2, 3});
+        Files.write(directory.resolve("com/example/Added.class"), new byte[]{1});
+        assertThat(AnnotationIndex.find(directory), is(nullValue()));
+    }
+
+    @Test
+    public void testOutdatedArchiveIndex() throws IOException {
+        final Path classes = folder.newFolder("classes").toPath();
+        Files.createDirectories(classes.resolve("com/example"));
+        Files.write(classes.resolve("com/example/Resource.class"), new byte[]{1, 2, 3});
+        final ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        new AnnotationIndex.Builder().add(readClass(TestClass1.class)).addClassFiles(classes).build().write(indexBytes);
+
+        final Path upToDate = folder.getRoot().toPath().resolve("up-to-date.war");
+        writeWar(upToDate, indexBytes.toByteArray(), new byte[]{1, 2, 3});
+        assertThat(AnnotationIndex.find(upToDate).getClassNames(), is(Collections.singleton(TestClass1.class.getName())));
+
+        final Path outdated = folder.getRoot().toPath().resolve("outdated.war");
+        writeWar(outdated, indexBytes.toByteArray(), new byte[]{1, 2, 4});
+        assertThat(AnnotationIndex.find(outdated), is(nullValue()));
+    }
+
+    @Test
+    public void testMatches() throws IOException {
+        final Path first = folder.newFolder("first").toPath();
+        final Path second = folder.newFolder("second").toPath();
+        Files.createDirectories(first.resolve("com/example"));
+        Files.write(first.resolve("com/example/Resource.class"), new byte[]{1, 2, 3});
+        Files.createDirectories(second.resolve("com/example"));
+        Files.write(second.resolve("com/example/Model.class"), new byte[]{4, 5});
+
+        final AnnotationIndex index = new AnnotationIndex.Builder().add(readClass(TestClass1.class))
+                .addClassFiles(first).addClassFiles(second).build();
+        final Path indexFile = folder.getRoot().toPath().resolve("annotations.idx");
+        index.write(indexFile);
+
+        assertThat(index.matches(Arrays.asList(first, second), Files.getLastModifiedTime(indexFile)), is(true));
+        assertThat(index.matches(Collections.singleton(first), Files.getLastModifiedTime(indexFile)), is(false));
+
+        Files.write(second.resolve("com/example/Model.class"), new byte[]{4, 6});
+        assertThat(index.matches(Arrays.asList(first, second), Files.getLastModifiedTime(indexFile)), is(false));
+    }
+
+    private static void writeWar(final Path war, final byte[] index, final byte[] classFile) throws IOException {
+        try (final JarOutputStream stream = new JarOutputStream(Files.newOutputStream(war))) {
+            stream.putNextEntry(new JarEntry("WEB-INF/classes/" + AnnotationIndex.LOCATION));
+            stream.write(index);
+            stream.closeEntry();
+            stream.putNextEntry(new JarEntry("WEB-INF/classes/com/example/Resource.class"));
+            stream.write(classFile);
+            stream.closeEntry();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidIndex() throws IOException {
+        AnnotationIndex.read(new ByteArrayInputStream(new byte[]{0, 1, 2, 3, 4, 5}));
+    }
+
+    private static AnnotationIndex createIndex() throws IOException {
+        return new AnnotationIndex.Builder()
+                .add(readClass(TestClass1.class))
+                .add(readClass(TestClass2.class))
+                .build();
+    }
+
+    private static ClassReader readClass(final Class<?> clazz) throws IOException {
+        try (final InputStream stream = clazz.getResourceAsStream('/' + clazz.getName().replace('.', '/') + ".class")) {
+            return new ClassReader(stream);
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.testclasses.resource.response.TestClass1;
+import com.sebastian_daschner.jaxrs_analyzer.utils.Pair;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ClassBytesCacheTest {
+
+    private final ClassLoader classLoader = ClassBytesCacheTest.class.getClassLoader();
+
+    @Test
+    public void testHitsAndMisses() throws IOException {
+        final ClassBytesCache cut = new ClassBytesCache(classLoader, ClassBytesCache.DEFAULT_MAX_SIZE);
+
+        final byte[] bytes = cut.get(TestClass1.class.getName());
+        assertThat(cut.get(TestClass1.class.getName().replace('.', '/')), sameInstance(bytes));
+        cut.get(Pair.class.getName());
+
+        assertThat(cut.getHits(), is(1L));
+        assertThat(cut.getMisses(), is(2L));
+
+        cut.clear();
+        assertThat(cut.getSize(), is(0L));
+        assertThat(cut.getMisses(), is(0L));
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        final ClassBytesCache sizes = new ClassBytesCache(classLoader, 0);
+        final long maxSize = Math.max(sizes.get(TestClass1.class.getName()).length, sizes.get(Pair.class.getName()).length);
+        final ClassBytesCache cut = new ClassBytesCache(classLoader, maxSize);
+
+        cut.get(TestClass1.class.getName());
+        cut.get(Pair.class.getName());
+        // least recently used entry has been evicted
+        cut.get(TestClass1.class.getName());
+
+        assertThat(cut.getMisses(), is(3L));
+        assertThat(cut.getHits(), is(0L));
+        assertThat(cut.getSize() <= maxSize, is(true));
+    }
+
+    @Test(expected = IOException.class)
+    public void testClassNotFound() throws IOException {
+        new ClassBytesCache(classLoader, ClassBytesCache.DEFAULT_MAX_SIZE).get("com.example.NotExisting");
+    }
+
+}
@@ -0,0 +1,230 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ExtensibleClassLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testJarsAndDirectories() throws IOException, ClassNotFoundException {
+        final Path first = folder.getRoot().toPath().resolve("first.jar");
+        writeJar(first, "com/example/Indexed", "first");
+        final Path second = folder.getRoot().toPath().resolve("second.jar");
+        writeJar(second, "com/example/Indexed", "second");
+        final Path directory = folder.newFolder("classes").toPath();
+        final Path classFile = directory.resolve("com/example/Plain.class");
+        Files.createDirectories(classFile.getParent());
+        Files.write(classFile, createClass("com/example/Plain"));
+
+        try (final ExtensibleClassLoader cut = new ExtensibleClassLoader(ClassLoader.getSystemClassLoader())) {
+            cut.addURLs(Arrays.asList(first.toUri().toURL(), directory.toUri().toURL(), second.toUri().toURL()));
+
+            final Class<?> indexed = cut.loadClass("com.example.Indexed");
+            assertThat(indexed.getClassLoader(), is(sameInstance(cut)));
+            assertThat(indexed.getPackage().getName(), is("com.example"));
+            assertThat(indexed.getProtectionDomain().getCodeSource().getLocation(), is(first.toUri().toURL()));
+            assertThat(cut.loadClass("com.example.Plain").getClassLoader(), is(sameInstance(cut)));
+
+            assertThat(read(cut, "com/example/resource.txt"), is("first"));
+            assertThat(cut.getResource("com/example/resource.txt").toString(), is("jar:" + first.toUri().toURL() + "!/com/example/resource.txt"));
+            assertThat(Collections.list(cut.getResources("com/example/resource.txt")).size(), is(2));
+            assertThat(cut.getResourceAsStream("com/example/Plain.class"), is(notNullValue()));
+            assertThat(cut.getResourceAsStream("com/example/Missing.class"), is(nullValue()));
+            assertThat(cut.getURLs(), is(new URL[]{first.toUri().toURL(), directory.toUri().toURL(), second.toUri().toURL()}));
+        }
+    }
+
+    @Test
+    public void testClassPathOrder() throws IOException, ClassNotFoundException {
+        final Path directory = folder.newFolder("classes").toPath();
+        final Path classFile = directory.resolve("com/example/Indexed.class");
+        Files.createDirectories(classFile.getParent());
+        Files.write(classFile, createClass("com/example/Indexed"));
+        Files.write(directory.resolve("com/example/resource.txt"), "directory".getBytes(StandardCharsets.UTF_8));
+        final Path first = folder.getRoot().toPath().resolve("first.jar");
+        writeJar(first, "com/example/Indexed", "first");
+        final Path second = folder.getRoot().toPath().resolve("second.jar");
+        writeJar(second, "com/example/Indexed", "second");
+
+        try (final ExtensibleClassLoader cut = new ExtensibleClassLoader(ClassLoader.getSystemClassLoader())) {
+            cut.addURLs(Arrays.asList(first.toUri().toURL(), directory.toUri().toURL(), second.toUri().toURL()));
+            assertThat(read(cut, "com/example/resource.txt"), is("first"));
+            assertThat(Collections.list(cut.getResources("com/example/resource.txt")).stream().map(URL::toString).collect(Collectors.toList()),
+                    is(Arrays.asList("jar:" + first.toUri().toURL() + "!/com/example/resource.txt",
+                            directory.resolve("com/example/resource.txt").toUri().toURL().toString(),
+                            "jar:" + second.toUri().toURL() + "!/com/example/resource.txt")));
+        }
+
+        try (final ExtensibleClassLoader cut = new ExtensibleClassLoader(ClassLoader.getSystemClassLoader())) {
+            cut.addURLs(Arrays.asList(directory.toUri().toURL(), first.toUri().toURL()));
+            final Class<?> indexed = cut.loadClass("com.example.Indexed");
+            assertThat(indexed.getProtectionDomain().getCodeSource().getLocation(), is(directory.toUri().toURL()));
+            assertThat(read(cut, "com/example/resource.txt"), is("directory"));
+            assertThat(cut.getResource("com/example/resource.txt").getProtocol(), is("file"));
+        }
+    }
+
+    @Test
+    public void testServiceFilesOfNestedJars() throws IOException {
+        final Path war = folder.getRoot().toPath().resolve("project.war");
+        try (final JarOutputStream stream = new JarOutputStream(Files.newOutputStream(war))) {
+            addEntry(stream, "WEB-INF/lib/first.jar", jar("com/example/First", "first"));
+            addEntry(stream, "WEB-INF/lib/second.jar", jar("com/example/Second", "second"));
+        }
+
+        try (final ExtensibleClassLoader cut = new ExtensibleClassLoader(ClassLoader.getSystemClassLoader())) {
+            cut.addURL(war.toUri().toURL());
+            final List<URL> resources = Collections.list(cut.getResources("com/example/resource.txt"));
+            assertThat(resources.size(), is(2));
+            assertThat(resources.get(0).toString(), is("jar:" + war.toUri().toURL() + "!/WEB-INF/lib/first.jar!/com/example/resource.txt"));
+            assertThat(resources.get(1).toString(), is("jar:" + war.toUri().toURL() + "!/WEB-INF/lib/second.jar!/com/example/resource.txt"));
+        }
+    }
+
+    @Test
+    public void testNestedArchives() throws IOException, ClassNotFoundException {
+        final byte[] library = jar("com/example/Indexed", "library");
+
+        final Path bootJar = folder.getRoot().toPath().resolve("boot.jar");
+        try (final JarOutputStream stream = new JarOutputStream(Files.newOutputStream(bootJar))) {
+            addEntry(stream, "BOOT-INF/classes/com/example/Project.class", createClass("com/example/Project"));
+            addStoredEntry(stream, "BOOT-INF/lib/library.jar", library);
+        }
+        final Path war = folder.getRoot().toPath().resolve("project.war");
+        try (final JarOutputStream stream = new JarOutputStream(Files.newOutputStream(war))) {
+            addEntry(stream, "WEB-INF/classes/com/example/WebProject.class", createClass("com/example/WebProject"));
+            addEntry(stream, "WEB-INF/lib/library.jar", library);
+        }
+
+        try (final ExtensibleClassLoader cut = new ExtensibleClassLoader(ClassLoader.getSystemClassLoader())) {
+            cut.addURLs(Arrays.asList(bootJar.toUri().toURL(), war.toUri().toURL()));
+
+            assertThat(cut.loadClass("com.example.Project").getClassLoader(), is(sameInstance(cut)));
+            assertThat(cut.loadClass("com.example.WebProject").getClassLoader(), is(sameInstance(cut)));
+            final Class<?> indexed = cut.loadClass("com.example.Indexed");
+            assertThat(indexed.getProtectionDomain().getCodeSource().getLocation(), is(bootJar.toUri().toURL()));
+
+            assertThat(read(cut, "com/example/resource.txt"), is("library"));
+            assertThat(cut.getResource("com/example/resource.txt").toString(),
+                    is("jar:" + bootJar.toUri().toURL() + "!/BOOT-INF/lib/library.jar!/com/example/resource.txt"));
+            try (final InputStream stream = cut.getResource("com/example/resource.txt").openStream()) {
+                assertThat(stream.read(), is((int) 'l'));
+            }
+            assertThat(cut.getResourceAsStream("BOOT-INF/lib/library.jar"), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void testLibDirectory() throws IOException, ClassNotFoundException {
+        final byte[] library = jar("com/example/Library", "library");
+
+        final Path jar = folder.getRoot().toPath().resolve("plain.jar");
+        try (final JarOutputStream stream = new JarOutputStream(Files.newOutputStream(jar))) {
+            addEntry(stream, "lib/nested.jar", library);
+        }
+        final Path ear = folder.getRoot().toPath().resolve("project.ear");
+        try (final JarOutputStream stream = new JarOutputStream(Files.newOutputStream(ear))) {
+            addEntry(stream, "lib/library.jar", library);
+        }
+
+        try (final ExtensibleClassLoader cut = new ExtensibleClassLoader(ClassLoader.getSystemClassLoader())) {
+            cut.addURL(jar.toUri().toURL());
+
+            // lib/ is a regular directory in other jar-files than EARs
+            assertThat(cut.getResource("lib/nested.jar"), is(notNullValue()));
+            assertThat(cut.getResource("com/example/resource.txt"), is(nullValue()));
+
+            cut.addURL(ear.toUri().toURL());
+
+            assertThat(cut.loadClass("com.example.Library").getClassLoader(), is(sameInstance(cut)));
+            assertThat(cut.getResource("com/example/resource.txt").toString(), is("jar:" + ear.toUri().toURL() + "!/lib/library.jar!/com/example/resource.txt"));
+        }
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void testMissingClass() throws IOException, ClassNotFoundException {
+        final Path jar = folder.getRoot().toPath().resolve("first.jar");
+        writeJar(jar, "com/example/Indexed", "first");
+
+        try (final ExtensibleClassLoader cut = new ExtensibleClassLoader(ClassLoader.getSystemClassLoader())) {
+            cut.addURL(jar.toUri().toURL());
+            cut.loadClass("com.example.Missing");
+        }
+    }
+
+    private static String read(final ClassLoader classLoader, final String name) throws IOException {
+        try (final InputStream stream = classLoader.getResourceAsStream(name)) {
+            final byte[] bytes = new byte[64];
+            final int length = stream.read(bytes);
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void writeJar(final Path jar, final String className, final String content) throws IOException {
+        Files.write(jar, jar(className, content));
+    }
+
+    private static byte[] jar(final String className, final String content) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final JarOutputStream stream = new JarOutputStream(bytes)) {
+            addEntry(stream, className + ".class", createClass(className));
+            addEntry(stream, "com/example/resource.txt", content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void addStoredEntry(final JarOutputStream stream, final String name, final byte[] bytes) throws IOException {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        final JarEntry entry = new JarEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        entry.setCompressedSize(bytes.length);
+        entry.setCrc(crc.getValue());
+        stream.putNextEntry(entry);
+        stream.write(bytes);
+        stream.closeEntry();
+    }
+
+    private static void addEntry(final JarOutputStream stream, final String name, final byte[] bytes) throws IOException {
+        stream.putNextEntry(new JarEntry(name));
+        stream.write(bytes);
+        stream.closeEntry();
+    }
+
+    private static byte[] createClass(final String className) {
+        final ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, className, null, "java/lang/Object", null);
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+}
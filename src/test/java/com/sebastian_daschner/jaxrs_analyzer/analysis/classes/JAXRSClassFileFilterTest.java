@@ -0,0 +1,51 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.analysis.classes.testclasses.resource.response.TestClass1;
+import com.sebastian_daschner.jaxrs_analyzer.utils.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class JAXRSClassFileFilterTest {
+
+    private JAXRSClassFileFilter cut;
+
+    @Before
+    public void setUp() {
+        cut = new JAXRSClassFileFilter();
+    }
+
+    @Test
+    public void testJAXRSClass() throws IOException {
+        assertThat(accept(TestClass1.class), is(true));
+        assertThat(accept(JAXRSClassFileFilterTest.class), is(false));
+    }
+
+    @Test
+    public void testNonJAXRSClass() throws IOException {
+        assertThat(accept(Pair.class), is(false));
+        assertThat(accept(String.class), is(false));
+        // subsequent reads reuse the buffer
+        assertThat(accept(TestClass1.class), is(true));
+        assertThat(accept(Pair.class), is(false));
+    }
+
+    @Test
+    public void testMalformedClassFile() throws IOException {
+        assertThat(cut.accept(new ByteArrayInputStream(new byte[]{1, 2, 3})), is(true));
+        assertThat(cut.accept(new ByteArrayInputStream(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 52, 0, 5, 1, 0, 42})), is(true));
+    }
+
+    private boolean accept(final Class<?> clazz) throws IOException {
+        try (final InputStream stream = clazz.getResourceAsStream('/' + clazz.getName().replace('.', '/') + ".class")) {
+            return cut.accept(stream);
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class JarIndexCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testShared() throws IOException {
+        final Path jar = writeJar("library.jar", "library");
+        final JarIndexCache cut = new JarIndexCache();
+
+        final JarIndexCache.Entry first = cut.acquire(jar);
+        final JarIndexCache.Entry second = cut.acquire(jar.getParent().resolve("./library.jar"));
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(first.getLocations().get("com/example/resource.txt").size(), is(1));
+        assertThat(cut.getHits(), is(1L));
+        assertThat(cut.getMisses(), is(1L));
+
+        cut.release(first);
+        assertThat(cut.size(), is(1));
+        cut.release(second);
+        assertThat(cut.size(), is(0));
+    }
+
+    @Test
+    public void testSharedBetweenClassLoaders() throws IOException {
+        final Path jar = writeJar("library.jar", "library");
+        final JarIndexCache cut = new JarIndexCache();
+
+        try (final ExtensibleClassLoader first = new ExtensibleClassLoader(ClassLoader.getSystemClassLoader(), cut);
+             final ExtensibleClassLoader second = new ExtensibleClassLoader(ClassLoader.getSystemClassLoader(), cut)) {
+            first.addURL(jar.toUri().toURL());
+            second.addURL(jar.toUri().toURL());
+
+            assertThat(cut.size(), is(1));
+            assertThat(read(first), is("library"));
+            first.close();
+            assertThat(read(second), is("library"));
+        }
+
+        assertThat(cut.size(), is(0));
+    }
+
+    @Test
+    public void testChangedJar() throws IOException {
+        final Path jar = writeJar("library.jar", "library");
+        final JarIndexCache cut = new JarIndexCache();
+
+        final JarIndexCache.Entry first = cut.acquire(jar);
+        jar.toFile().setLastModified(jar.toFile().lastModified() - 10_000);
+        final JarIndexCache.Entry second = cut.acquire(jar);
+
+        assertThat(cut.getMisses(), is(2L));
+        assertThat(cut.size(), is(2));
+        cut.release(first);
+        cut.release(second);
+        assertThat(cut.size(), is(0));
+    }
+
+    private Path writeJar(final String name, final String content) throws IOException {
+        final Path jar = folder.getRoot().toPath().resolve(name);
+        try (final JarOutputStream stream = new JarOutputStream(Files.newOutputStream(jar))) {
+            stream.putNextEntry(new ZipEntry("com/example/resource.txt"));
+            stream.write(content.getBytes(StandardCharsets.UTF_8));
+            stream.closeEntry();
+        }
+        return jar;
+    }
+
+    private static String read(final ClassLoader classLoader) throws IOException {
+        try (final InputStream stream = classLoader.getResourceAsStream("com/example/resource.txt")) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[64];
+            int read;
+            while ((read = stream.read(buffer)) != -1)
+                output.write(buffer, 0, read);
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class LibraryClassLoadersTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testShared() throws IOException {
+        final Path first = folder.newFolder("first").toPath();
+        final Path second = folder.newFolder("second").toPath();
+        final LibraryClassLoaders cut = new LibraryClassLoaders(2);
+
+        try (final LibraryClassLoaders.Lease lease = cut.acquire(Arrays.asList(first, second));
+             final LibraryClassLoaders.Lease sameLease = cut.acquire(Arrays.asList(second, first));
+             final LibraryClassLoaders.Lease otherLease = cut.acquire(Collections.singleton(first))) {
+            assertThat(sameLease.getClassLoader(), is(sameInstance(lease.getClassLoader())));
+            assertThat(otherLease.getClassLoader(), is(not(sameInstance(lease.getClassLoader()))));
+        }
+
+        assertThat(cut.getHits(), is(1L));
+        assertThat(cut.getMisses(), is(2L));
+    }
+
+    @Test
+    public void testChangedClassPath() throws IOException {
+        final Path directory = folder.newFolder("classes").toPath();
+        final LibraryClassLoaders cut = new LibraryClassLoaders(2);
+
+        final ClassLoader classLoader;
+        try (final LibraryClassLoaders.Lease lease = cut.acquire(Collections.singleton(directory))) {
+            classLoader = lease.getClassLoader();
+        }
+
+        directory.toFile().setLastModified(directory.toFile().lastModified() - 10_000);
+
+        try (final LibraryClassLoaders.Lease lease = cut.acquire(Collections.singleton(directory))) {
+            assertThat(lease.getClassLoader(), is(not(sameInstance(classLoader))));
+        }
+        assertThat(cut.size(), is(1));
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        final LibraryClassLoaders cut = new LibraryClassLoaders(1);
+
+        cut.acquire(Collections.singleton(folder.newFolder("first").toPath())).close();
+        cut.acquire(Collections.singleton(folder.newFolder("second").toPath())).close();
+
+        assertThat(cut.size(), is(1));
+    }
+
+    @Test
+    public void testConcurrentAcquire() throws Exception {
+        final Path directory = folder.newFolder("classes").toPath();
+        final LibraryClassLoaders cut = new LibraryClassLoaders(2);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final List<Future<ClassLoader>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                futures.add(executor.submit(() -> {
+                    try (final LibraryClassLoaders.Lease lease = cut.acquire(Collections.singleton(directory))) {
+                        return lease.getClassLoader();
+                    }
+                }));
+
+            final ClassLoader classLoader = futures.get(0).get();
+            for (final Future<ClassLoader> future : futures)
+                assertThat(future.get(), is(sameInstance(classLoader)));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(cut.getMisses(), is(1L));
+        assertThat(cut.getHits(), is(7L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingClassPath() {
+        new LibraryClassLoaders(1).acquire(Collections.singleton(folder.getRoot().toPath().resolve("missing")));
+    }
+
+}
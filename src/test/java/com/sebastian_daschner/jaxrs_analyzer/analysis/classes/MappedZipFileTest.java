@@ -0,0 +1,138 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class MappedZipFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRead() throws IOException {
+        final byte[] text = "Hello World, Hello World, Hello World".getBytes(StandardCharsets.UTF_8);
+        final byte[] random = new byte[100_000];
+        new Random(42).nextBytes(random);
+
+        final Path zip = folder.getRoot().toPath().resolve("test.jar");
+        try (final ZipOutputStream stream = new ZipOutputStream(Files.newOutputStream(zip))) {
+            stream.putNextEntry(new ZipEntry("com/"));
+            stream.closeEntry();
+            addDeflated(stream, "com/Text.class", text);
+            addStored(stream, "com/Random.bin", random);
+            addDeflated(stream, "com/Empty.txt", new byte[0]);
+            stream.setComment("a comment which precedes the end of the central directory");
+        }
+
+        final MappedZipFile cut = MappedZipFile.open(zip);
+        final List<MappedZipFile.Entry> entries = cut.getEntries();
+
+        assertThat(entries.stream().map(MappedZipFile.Entry::getName).collect(Collectors.toList()),
+                is(Arrays.asList("com/Text.class", "com/Random.bin", "com/Empty.txt")));
+        assertThat(cut.read(entries.get(0)), is(text));
+        assertThat(cut.read(entries.get(1)), is(random));
+        assertThat(cut.read(entries.get(2)).length, is(0));
+        // the buffers are reused
+        assertThat(cut.read(entries.get(0)), is(text));
+    }
+
+    @Test
+    public void testEntryLargerThanFile() throws IOException {
+        final byte[] zeros = new byte[1 << 20];
+
+        final Path zip = folder.getRoot().toPath().resolve("zeros.jar");
+        try (final ZipOutputStream stream = new ZipOutputStream(Files.newOutputStream(zip))) {
+            addDeflated(stream, "zeros.bin", zeros);
+        }
+
+        final MappedZipFile cut = MappedZipFile.open(zip);
+        assertThat(Files.size(zip) < zeros.length, is(true));
+        assertThat(cut.read(cut.getEntries().get(0)), is(zeros));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadAfterClose() throws IOException {
+        final Path zip = folder.getRoot().toPath().resolve("test.jar");
+        try (final ZipOutputStream stream = new ZipOutputStream(Files.newOutputStream(zip))) {
+            addStored(stream, "com/Text.txt", "Hello World".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final MappedZipFile cut = MappedZipFile.open(zip);
+        final MappedZipFile.Entry entry = cut.getEntries().get(0);
+        cut.close();
+
+        cut.read(entry);
+    }
+
+    @Test
+    public void testInputBuffer() {
+        final byte[] small = MappedZipFile.inputBuffer(100);
+        assertThat(MappedZipFile.inputBuffer(50) == small, is(true));
+
+        final byte[] large = MappedZipFile.inputBuffer(MappedZipFile.MAX_CACHED_INPUT_SIZE + 1);
+        assertThat(large.length, is(MappedZipFile.MAX_CACHED_INPUT_SIZE + 1));
+        // buffers above the limit are not kept by the thread
+        assertThat(MappedZipFile.inputBuffer(100) == small, is(true));
+        assertThat(MappedZipFile.inputBuffer(MappedZipFile.MAX_CACHED_INPUT_SIZE).length, is(MappedZipFile.MAX_CACHED_INPUT_SIZE));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadArchiveAfterClose() throws IOException {
+        final Path zip = folder.getRoot().toPath().resolve("test.jar");
+        try (final ZipOutputStream stream = new ZipOutputStream(Files.newOutputStream(zip))) {
+            addDeflated(stream, "com/Text.class", "Hello World".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final ClassPathIndex.Location location;
+        try (final ClassPathIndex.Archive archive = ClassPathIndex.openArchive(zip)) {
+            location = archive.getLocations().get(0);
+            assertThat(location.read(), is("Hello World".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        location.read();
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidFile() throws IOException {
+        final Path file = folder.getRoot().toPath().resolve("invalid.jar");
+        Files.write(file, "no zip file".getBytes(StandardCharsets.UTF_8));
+
+        MappedZipFile.open(file);
+    }
+
+    private static void addDeflated(final ZipOutputStream stream, final String name, final byte[] bytes) throws IOException {
+        stream.putNextEntry(new ZipEntry(name));
+        stream.write(bytes);
+        stream.closeEntry();
+    }
+
+    private static void addStored(final ZipOutputStream stream, final String name, final byte[] bytes) throws IOException {
+        final ZipEntry entry = new ZipEntry(name);
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        entry.setCompressedSize(bytes.length);
+        entry.setCrc(crc.getValue());
+        stream.putNextEntry(entry);
+        stream.write(bytes);
+        stream.closeEntry();
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import com.sebastian_daschner.jaxrs_analyzer.model.Types;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.Instruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.instructions.PushInstruction;
+import com.sebastian_daschner.jaxrs_analyzer.model.methods.MethodIdentifier;
+import org.junit.After;
+import org.junit.Test;
+import org.objectweb.asm.Type;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ProjectClassModelPoolTest {
+
+    private static final String SUPER_CLASS = Type.getInternalName(SuperModel.class);
+    private static final String SUB_CLASS = Type.getInternalName(SubModel.class);
+
+    private final ProjectClassModelPool cut = ProjectClassModelPool.getInstance();
+
+    @After
+    public void tearDown() {
+        cut.clear();
+    }
+
+    @Test
+    public void testDeclaredMethod() {
+        final List<Instruction> instructions = cut.getInstructions(MethodIdentifier.ofNonStatic(SUPER_CLASS, "greeting", Types.STRING));
+
+        assertThat(instructions.stream().anyMatch(i -> i instanceof PushInstruction && "hello".equals(((PushInstruction) i).getValue())), is(true));
+    }
+
+    @Test
+    public void testInheritedMethod() {
+        final List<Instruction> superInstructions = cut.getInstructions(MethodIdentifier.ofNonStatic(SUPER_CLASS, "greeting", Types.STRING));
+        final List<Instruction> subInstructions = cut.getInstructions(MethodIdentifier.ofNonStatic(SUB_CLASS, "greeting", Types.STRING));
+
+        assertThat(subInstructions, is(superInstructions));
+    }
+
+    @Test
+    public void testUnknownMethod() {
+        assertThat(cut.getInstructions(MethodIdentifier.ofNonStatic(SUB_CLASS, "unknown", Types.STRING)).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testUnknownClass() {
+        assertThat(cut.getInstructions(MethodIdentifier.ofNonStatic("com/example/Unknown", "greeting", Types.STRING)), nullValue());
+    }
+
+    @Test
+    public void testClassParsedOnce() throws IOException {
+        final ProjectClassModel classModel = cut.getClassModel(SUB_CLASS);
+
+        assertThat(cut.getClassModel(SUB_CLASS.replace('/', '.')), sameInstance(classModel));
+        assertThat(classModel.getSuperName(), is(SUPER_CLASS));
+    }
+
+    public static class SuperModel {
+        public String greeting() {
+            return "hello";
+        }
+    }
+
+    public static class SubModel extends SuperModel {
+        public String other() {
+            return greeting();
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TypeDecisionCacheTest {
+
+    private TypeDecisionCache cut;
+    private AtomicInteger decisions;
+    private BiPredicate<String, String> decision;
+
+    @Before
+    public void setUp() {
+        cut = new TypeDecisionCache(2);
+        decisions = new AtomicInteger();
+        decision = (l, r) -> {
+            decisions.incrementAndGet();
+            return l.length() > r.length();
+        };
+    }
+
+    @Test
+    public void testMemoized() {
+        assertThat(cut.isAssignableTo("Ljava/util/ArrayList;", "Ljava/util/List;", decision), is(true));
+        assertThat(cut.isAssignableTo("Ljava/util/ArrayList;", "Ljava/util/List;", decision), is(true));
+        assertThat(cut.isAssignableTo("Ljava/util/List;", "Ljava/util/ArrayList;", decision), is(false));
+
+        assertThat(decisions.get(), is(2));
+        assertThat(cut.getAssignabilityHits(), is(1L));
+        assertThat(cut.getAssignabilityMisses(), is(2L));
+        assertThat(cut.getSpecificityMisses(), is(0L));
+        assertThat(cut.getStatistics(), is("assignability 1 hits, 2 misses (33.3 %), specificity 0 hits, 0 misses"));
+    }
+
+    @Test
+    public void testTablesAreSeparate() {
+        assertThat(cut.isAssignableTo("Ljava/util/ArrayList;", "Ljava/util/List;", decision), is(true));
+        assertThat(cut.isMostSpecific("Ljava/util/ArrayList;", "Ljava/util/List;", (f, s) -> false), is(false));
+
+        assertThat(cut.getSpecificityMisses(), is(1L));
+    }
+
+    @Test
+    public void testBounded() {
+        cut.isAssignableTo("LA;", "LB;", decision);
+        cut.isAssignableTo("LA;", "LC;", decision);
+        cut.isAssignableTo("LA;", "LD;", decision);
+        cut.isAssignableTo("LA;", "LB;", decision);
+
+        assertThat(decisions.get(), is(4));
+    }
+
+    @Test
+    public void testClear() {
+        cut.isAssignableTo("LA;", "LB;", decision);
+        cut.clear();
+        cut.isAssignableTo("LA;", "LB;", decision);
+
+        assertThat(decisions.get(), is(2));
+        assertThat(cut.getAssignabilityHits(), is(0L));
+        assertThat(cut.getAssignabilityMisses(), is(1L));
+    }
+
+}
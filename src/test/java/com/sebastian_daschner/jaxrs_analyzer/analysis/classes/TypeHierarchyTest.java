@@ -0,0 +1,53 @@
+package com.sebastian_daschner.jaxrs_analyzer.analysis.classes;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TypeHierarchyTest {
+
+    private static final String BASE = "com/sebastian_daschner/jaxrs_analyzer/analysis/classes/TypeHierarchyTest$Base";
+    private static final String MARKER = "com/sebastian_daschner/jaxrs_analyzer/analysis/classes/TypeHierarchyTest$Marker";
+    private static final String SUB = "com/sebastian_daschner/jaxrs_analyzer/analysis/classes/TypeHierarchyTest$Sub";
+
+    private TypeHierarchy cut;
+
+    @Before
+    public void setUp() {
+        cut = new TypeHierarchy(new ClassBytesCache(getClass().getClassLoader(), ClassBytesCache.DEFAULT_MAX_SIZE));
+    }
+
+    @Test
+    public void testSuperTypes() {
+        assertThat(cut.getDirectSuperTypes(Sub.class.getName()), is(Arrays.asList(BASE, MARKER)));
+        // breadth-first order
+        assertThat(Arrays.asList(cut.getSuperTypes(SUB).toArray()), is(Arrays.asList(BASE, MARKER, "java/lang/Object", "java/io/Serializable")));
+        assertThat(cut.getSuperTypes(MARKER), is(new HashSet<>(Arrays.asList("java/lang/Object", "java/io/Serializable"))));
+    }
+
+    @Test
+    public void testIsSubType() {
+        assertThat(cut.isSubType(Sub.class.getName(), Base.class.getName()), is(true));
+        assertThat(cut.isSubType(SUB, "java/io/Serializable"), is(true));
+        assertThat(cut.isSubType(SUB, SUB), is(true));
+        assertThat(cut.isSubType(BASE, SUB), is(false));
+        assertThat(cut.isSubType("java/util/ArrayList", "java/util/Collection"), is(true));
+        assertThat(cut.isSubType("com/example/Missing", "java/lang/Object"), is(false));
+    }
+
+    private static class Base {
+    }
+
+    private interface Marker extends Serializable {
+    }
+
+    private static class Sub extends Base implements Marker {
+    }
+
+}
@@ -13,6 +13,7 @@ import org.junit.runners.Parameterized;
 import java.util.Collection;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
@@ -34,6 +35,7 @@ public class PathNormalizerTest {
         final MethodResult methodResult = findDeepestMethodResult(classResults);
 
         assertThat(PathNormalizer.getPath(methodResult), is(expectedPath));
+        assertThat(PathNormalizer.getPath(singletonList(classResults.getMethods().iterator().next()), methodResult), is(expectedPath));
     }
 
     @Parameterized.Parameters(name = "{0}, {1}, {2} -> {3}")
@@ -90,6 +90,31 @@ public class ResultInterpreterTest {
         assertEquals(expectedResult, actualResult);
     }
 
+    @Test
+    public void testSharedSubResource() {
+        final Resources expectedResult = new Resources();
+        expectedResult.setBasePath("path");
+        final ResourceMethod resourcePostMethod = ResourceMethodBuilder.withMethod(HttpMethod.POST)
+                .andResponse(204, ResponseBuilder.newBuilder().build()).build();
+        expectedResult.addMethod("test/first", resourcePostMethod);
+        expectedResult.addMethod("test/second", resourcePostMethod);
+
+        final ClassResult appPathResult = ClassResultBuilder.withApplicationPath("/path").build();
+        final MethodResult firstLocator = MethodResultBuilder.newBuilder().andPath("/first").build();
+        final MethodResult secondLocator = MethodResultBuilder.newBuilder().andPath("/second").build();
+        final MethodResult subResourceMethod = MethodResultBuilder.withResponses(HttpResponseBuilder.withStatues(204).build()).andMethod(HttpMethod.POST).build();
+        final ClassResult subResource = ClassResultBuilder.withResourcePath(null).andMethods(subResourceMethod).build();
+        firstLocator.setSubResource(subResource);
+        secondLocator.setSubResource(subResource);
+        final ClassResult resClassResult = ClassResultBuilder.withResourcePath("/test").andMethods(firstLocator, secondLocator).build();
+
+        final Set<ClassResult> results = new HashSet<>(Arrays.asList(appPathResult, resClassResult));
+
+        final Resources actualResult = classUnderTest.interpret(results);
+
+        assertEquals(expectedResult, actualResult);
+    }
+
     @Test
     public void testRootResource() {
         final Resources expectedResult = new Resources();
@@ -3,6 +3,12 @@ package com.sebastian_daschner.jaxrs_analyzer.analysis.utils;
 import com.sebastian_daschner.jaxrs_analyzer.model.Types;
 import org.junit.Test;
 
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+import java.lang.reflect.Method;
+import java.util.List;
+
 import static com.sebastian_daschner.jaxrs_analyzer.model.JavaUtils.*;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.is;
@@ -225,4 +231,47 @@ public class JavaUtilsTest {
         assertEquals("java.util.List<? extends com.sebastian_daschner.model.Model>", toReadableType("Ljava/util/List<+Lcom/sebastian_daschner/model/Model;>;"));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testFindMethod() throws NoSuchMethodException {
+        assertEquals(Overloads.class.getDeclaredMethod("get"), findMethod(Overloads.class, "get", "()Ljava/lang/String;"));
+        assertEquals(Overloads.class.getDeclaredMethod("get", String.class), findMethod(Overloads.class, "get", "(Ljava/lang/String;)Ljava/lang/String;"));
+        assertEquals(Overloads.class.getDeclaredMethod("get", List.class),
+                findMethod(Overloads.class, "get", "(Ljava/util/List<Ljava/lang/String;>;)Ljava/lang/String;"));
+        // return types are not taken into account
+        assertEquals(Overloads.class.getDeclaredMethod("get", String.class), findMethod(Overloads.class, "get", "(Ljava/lang/String;)V"));
+        assertNull(findMethod(Overloads.class, "get", "(I)Ljava/lang/String;"));
+        assertNull(findMethod(Overloads.class, "missing", "()V"));
+    }
+
+    @Test
+    public void testAnnotations() throws NoSuchMethodException {
+        final Method method = Overloads.class.getDeclaredMethod("get", String.class);
+
+        assertTrue(isAnnotationPresent(Overloads.class, Path.class));
+        assertTrue(isAnnotationPresent(method, GET.class));
+        assertFalse(isAnnotationPresent(method, Path.class));
+        assertEquals("overloads", getAnnotation(Overloads.class, Path.class).value());
+        assertSame(getAnnotation(method, GET.class), getAnnotation(Overloads.class.getDeclaredMethod("get", String.class), GET.class));
+        assertEquals("q", getAnnotation(method.getParameters()[0], QueryParam.class).value());
+        assertNull(getAnnotation(Overloads.class.getDeclaredMethod("get"), GET.class));
+    }
+
+    @Path("overloads")
+    private static class Overloads {
+
+        String get() {
+            return null;
+        }
+
+        @GET
+        String get(@QueryParam("q") String query) {
+            return query;
+        }
+
+        String get(List<String> queries) {
+            return null;
+        }
+
+    }
+
+}
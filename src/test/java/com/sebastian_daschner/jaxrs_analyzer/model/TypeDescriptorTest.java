@@ -0,0 +1,49 @@
+package com.sebastian_daschner.jaxrs_analyzer.model;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class TypeDescriptorTest {
+
+    @Test
+    public void testInterning() {
+        final TypeDescriptor descriptor = TypeDescriptor.of("Ljava/util/List<Ljava/lang/String;>;");
+
+        assertThat(TypeDescriptor.of(new String("Ljava/util/List<Ljava/lang/String;>;")), sameInstance(descriptor));
+        assertThat(descriptor.getClassName(), is("java/util/List"));
+        assertThat(descriptor.getClassName(), sameInstance(descriptor.getClassName()));
+        assertThat(descriptor.getTypeParameters(), is(Collections.singletonList(Types.STRING)));
+        assertThat(descriptor.hasTypeArguments(), is(true));
+        assertThat(descriptor.isArray(), is(false));
+    }
+
+    @Test
+    public void testMethodSignature() {
+        final TypeDescriptor descriptor = TypeDescriptor.of("(Ljava/lang/String;[ITT;)V");
+
+        assertThat(descriptor.getParameters(), is(Arrays.asList(Types.STRING, "[I", Types.OBJECT)));
+        assertThat(descriptor.getParameters(), sameInstance(descriptor.getParameters()));
+    }
+
+    @Test
+    public void testBounded() {
+        TypeDescriptor.clear();
+        for (int i = 0; i <= TypeDescriptor.MAX_SIZE; i++) {
+            TypeDescriptor.of("Lcom/example/Type" + i + ';');
+        }
+
+        assertThat(TypeDescriptor.size() <= TypeDescriptor.MAX_SIZE, is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidType() {
+        TypeDescriptor.of("(I)V").getClassName();
+    }
+
+}